@@ -5,6 +5,8 @@ import com.example.mineskill.gui.GuiManager;
 import com.example.mineskill.listeners.*;
 import com.example.mineskill.managers.ActionTracker;
 import com.example.mineskill.managers.PlayerDataManager;
+import com.example.mineskill.managers.QuestAccumulator;
+import com.example.mineskill.managers.QuestRegistry;
 import com.example.mineskill.managers.SkillApplier;
 import com.example.mineskill.managers.SkillManager;
 import org.bukkit.Bukkit;
@@ -16,6 +18,8 @@ public class MineSkillPlugin extends JavaPlugin {
     private SkillApplier skillApplier;
     private GuiManager guiManager;
     private ActionTracker actionTracker;
+    private QuestRegistry questRegistry;
+    private QuestAccumulator questAccumulator;
 
     @Override
     public void onEnable() {
@@ -26,6 +30,8 @@ public class MineSkillPlugin extends JavaPlugin {
         skillApplier = new SkillApplier(this);
         guiManager = new GuiManager(this);
         actionTracker = new ActionTracker(this);
+        questRegistry = new QuestRegistry(this);
+        questAccumulator = new QuestAccumulator(this);
 
         registerListeners();
         registerCommands();
@@ -37,7 +43,7 @@ public class MineSkillPlugin extends JavaPlugin {
     @Override
     public void onDisable() {
         if (playerDataManager != null) {
-            playerDataManager.saveAllPlayers();
+            playerDataManager.shutdown();
         }
 
         getLogger().info("MineSkill успешно отключен!");
@@ -77,4 +83,12 @@ public class MineSkillPlugin extends JavaPlugin {
     public ActionTracker getActionTracker() {
         return actionTracker;
     }
+
+    public QuestRegistry getQuestRegistry() {
+        return questRegistry;
+    }
+
+    public QuestAccumulator getQuestAccumulator() {
+        return questAccumulator;
+    }
 }
@@ -3,7 +3,9 @@ package com.example.mineskill.commands;
 import com.example.mineskill.MineSkillPlugin;
 import com.example.mineskill.models.PlayerSkillData;
 import com.example.mineskill.models.Skill;
+import com.example.mineskill.storage.SaveQueue;
 import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabExecutor;
@@ -51,8 +53,10 @@ public class SkillTreeCommand implements TabExecutor {
                 return handleAddPoints(sender, args);
             case "reload":
                 return handleReload(sender);
+            case "saves":
+                return handleSaves(sender);
             default:
-                sender.sendMessage(parseColor("&cНеизвестная подкоманда. Используйте: /skilltree <open|info|reset|addpoints|reload>"));
+                sender.sendMessage(parseColor("&cНеизвестная подкоманда. Используйте: /skilltree <open|info|reset|addpoints|reload|saves>"));
                 return true;
         }
     }
@@ -113,7 +117,7 @@ public class SkillTreeCommand implements TabExecutor {
             return true;
         }
 
-        Player target;
+        OfflinePlayer target;
         if (args.length < 2) {
             if (!(sender instanceof Player)) {
                 sender.sendMessage(parseColor("&cУкажите игрока: /skilltree reset <игрок>"));
@@ -121,7 +125,7 @@ public class SkillTreeCommand implements TabExecutor {
             }
             target = (Player) sender;
         } else {
-            target = Bukkit.getPlayer(args[1]);
+            target = findTarget(args[1]);
             if (target == null) {
                 sender.sendMessage(parseColor(plugin.getConfig().getString("gui.messages.player-not-found")));
                 return true;
@@ -129,11 +133,15 @@ public class SkillTreeCommand implements TabExecutor {
         }
 
         plugin.getPlayerDataManager().resetPlayerSkills(target.getUniqueId());
-        plugin.getSkillApplier().applySkills(target);
 
-        String message = plugin.getConfig().getString("gui.messages.skill-reset", 
-            "Все скиллы сброшены! Очки возвращены.");
-        target.sendMessage(parseColor(message));
+        Player online = target.getPlayer();
+        if (online != null) {
+            plugin.getSkillApplier().applySkills(online);
+
+            String message = plugin.getConfig().getString("gui.messages.skill-reset", 
+                "Все скиллы сброшены! Очки возвращены.");
+            online.sendMessage(parseColor(message));
+        }
         sender.sendMessage(parseColor("&aСкиллы игрока " + target.getName() + " успешно сброшены."));
 
         return true;
@@ -150,7 +158,7 @@ public class SkillTreeCommand implements TabExecutor {
             return true;
         }
 
-        Player target = Bukkit.getPlayer(args[1]);
+        OfflinePlayer target = findTarget(args[1]);
         if (target == null) {
             sender.sendMessage(parseColor(plugin.getConfig().getString("gui.messages.player-not-found")));
             return true;
@@ -171,7 +179,11 @@ public class SkillTreeCommand implements TabExecutor {
                 .replace("%d", String.valueOf(amount));
             
             sender.sendMessage(parseColor(message));
-            target.sendMessage(parseColor("&e+ " + amount + " очков скиллов!"));
+
+            Player online = target.getPlayer();
+            if (online != null) {
+                online.sendMessage(parseColor("&e+ " + amount + " очков скиллов!"));
+            }
 
             return true;
         } catch (NumberFormatException e) {
@@ -187,6 +199,8 @@ public class SkillTreeCommand implements TabExecutor {
         }
 
         plugin.reloadConfig();
+        plugin.getQuestRegistry().load();
+        plugin.getQuestAccumulator().reload();
         plugin.getLogger().info("Конфигурация перезагружена " + sender.getName());
 
         String message = plugin.getConfig().getString("gui.messages.reload", "Конфигурация перезагружена!");
@@ -195,12 +209,28 @@ public class SkillTreeCommand implements TabExecutor {
         return true;
     }
 
+    private boolean handleSaves(CommandSender sender) {
+        if (!sender.hasPermission("skilltree.admin")) {
+            sender.sendMessage(parseColor(plugin.getConfig().getString("gui.messages.no-permission")));
+            return true;
+        }
+
+        SaveQueue queue = plugin.getPlayerDataManager().getSaveQueue();
+        sender.sendMessage(parseColor("&6=== &eОчередь сохранений &6==="));
+        sender.sendMessage(parseColor("&7В очереди: &e" + queue.getDepth() + "&7/&e" + queue.getCapacity()
+            + " &7(пик &e" + queue.getPeakDepth() + "&7)"));
+        sender.sendMessage(parseColor("&7Принято: &e" + queue.getSubmitted() + " &7объединено: &e" + queue.getCoalesced()
+            + " &7отклонено: &e" + queue.getRejected()));
+        sender.sendMessage(parseColor("&7Записано: &e" + queue.getWritten() + " &7ошибок: &c" + queue.getFailed()));
+        return true;
+    }
+
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
         List<String> completions = new ArrayList<>();
 
         if (args.length == 1) {
-            List<String> subcommands = Arrays.asList("open", "info", "reset", "addpoints", "reload");
+            List<String> subcommands = Arrays.asList("open", "info", "reset", "addpoints", "reload", "saves");
             completions.addAll(subcommands.stream()
                 .filter(s -> s.startsWith(args[0].toLowerCase()))
                 .collect(Collectors.toList()));
@@ -217,6 +247,18 @@ public class SkillTreeCommand implements TabExecutor {
         return completions;
     }
 
+    private OfflinePlayer findTarget(String name) {
+        Player online = Bukkit.getPlayer(name);
+        if (online != null) return online;
+
+        // Без сетевого запроса к Mojang: только игроки, уже заходившие на сервер
+        OfflinePlayer offline = Bukkit.getOfflinePlayerIfCached(name);
+        if (offline == null || plugin.getPlayerDataManager().getOfflinePlayerData(offline.getUniqueId()) == null) {
+            return null;
+        }
+        return offline;
+    }
+
     private String parseColor(String text) {
         return text.replace("&", "§");
     }
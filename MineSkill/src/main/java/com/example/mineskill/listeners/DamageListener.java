@@ -6,15 +6,13 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class DamageListener implements Listener {
     private final MineSkillPlugin plugin;
-    private final Random random;
 
     public DamageListener(MineSkillPlugin plugin) {
         this.plugin = plugin;
-        this.random = new Random();
     }
 
     @EventHandler
@@ -35,7 +33,7 @@ public class DamageListener implements Listener {
         if (evasionLevel == 0) return;
 
         double evasionChance = evasionLevel * 0.05;
-        if (random.nextDouble() < evasionChance) {
+        if (ThreadLocalRandom.current().nextDouble() < evasionChance) {
             double originalDamage = event.getFinalDamage();
             double reducedDamage = originalDamage * (1.0 - evasionChance);
             event.setDamage(reducedDamage);
@@ -47,7 +45,7 @@ public class DamageListener implements Listener {
         if (critChanceLevel == 0) return;
 
         double critChance = critChanceLevel * 0.05;
-        if (random.nextDouble() < critChance) {
+        if (ThreadLocalRandom.current().nextDouble() < critChance) {
             double originalDamage = event.getDamage();
             double critDamage = originalDamage * 1.5;
             event.setDamage(critDamage);
@@ -1,35 +1,12 @@
 package com.example.mineskill.listeners;
 
 import com.example.mineskill.MineSkillPlugin;
-import org.bukkit.Material;
-import org.bukkit.block.Block;
-import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
 
-import java.util.Set;
-
 public class MiningActionListener implements Listener {
     private final MineSkillPlugin plugin;
-    
-    private static final Set<Material> MINEABLE_BLOCKS = Set.of(
-        // Камень
-        Material.STONE, Material.COBBLESTONE, Material.DEEPSLATE, Material.COBBLED_DEEPSLATE,
-        Material.ANDESITE, Material.DIORITE, Material.GRANITE,
-        
-        // Руды
-        Material.COAL_ORE, Material.DEEPSLATE_COAL_ORE,
-        Material.IRON_ORE, Material.DEEPSLATE_IRON_ORE,
-        Material.COPPER_ORE, Material.DEEPSLATE_COPPER_ORE,
-        Material.GOLD_ORE, Material.DEEPSLATE_GOLD_ORE,
-        Material.REDSTONE_ORE, Material.DEEPSLATE_REDSTONE_ORE,
-        Material.LAPIS_ORE, Material.DEEPSLATE_LAPIS_ORE,
-        Material.DIAMOND_ORE, Material.DEEPSLATE_DIAMOND_ORE,
-        Material.EMERALD_ORE, Material.DEEPSLATE_EMERALD_ORE,
-        Material.NETHER_GOLD_ORE, Material.NETHER_QUARTZ_ORE,
-        Material.ANCIENT_DEBRIS
-    );
 
     public MiningActionListener(MineSkillPlugin plugin) {
         this.plugin = plugin;
@@ -37,12 +14,7 @@ public class MiningActionListener implements Listener {
 
     @EventHandler
     public void onBlockBreak(BlockBreakEvent event) {
-        Player player = event.getPlayer();
-        Block block = event.getBlock();
-        Material material = block.getType();
-
-        if (MINEABLE_BLOCKS.contains(material)) {
-            plugin.getActionTracker().trackMiningProgress(player, 1);
-        }
+        // Какие блоки засчитываются, задают квесты в config.yml (quests.*.blocks)
+        plugin.getActionTracker().trackBlockBreak(event.getPlayer(), event.getBlock().getType());
     }
 }
@@ -1,59 +1,48 @@
 package com.example.mineskill.listeners;
 
 import com.example.mineskill.MineSkillPlugin;
+import com.example.mineskill.utils.PositionTracker;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerToggleSprintEvent;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
-
 public class MovementActionListener implements Listener {
     private final MineSkillPlugin plugin;
-    private final Map<UUID, Location> lastLocations = new HashMap<>();
-    private final Map<UUID, Integer> jumpCounts = new HashMap<>();
-    private final Map<UUID, Long> lastJumpTime = new HashMap<>();
+    private final PositionTracker positions;
 
     public MovementActionListener(MineSkillPlugin plugin) {
         this.plugin = plugin;
+        this.positions = new PositionTracker(Math.max(16, Bukkit.getMaxPlayers()));
     }
 
     @EventHandler
     public void onPlayerMove(PlayerMoveEvent event) {
         Player player = event.getPlayer();
         Location to = event.getTo();
-        
+
         if (to == null) return;
-        
-        // Отслеживаем дистанцию для Swift Movement
-        Location last = lastLocations.get(player.getUniqueId());
-        if (last != null && last.getWorld() == to.getWorld()) {
-            double distance = last.distance(to);
-            if (distance > 0.1 && distance < 10) { // Фильтруем телепорты
-                plugin.getActionTracker().trackMovementProgress(player, distance);
-            }
+
+        int slot = positions.slotOf(player.getUniqueId());
+
+        // Отслеживаем дистанцию для Swift Movement (в квест уходят целые блоки)
+        int blocks = positions.move(slot, to.getWorld(), to.getX(), to.getY(), to.getZ());
+        if (blocks > 0) {
+            plugin.getActionTracker().trackMovementProgress(player, blocks);
         }
-        lastLocations.put(player.getUniqueId(), to.clone());
-        
+
         // Отслеживаем прыжки для Double Jump
-        if (!player.isOnGround() && player.getVelocity().getY() > 0.2) {
-            UUID uuid = player.getUniqueId();
-            long currentTime = System.currentTimeMillis();
-            Long lastTime = lastJumpTime.get(uuid);
-            
+        if (!player.isOnGround() && to.getY() - event.getFrom().getY() > 0.2) {
             // Считаем прыжок только если прошло более 500ms с последнего
-            if (lastTime == null || currentTime - lastTime > 500) {
-                int jumps = jumpCounts.getOrDefault(uuid, 0) + 1;
-                jumpCounts.put(uuid, jumps);
-                lastJumpTime.put(uuid, currentTime);
-                
-                if (jumps % 10 == 0) { // Каждые 10 прыжков обновляем квест
-                    plugin.getActionTracker().trackJumpProgress(player);
-                }
+            int jumps = positions.jump(slot, System.currentTimeMillis(), 500);
+
+            if (jumps > 0 && jumps % 10 == 0) { // Каждые 10 прыжков обновляем квест
+                plugin.getActionTracker().trackJumpProgress(player);
             }
         }
     }
@@ -63,7 +52,14 @@ public class MovementActionListener implements Listener {
         // Дополнительное отслеживание для спринта
         Player player = event.getPlayer();
         if (event.isSprinting()) {
-            lastLocations.put(player.getUniqueId(), player.getLocation());
+            Location location = player.getLocation();
+            positions.reset(positions.slotOf(player.getUniqueId()),
+                location.getWorld(), location.getX(), location.getY(), location.getZ());
         }
     }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        positions.release(event.getPlayer().getUniqueId());
+    }
 }
@@ -18,7 +18,9 @@ public class PlayerQuitListener implements Listener {
         Player player = event.getPlayer();
         
         plugin.getPlayerDataManager().savePlayerData(player);
+        plugin.getPlayerDataManager().scheduleUnload(player.getUniqueId());
         plugin.getGuiManager().closeGui(player);
+        plugin.getSkillApplier().forget(player.getUniqueId());
 
         plugin.getLogger().info("Сохранены данные скиллов для игрока: " + player.getName());
     }
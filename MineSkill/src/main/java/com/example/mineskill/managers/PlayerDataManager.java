@@ -2,146 +2,187 @@ package com.example.mineskill.managers;
 
 import com.example.mineskill.MineSkillPlugin;
 import com.example.mineskill.models.PlayerSkillData;
-import com.example.mineskill.models.Skill;
-import com.example.mineskill.models.SkillQuest;
+import com.example.mineskill.storage.LegacyPlayersMigrator;
+import com.example.mineskill.storage.SaveJournal;
+import com.example.mineskill.storage.SaveQueue;
+import com.example.mineskill.storage.ShardedPlayerStore;
 import org.bukkit.Bukkit;
-import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.io.File;
-import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class PlayerDataManager {
     private final MineSkillPlugin plugin;
-    private final File playersFile;
+    private final ShardedPlayerStore store;
     private final Map<UUID, PlayerSkillData> playerDataCache;
+    private final Map<UUID, PlayerSkillData> offlineCache;
+    private final Map<UUID, BukkitTask> pendingUnloads;
+    private final SaveQueue saveQueue;
+    private final Set<UUID> dirty;
+    private final BukkitTask flushTask;
+    private final boolean lazyLoading;
+    private final long unloadDelayTicks;
 
     public PlayerDataManager(MineSkillPlugin plugin) {
         this.plugin = plugin;
-        this.playersFile = new File(plugin.getDataFolder(), "players.yml");
+        this.store = new ShardedPlayerStore(plugin, new File(plugin.getDataFolder(), "players"));
         this.playerDataCache = new ConcurrentHashMap<>();
-        loadAllPlayers();
-    }
+        this.pendingUnloads = new ConcurrentHashMap<>();
+        this.dirty = ConcurrentHashMap.newKeySet();
+        this.lazyLoading = plugin.getConfig().getBoolean("storage.lazy-loading", true);
+        this.unloadDelayTicks = plugin.getConfig().getLong("storage.unload-delay-seconds", 300) * 20L;
+
+        int offlineCacheSize = Math.max(1, plugin.getConfig().getInt("storage.offline-cache-size", 100));
+        this.offlineCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, PlayerSkillData> eldest) {
+                return size() > offlineCacheSize;
+            }
+        });
 
-    private void loadAllPlayers() {
-        if (!playersFile.exists()) {
-            try {
-                playersFile.createNewFile();
-            } catch (IOException e) {
-                plugin.getLogger().severe("Не удалось создать файл players.yml: " + e.getMessage());
+        this.saveQueue = new SaveQueue(plugin, store, new SaveJournal(new File(plugin.getDataFolder(), "save-journal.log")),
+            plugin.getConfig().getInt("storage.save-queue-capacity", 1000));
+        saveQueue.recover();
+
+        new LegacyPlayersMigrator(plugin, store).migrate(new File(plugin.getDataFolder(), "players.yml"));
+
+        if (lazyLoading) {
+            // Данные подгружаются при входе; после /reload онлайн-игроков загружаем сразу
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                preload(player.getUniqueId());
             }
-            return;
+        } else {
+            loadAllPlayers();
         }
 
-        FileConfiguration config = YamlConfiguration.loadConfiguration(playersFile);
-        ConfigurationSection playersSection = config.getConfigurationSection("players");
-        
-        if (playersSection != null) {
-            for (String uuidString : playersSection.getKeys(false)) {
-                try {
-                    UUID uuid = UUID.fromString(uuidString);
-                    PlayerSkillData data = loadPlayerData(config, uuid);
-                    if (data != null) {
-                        playerDataCache.put(uuid, data);
-                    }
-                } catch (IllegalArgumentException e) {
-                    plugin.getLogger().warning("Неверный UUID в players.yml: " + uuidString);
-                }
+        // quest-flush-seconds - прежнее название параметра
+        long flushIntervalSeconds = plugin.getConfig().getLong("storage.flush-interval-seconds",
+            plugin.getConfig().getLong("storage.quest-flush-seconds", 30));
+        long flushIntervalTicks = Math.max(1, flushIntervalSeconds) * 20L;
+        this.flushTask = Bukkit.getScheduler().runTaskTimer(plugin, this::flushDirty, flushIntervalTicks, flushIntervalTicks);
+    }
+
+    private void loadAllPlayers() {
+        for (UUID uuid : store.listStoredPlayers()) {
+            PlayerSkillData data = store.load(uuid);
+            if (data != null) {
+                playerDataCache.put(uuid, data);
             }
         }
-        
+
         plugin.getLogger().info("Загружено данных игроков: " + playerDataCache.size());
     }
 
-    private PlayerSkillData loadPlayerData(FileConfiguration config, UUID uuid) {
-        String path = "players." + uuid.toString();
-        String name = config.getString(path + ".name", "Unknown");
-        int skillPoints = config.getInt(path + ".skill_points", 0);
-        int totalPoints = config.getInt(path + ".total_points", 0);
+    public void preload(UUID uuid) {
+        BukkitTask pending = pendingUnloads.remove(uuid);
+        if (pending != null) {
+            pending.cancel();
+        }
 
-        PlayerSkillData data = new PlayerSkillData(uuid, name);
-        data.setSkillPoints(skillPoints);
-        data.setTotalPoints(totalPoints);
+        if (playerDataCache.containsKey(uuid)) return;
 
-        ConfigurationSection skillsSection = config.getConfigurationSection(path + ".skills");
-        if (skillsSection != null) {
-            for (String skillId : skillsSection.getKeys(false)) {
-                int level = skillsSection.getInt(skillId, 0);
-                if (level > 0) {
-                    data.setSkillLevel(skillId, level);
-                }
-            }
+        PlayerSkillData data = offlineCache.remove(uuid);
+        if (data == null) {
+            data = loadStored(uuid);
         }
-
-        // Загружаем квесты
-        ConfigurationSection questsSection = config.getConfigurationSection(path + ".quests");
-        if (questsSection != null) {
-            for (String skillId : questsSection.getKeys(false)) {
-                String questPath = path + ".quests." + skillId;
-                String questName = config.getString(questPath + ".name", "Quest");
-                int progress = config.getInt(questPath + ".progress", 0);
-                int target = config.getInt(questPath + ".target", 100);
-                double reward = config.getDouble(questPath + ".reward", 1.0);
-                
-                SkillQuest quest = new SkillQuest(skillId, questName, target, reward);
-                quest.setProgress(progress);
-                data.setQuest(skillId, quest);
-            }
+        if (data != null) {
+            playerDataCache.putIfAbsent(uuid, data);
         }
+    }
 
-        return data;
+    public void scheduleUnload(UUID uuid) {
+        if (!lazyLoading) return;
+
+        BukkitTask task = Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            pendingUnloads.remove(uuid);
+            if (Bukkit.getPlayer(uuid) != null) return;
+
+            removePlayerData(uuid);
+        }, unloadDelayTicks);
+
+        BukkitTask previous = pendingUnloads.put(uuid, task);
+        if (previous != null) {
+            previous.cancel();
+        }
     }
 
     public PlayerSkillData getPlayerData(UUID uuid) {
         return playerDataCache.computeIfAbsent(uuid, key -> {
             Player player = Bukkit.getPlayer(key);
-            if (player != null) {
-                return new PlayerSkillData(key, player.getName());
+            if (player == null) return null;
+
+            // Вход мимо AsyncPlayerPreLoginEvent (например, после /reload)
+            PlayerSkillData stored = offlineCache.remove(key);
+            if (stored == null) {
+                stored = loadStored(key);
             }
-            return null;
+            return stored != null ? stored : new PlayerSkillData(key, player.getName());
         });
     }
 
+    public PlayerSkillData getOfflinePlayerData(UUID uuid) {
+        PlayerSkillData data = playerDataCache.get(uuid);
+        if (data != null) return data;
+
+        synchronized (offlineCache) {
+            data = offlineCache.get(uuid);
+            if (data == null) {
+                data = loadStored(uuid);
+                if (data != null) {
+                    offlineCache.put(uuid, data);
+                }
+            }
+        }
+        return data;
+    }
+
+    // Снимок в очереди сохранений новее файла: игрока могли выгрузить до записи
+    private PlayerSkillData loadStored(UUID uuid) {
+        String pending = saveQueue.peek(uuid);
+        if (pending != null) {
+            PlayerSkillData data = store.deserialize(uuid, pending);
+            if (data != null) return data;
+        }
+        return store.load(uuid);
+    }
+
     public PlayerSkillData getPlayerData(Player player) {
         return getPlayerData(player.getUniqueId());
     }
 
-    public void savePlayerData(UUID uuid) {
+    // Снимок сериализуется в основном потоке, файл пишет поток сохранений.
+    // false - очередь переполнена, игрок остается измененным и сохранится при следующем сбросе
+    public boolean savePlayerData(UUID uuid) {
         PlayerSkillData data = playerDataCache.get(uuid);
-        if (data == null) return;
+        if (data == null) {
+            data = offlineCache.get(uuid);
+        }
+        dirty.remove(uuid);
+        if (data == null) return true;
 
-        FileConfiguration config = YamlConfiguration.loadConfiguration(playersFile);
-        String path = "players." + uuid.toString();
+        if (saveQueue.submit(uuid, store.serialize(data), false)) return true;
 
-        config.set(path + ".name", data.getName());
-        config.set(path + ".skill_points", data.getSkillPoints());
-        config.set(path + ".total_points", data.getTotalPoints());
+        dirty.add(uuid);
+        return false;
+    }
 
-        for (Map.Entry<String, Integer> entry : data.getSkills().entrySet()) {
-            config.set(path + ".skills." + entry.getKey(), entry.getValue());
-        }
+    public void markDirty(UUID uuid) {
+        dirty.add(uuid);
+    }
 
-        // Сохраняем квесты
-        for (Map.Entry<String, SkillQuest> entry : data.getQuests().entrySet()) {
-            String skillId = entry.getKey();
-            SkillQuest quest = entry.getValue();
-            String questPath = path + ".quests." + skillId;
-            
-            config.set(questPath + ".name", quest.getQuestName());
-            config.set(questPath + ".progress", quest.getProgress());
-            config.set(questPath + ".target", quest.getTarget());
-            config.set(questPath + ".reward", quest.getPointReward());
-        }
+    public void flushDirty() {
+        if (dirty.isEmpty()) return;
 
-        try {
-            config.save(playersFile);
-        } catch (IOException e) {
-            plugin.getLogger().severe("Не удалось сохранить данные игрока " + data.getName() + ": " + e.getMessage());
+        for (UUID uuid : new ArrayList<>(dirty)) {
+            if (!savePlayerData(uuid)) break;
         }
     }
 
@@ -149,19 +190,45 @@ public class PlayerDataManager {
         savePlayerData(player.getUniqueId());
     }
 
+    // Одна пачка в очереди (без ограничения емкости): один fsync журнала на всех игроков
     public void saveAllPlayers() {
-        for (UUID uuid : playerDataCache.keySet()) {
-            savePlayerData(uuid);
+        Map<UUID, String> snapshots = new LinkedHashMap<>();
+        for (Map.Entry<UUID, PlayerSkillData> entry : playerDataCache.entrySet()) {
+            snapshots.put(entry.getKey(), store.serialize(entry.getValue()));
+        }
+        for (UUID uuid : new ArrayList<>(dirty)) {
+            // Измененные оффлайн-игроки (админ-команды)
+            PlayerSkillData data = offlineCache.get(uuid);
+            if (data != null && !snapshots.containsKey(uuid)) {
+                snapshots.put(uuid, store.serialize(data));
+            }
         }
+        dirty.clear();
+        saveQueue.submitAll(snapshots);
+    }
+
+    public void shutdown() {
+        flushTask.cancel();
+        saveAllPlayers();
+        saveQueue.close(plugin.getConfig().getLong("storage.shutdown-timeout-seconds", 30));
+    }
+
+    public SaveQueue getSaveQueue() {
+        return saveQueue;
     }
 
     public void removePlayerData(UUID uuid) {
-        savePlayerData(uuid);
+        if (!savePlayerData(uuid)) {
+            // Очередь переполнена - выгрузим позже, чтобы не потерять изменения
+            scheduleUnload(uuid);
+            return;
+        }
         playerDataCache.remove(uuid);
+        plugin.getQuestAccumulator().forget(uuid);
     }
 
     public void addSkillPoints(UUID uuid, int amount) {
-        PlayerSkillData data = getPlayerData(uuid);
+        PlayerSkillData data = getOfflinePlayerData(uuid);
         if (data != null) {
             data.addSkillPoints(amount);
             savePlayerData(uuid);
@@ -169,7 +236,7 @@ public class PlayerDataManager {
     }
 
     public void resetPlayerSkills(UUID uuid) {
-        PlayerSkillData data = getPlayerData(uuid);
+        PlayerSkillData data = getOfflinePlayerData(uuid);
         if (data != null) {
             data.resetSkills();
             savePlayerData(uuid);
@@ -0,0 +1,115 @@
+package com.example.mineskill.managers;
+
+import com.example.mineskill.MineSkillPlugin;
+import com.example.mineskill.models.PlayerSkillData;
+import com.example.mineskill.models.QuestDefinition;
+import com.example.mineskill.models.SkillQuest;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class QuestAccumulator {
+    private final MineSkillPlugin plugin;
+    private final Map<UUID, PlayerQuests> players;
+
+    public QuestAccumulator(MineSkillPlugin plugin) {
+        this.plugin = plugin;
+        this.players = new ConcurrentHashMap<>();
+    }
+
+    public void add(Player player, int[] subscribed, int amount) {
+        if (subscribed.length == 0 || amount <= 0) return;
+
+        PlayerQuests quests = quests(player);
+        boolean changed = false;
+        for (int quest : subscribed) {
+            if ((quests.active[quest >>> 6] & (1L << quest)) == 0) continue;
+
+            SkillQuest current = quests.slots[quest];
+            if (current == null) {
+                QuestDefinition definition = plugin.getQuestRegistry().get(quest);
+                current = new SkillQuest(definition.getId(), definition.getName(), definition.getTarget(), definition.getReward());
+                quests.data.setQuest(definition.getId(), current);
+                quests.slots[quest] = current;
+            }
+
+            current.addProgress(amount);
+            if (current.isCompleted()) {
+                complete(player, quests, quest, current);
+            }
+            changed = true;
+        }
+
+        if (changed) {
+            // Сохранится при периодическом сбросе измененных игроков
+            plugin.getPlayerDataManager().markDirty(player.getUniqueId());
+        }
+    }
+
+    private void complete(Player player, PlayerQuests quests, int quest, SkillQuest completed) {
+        int reward = (int) completed.getPointReward();
+        quests.data.addSkillPoints(reward);
+        player.sendMessage("§a✔ Квест завершен! §e+" + reward + " очко навыка");
+        player.sendMessage("§7" + completed.getQuestName() + " §f" + completed.getProgress() + "/" + completed.getTarget());
+
+        // Создаем новый квест с удвоенной целью
+        SkillQuest next = new SkillQuest(completed.getSkillId(), completed.getQuestName(),
+            completed.getTarget() * 2, completed.getPointReward());
+        quests.data.setQuest(completed.getSkillId(), next);
+        quests.slots[quest] = next;
+    }
+
+    private PlayerQuests quests(Player player) {
+        PlayerSkillData data = plugin.getPlayerDataManager().getPlayerData(player);
+        PlayerQuests quests = players.get(player.getUniqueId());
+
+        // Данные перезагружены (выгрузка, бэкап) - ссылки на квесты устарели
+        if (quests == null || quests.data != data) {
+            quests = new PlayerQuests(plugin.getQuestRegistry(), data);
+            players.put(player.getUniqueId(), quests);
+        } else if (quests.skillsVersion != data.getSkillsVersion()) {
+            quests.updateActive(plugin.getQuestRegistry());
+        }
+        return quests;
+    }
+
+    public void forget(UUID uuid) {
+        players.remove(uuid);
+    }
+
+    public void reload() {
+        // Номера квестов после перезагрузки реестра могли измениться
+        players.clear();
+    }
+
+    private static final class PlayerQuests {
+        private final PlayerSkillData data;
+        private final SkillQuest[] slots;
+        private final long[] active;
+        private int skillsVersion;
+
+        private PlayerQuests(QuestRegistry registry, PlayerSkillData data) {
+            this.data = data;
+            this.slots = new SkillQuest[registry.size()];
+            this.active = new long[(registry.size() + 63) >>> 6];
+            for (QuestDefinition definition : registry.getDefinitions()) {
+                slots[definition.getIndex()] = data.getQuest(definition.getId());
+            }
+            updateActive(registry);
+        }
+
+        private void updateActive(QuestRegistry registry) {
+            skillsVersion = data.getSkillsVersion();
+            for (int i = 0; i < active.length; i++) {
+                active[i] = 0;
+            }
+            for (QuestDefinition definition : registry.getDefinitions()) {
+                if (definition.isAvailableFor(data)) {
+                    active[definition.getIndex() >>> 6] |= 1L << definition.getIndex();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.mineskill.managers;
+
+import com.example.mineskill.MineSkillPlugin;
+import com.example.mineskill.models.QuestDefinition;
+import com.example.mineskill.models.QuestTrigger;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Tag;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+public class QuestRegistry {
+    private static final int[] NONE = new int[0];
+
+    private final MineSkillPlugin plugin;
+    private List<QuestDefinition> definitions;
+    private int[][] byTrigger;
+    private Map<Material, int[]> byBlock;
+
+    public QuestRegistry(MineSkillPlugin plugin) {
+        this.plugin = plugin;
+        load();
+    }
+
+    public void load() {
+        List<QuestDefinition> loaded = new ArrayList<>();
+        List<List<Integer>> triggerLists = new ArrayList<>();
+        for (int i = 0; i < QuestTrigger.values().length; i++) {
+            triggerLists.add(new ArrayList<>());
+        }
+        Map<Material, List<Integer>> blockLists = new EnumMap<>(Material.class);
+
+        ConfigurationSection section = plugin.getConfig().getConfigurationSection("quests");
+        if (!plugin.getConfig().isSet("quests")) {
+            // config.yml старой версии без секции quests - берем квесты по умолчанию из jar
+            section = loadBundledQuests();
+            if (section != null) {
+                plugin.getLogger().warning("В config.yml нет секции quests, используются квесты по умолчанию."
+                    + " Скопируйте секцию quests из config.yml плагина, чтобы их настроить");
+            }
+        }
+        if (section != null) {
+            for (String id : section.getKeys(false)) {
+                ConfigurationSection questSection = section.getConfigurationSection(id);
+                if (questSection == null || !questSection.getBoolean("enabled", true)) continue;
+
+                QuestTrigger trigger;
+                try {
+                    trigger = QuestTrigger.valueOf(questSection.getString("trigger", "").toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    plugin.getLogger().warning("Неизвестный триггер квеста " + id + ": " + questSection.getString("trigger"));
+                    continue;
+                }
+
+                QuestDefinition definition = new QuestDefinition(
+                    loaded.size(),
+                    id,
+                    questSection.getString("name", "Quest"),
+                    trigger,
+                    Math.max(1, questSection.getInt("target", 100)),
+                    questSection.getDouble("reward", 1.0),
+                    questSection.getString("requires.skill"),
+                    questSection.getInt("requires.level", 1)
+                );
+
+                if (trigger == QuestTrigger.BLOCK_BREAK) {
+                    Set<Material> blocks = resolveBlocks(id, questSection.getStringList("blocks"));
+                    if (blocks.isEmpty()) {
+                        plugin.getLogger().warning("У квеста " + id + " не указаны блоки");
+                        continue;
+                    }
+                    for (Material material : blocks) {
+                        blockLists.computeIfAbsent(material, key -> new ArrayList<>()).add(definition.getIndex());
+                    }
+                }
+
+                loaded.add(definition);
+                triggerLists.get(trigger.ordinal()).add(definition.getIndex());
+            }
+        }
+
+        int[][] triggers = new int[triggerLists.size()][];
+        for (int i = 0; i < triggers.length; i++) {
+            triggers[i] = toArray(triggerLists.get(i));
+        }
+        Map<Material, int[]> blocks = new EnumMap<>(Material.class);
+        for (Map.Entry<Material, List<Integer>> entry : blockLists.entrySet()) {
+            blocks.put(entry.getKey(), toArray(entry.getValue()));
+        }
+
+        this.definitions = Collections.unmodifiableList(loaded);
+        this.byTrigger = triggers;
+        this.byBlock = blocks;
+
+        plugin.getLogger().info("Загружено квестов: " + loaded.size());
+    }
+
+    private ConfigurationSection loadBundledQuests() {
+        InputStream resource = plugin.getResource("config.yml");
+        if (resource == null) return null;
+
+        try (Reader reader = new InputStreamReader(resource, StandardCharsets.UTF_8)) {
+            return YamlConfiguration.loadConfiguration(reader).getConfigurationSection("quests");
+        } catch (IOException e) {
+            plugin.getLogger().warning("Не удалось прочитать квесты по умолчанию: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private Set<Material> resolveBlocks(String questId, List<String> names) {
+        Set<Material> result = EnumSet.noneOf(Material.class);
+        for (String name : names) {
+            if (name.startsWith("#")) {
+                NamespacedKey key = NamespacedKey.fromString(name.substring(1).toLowerCase(Locale.ROOT));
+                Tag<Material> tag = key != null ? Bukkit.getTag(Tag.REGISTRY_BLOCKS, key, Material.class) : null;
+                if (tag == null) {
+                    plugin.getLogger().warning("Неизвестный тег блоков в квесте " + questId + ": " + name);
+                    continue;
+                }
+                result.addAll(tag.getValues());
+            } else {
+                Material material = Material.matchMaterial(name);
+                if (material == null || !material.isBlock()) {
+                    plugin.getLogger().warning("Неизвестный блок в квесте " + questId + ": " + name);
+                    continue;
+                }
+                result.add(material);
+            }
+        }
+        return result;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        if (list.isEmpty()) return NONE;
+
+        int[] result = new int[list.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = list.get(i);
+        }
+        return result;
+    }
+
+    public QuestDefinition get(int index) {
+        return definitions.get(index);
+    }
+
+    public List<QuestDefinition> getDefinitions() {
+        return definitions;
+    }
+
+    public int size() {
+        return definitions.size();
+    }
+
+    public int[] getQuests(QuestTrigger trigger) {
+        return byTrigger[trigger.ordinal()];
+    }
+
+    public int[] getBlockQuests(Material material) {
+        return byBlock.getOrDefault(material, NONE);
+    }
+}
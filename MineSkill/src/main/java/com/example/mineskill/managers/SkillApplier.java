@@ -4,6 +4,7 @@ import com.example.mineskill.MineSkillPlugin;
 import com.example.mineskill.models.PlayerSkillData;
 import com.example.mineskill.models.Skill;
 import com.example.mineskill.models.SkillEffect;
+import com.example.mineskill.models.SkillLevels;
 import net.kyori.adventure.text.Component;
 import org.bukkit.NamespacedKey;
 import org.bukkit.attribute.Attribute;
@@ -17,6 +18,7 @@ import org.bukkit.persistence.PersistentDataType;
 
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class SkillApplier {
     private final MineSkillPlugin plugin;
@@ -26,6 +28,7 @@ public class SkillApplier {
     private final NamespacedKey miningSpeedKey;
     private final NamespacedKey critChanceKey;
     private final NamespacedKey manaPoolKey;
+    private final Map<UUID, SkillLevels> levels;
 
     public SkillApplier(MineSkillPlugin plugin) {
         this.plugin = plugin;
@@ -35,6 +38,7 @@ public class SkillApplier {
         this.miningSpeedKey = new NamespacedKey(plugin, "mining_speed");
         this.critChanceKey = new NamespacedKey(plugin, "crit_chance");
         this.manaPoolKey = new NamespacedKey(plugin, "mana_pool");
+        this.levels = new ConcurrentHashMap<>();
     }
 
     public void applySkills(Player player) {
@@ -100,6 +104,8 @@ public class SkillApplier {
         applyAttributeModifiers(player, damageBonus, armorBonus, healthBonus, speedBonus);
         applyPotionEffects(player, regenerationLevel, nightVision);
         storeCustomEffects(player, evasionLevel, doubleJumpLevel, miningSpeedLevel, critChanceLevel, manaPoolLevel);
+        levels.put(player.getUniqueId(),
+            new SkillLevels(evasionLevel, doubleJumpLevel, miningSpeedLevel, critChanceLevel, manaPoolLevel));
     }
 
     private void removeAllSkillModifiers(Player player) {
@@ -220,6 +226,7 @@ public class SkillApplier {
         }
     }
 
+    // PDC - только зеркало для сохранения между перезапусками, горячие пути читают levels
     private void storeCustomEffects(Player player, int evasionLevel, int doubleJumpLevel,
                                     int miningSpeedLevel, int critChanceLevel, int manaPoolLevel) {
         var container = player.getPersistentDataContainer();
@@ -245,34 +252,47 @@ public class SkillApplier {
         }
     }
 
-    public int getEvasionLevel(Player player) {
+    public SkillLevels getLevels(Player player) {
+        SkillLevels current = levels.get(player.getUniqueId());
+        if (current != null) return current;
+
+        // Скиллы еще не применялись (например, после /reload) - читаем зеркало один раз
+        return levels.computeIfAbsent(player.getUniqueId(), uuid -> readContainer(player));
+    }
+
+    private SkillLevels readContainer(Player player) {
         var container = player.getPersistentDataContainer();
-        Integer level = container.get(evasionKey, PersistentDataType.INTEGER);
-        return level != null ? level : 0;
+        return new SkillLevels(
+            container.getOrDefault(evasionKey, PersistentDataType.INTEGER, 0),
+            container.getOrDefault(doubleJumpKey, PersistentDataType.INTEGER, 0),
+            container.getOrDefault(miningSpeedKey, PersistentDataType.INTEGER, 0),
+            container.getOrDefault(critChanceKey, PersistentDataType.INTEGER, 0),
+            container.getOrDefault(manaPoolKey, PersistentDataType.INTEGER, 0)
+        );
+    }
+
+    public void forget(UUID uuid) {
+        levels.remove(uuid);
+    }
+
+    public int getEvasionLevel(Player player) {
+        return getLevels(player).getEvasion();
     }
 
     public boolean hasDoubleJump(Player player) {
         if (!skillManager.isDoubleJumpEnabled()) return false;
-        var container = player.getPersistentDataContainer();
-        Integer level = container.get(doubleJumpKey, PersistentDataType.INTEGER);
-        return level != null && level > 0;
+        return getLevels(player).getDoubleJump() > 0;
     }
 
     public int getMiningSpeedLevel(Player player) {
-        var container = player.getPersistentDataContainer();
-        Integer level = container.get(miningSpeedKey, PersistentDataType.INTEGER);
-        return level != null ? level : 0;
+        return getLevels(player).getMiningSpeed();
     }
 
     public int getCritChanceLevel(Player player) {
-        var container = player.getPersistentDataContainer();
-        Integer level = container.get(critChanceKey, PersistentDataType.INTEGER);
-        return level != null ? level : 0;
+        return getLevels(player).getCritChance();
     }
 
     public int getManaPoolLevel(Player player) {
-        var container = player.getPersistentDataContainer();
-        Integer level = container.get(manaPoolKey, PersistentDataType.INTEGER);
-        return level != null ? level : 0;
+        return getLevels(player).getManaPool();
     }
 }
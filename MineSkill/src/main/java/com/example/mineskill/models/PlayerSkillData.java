@@ -11,6 +11,7 @@ public class PlayerSkillData {
     private int totalPoints;
     private final Map<String, Integer> skills;
     private final Map<String, SkillQuest> quests;
+    private int skillsVersion;
 
     public PlayerSkillData(UUID uuid, String name) {
         this.uuid = uuid;
@@ -68,6 +69,7 @@ public class PlayerSkillData {
         } else {
             skills.put(skillId, level);
         }
+        skillsVersion++;
     }
 
     public void increaseSkillLevel(String skillId) {
@@ -86,6 +88,11 @@ public class PlayerSkillData {
         int totalSpent = totalPoints - skillPoints;
         skillPoints += totalSpent;
         skills.clear();
+        skillsVersion++;
+    }
+
+    public int getSkillsVersion() {
+        return skillsVersion;
     }
 
     public int getSpentPoints(Map<String, Skill> skillMap) {
@@ -0,0 +1,60 @@
+package com.example.mineskill.models;
+
+public class QuestDefinition {
+    private final int index;
+    private final String id;
+    private final String name;
+    private final QuestTrigger trigger;
+    private final int target;
+    private final double reward;
+    private final String requiredSkill;
+    private final int requiredLevel;
+
+    public QuestDefinition(int index, String id, String name, QuestTrigger trigger, int target, double reward,
+                           String requiredSkill, int requiredLevel) {
+        this.index = index;
+        this.id = id;
+        this.name = name;
+        this.trigger = trigger;
+        this.target = target;
+        this.reward = reward;
+        this.requiredSkill = requiredSkill;
+        this.requiredLevel = requiredLevel;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public QuestTrigger getTrigger() {
+        return trigger;
+    }
+
+    public int getTarget() {
+        return target;
+    }
+
+    public double getReward() {
+        return reward;
+    }
+
+    public String getRequiredSkill() {
+        return requiredSkill;
+    }
+
+    public int getRequiredLevel() {
+        return requiredLevel;
+    }
+
+    public boolean isAvailableFor(PlayerSkillData data) {
+        return requiredSkill == null || data.getSkillLevel(requiredSkill) >= requiredLevel;
+    }
+}
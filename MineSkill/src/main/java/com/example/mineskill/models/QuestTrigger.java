@@ -0,0 +1,8 @@
+package com.example.mineskill.models;
+
+public enum QuestTrigger {
+    BLOCK_BREAK,
+    DAMAGE_DEALT,
+    DISTANCE,
+    JUMP
+}
@@ -0,0 +1,37 @@
+package com.example.mineskill.models;
+
+public final class SkillLevels {
+    private final int evasion;
+    private final int doubleJump;
+    private final int miningSpeed;
+    private final int critChance;
+    private final int manaPool;
+
+    public SkillLevels(int evasion, int doubleJump, int miningSpeed, int critChance, int manaPool) {
+        this.evasion = evasion;
+        this.doubleJump = doubleJump;
+        this.miningSpeed = miningSpeed;
+        this.critChance = critChance;
+        this.manaPool = manaPool;
+    }
+
+    public int getEvasion() {
+        return evasion;
+    }
+
+    public int getDoubleJump() {
+        return doubleJump;
+    }
+
+    public int getMiningSpeed() {
+        return miningSpeed;
+    }
+
+    public int getCritChance() {
+        return critChance;
+    }
+
+    public int getManaPool() {
+        return manaPool;
+    }
+}
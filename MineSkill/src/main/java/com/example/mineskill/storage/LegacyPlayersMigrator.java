@@ -0,0 +1,63 @@
+package com.example.mineskill.storage;
+
+import com.example.mineskill.MineSkillPlugin;
+import com.example.mineskill.models.PlayerSkillData;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.util.UUID;
+
+public class LegacyPlayersMigrator {
+    private final MineSkillPlugin plugin;
+    private final ShardedPlayerStore store;
+
+    public LegacyPlayersMigrator(MineSkillPlugin plugin, ShardedPlayerStore store) {
+        this.plugin = plugin;
+        this.store = store;
+    }
+
+    public int migrate(File legacyFile) {
+        if (!legacyFile.exists()) return 0;
+
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(legacyFile);
+        ConfigurationSection playersSection = config.getConfigurationSection("players");
+
+        int migrated = 0;
+        int failed = 0;
+        if (playersSection != null) {
+            for (String uuidString : playersSection.getKeys(false)) {
+                ConfigurationSection section = playersSection.getConfigurationSection(uuidString);
+                if (section == null) continue;
+
+                try {
+                    UUID uuid = UUID.fromString(uuidString);
+                    // Уже перенесенные записи не перезаписываем - они новее
+                    if (store.exists(uuid)) continue;
+
+                    PlayerSkillData data = ShardedPlayerStore.readPlayer(section, uuid);
+                    store.write(uuid, store.serialize(data));
+                    migrated++;
+                } catch (IllegalArgumentException e) {
+                    plugin.getLogger().warning("Неверный UUID в players.yml: " + uuidString);
+                } catch (Exception e) {
+                    failed++;
+                    plugin.getLogger().severe("Не удалось перенести игрока " + uuidString + ": " + e.getMessage());
+                }
+            }
+        }
+
+        if (failed > 0) {
+            plugin.getLogger().severe("Миграция players.yml не завершена (" + failed + " ошибок), файл оставлен на месте");
+            return migrated;
+        }
+
+        File migratedFile = new File(legacyFile.getParentFile(), legacyFile.getName() + ".migrated");
+        if (!legacyFile.renameTo(migratedFile)) {
+            plugin.getLogger().warning("Не удалось переименовать " + legacyFile.getName() + " после миграции");
+        }
+
+        plugin.getLogger().info("Перенесено игроков из players.yml: " + migrated);
+        return migrated;
+    }
+}
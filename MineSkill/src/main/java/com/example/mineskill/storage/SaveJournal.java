@@ -0,0 +1,98 @@
+package com.example.mineskill.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+// Запись: UUID (2 x long) | длина YAML (int) | YAML в UTF-8 | CRC32 предыдущих полей (int)
+public class SaveJournal {
+    private static final int RECORD_OVERHEAD = 16 + 4 + 4;
+
+    private final File file;
+
+    public SaveJournal(File file) {
+        this.file = file;
+    }
+
+    public void append(Map<UUID, String> snapshots) throws IOException {
+        byte[][] encoded = new byte[snapshots.size()][];
+        int size = 0;
+        int i = 0;
+        for (String yaml : snapshots.values()) {
+            encoded[i] = yaml.getBytes(StandardCharsets.UTF_8);
+            size += RECORD_OVERHEAD + encoded[i].length;
+            i++;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        CRC32 crc = new CRC32();
+        i = 0;
+        for (UUID uuid : snapshots.keySet()) {
+            int start = buffer.position();
+            buffer.putLong(uuid.getMostSignificantBits());
+            buffer.putLong(uuid.getLeastSignificantBits());
+            buffer.putInt(encoded[i].length);
+            buffer.put(encoded[i]);
+
+            crc.reset();
+            crc.update(buffer.array(), start, buffer.position() - start);
+            buffer.putInt((int) crc.getValue());
+            i++;
+        }
+        buffer.flip();
+
+        // Одна запись и один fsync на всю пачку
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    // Последний снимок каждого игрока; недописанный хвост (падение во время записи) отбрасывается
+    public Map<UUID, String> read() throws IOException {
+        Map<UUID, String> snapshots = new LinkedHashMap<>();
+        if (!file.exists()) return snapshots;
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= RECORD_OVERHEAD) {
+            int start = buffer.position();
+            UUID uuid = new UUID(buffer.getLong(), buffer.getLong());
+            int length = buffer.getInt();
+            if (length < 0 || buffer.remaining() < length + 4) break;
+
+            crc.reset();
+            crc.update(buffer.array(), start, 20 + length);
+            String yaml = new String(buffer.array(), start + 20, length, StandardCharsets.UTF_8);
+            buffer.position(start + 20 + length);
+            if (buffer.getInt() != (int) crc.getValue()) break;
+
+            snapshots.put(uuid, yaml);
+        }
+        return snapshots;
+    }
+
+    public void clear() throws IOException {
+        if (!file.exists()) return;
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.truncate(0);
+            channel.force(true);
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.mineskill.storage;
+
+import com.example.mineskill.MineSkillPlugin;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SaveQueue {
+    // Повтор неудачной записи: 1, 2, 4 ... MAX_RETRY_DELAY_SECONDS секунд
+    private static final long MAX_RETRY_DELAY_SECONDS = 60;
+
+    private final MineSkillPlugin plugin;
+    private final ShardedPlayerStore store;
+    private final SaveJournal journal;
+    private final int capacity;
+    private final ScheduledThreadPoolExecutor executor;
+
+    // Последний снимок каждого игрока в очереди: новый заменяет старый
+    private final Map<UUID, String> pending = new LinkedHashMap<>();
+    // Пачка, которую сейчас пишет поток сохранений (под тем же замком, что и pending)
+    private Map<UUID, String> inFlight = Collections.emptyMap();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private boolean saturated;
+    private volatile boolean closed;
+
+    // Только поток сохранений: игроки, чей последний снимок не записан (журнал не очищаем)
+    private final Set<UUID> unwritten = new HashSet<>();
+    private long retryDelaySeconds;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private int peakDepth;
+
+    public SaveQueue(MineSkillPlugin plugin, ShardedPlayerStore store, SaveJournal journal, int capacity) {
+        this.plugin = plugin;
+        this.store = store;
+        this.journal = journal;
+        this.capacity = Math.max(1, capacity);
+        this.executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "MineSkill-Save");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // При остановке отложенный повтор не ждем - close() запускает последнюю попытку сразу
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    // Дописать в файлы игроков снимки, оставшиеся в журнале после падения
+    public int recover() {
+        try {
+            Map<UUID, String> snapshots = journal.read();
+            int restored = 0;
+            for (Map.Entry<UUID, String> entry : snapshots.entrySet()) {
+                store.write(entry.getKey(), entry.getValue());
+                restored++;
+            }
+            journal.clear();
+
+            if (restored > 0) {
+                plugin.getLogger().info("Восстановлено из журнала сохранений: " + restored);
+            }
+            return restored;
+        } catch (IOException e) {
+            plugin.getLogger().severe("Не удалось восстановить журнал сохранений: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    // false - очередь переполнена, снимок не принят (вызывающий сохранит игрока позже)
+    public boolean submit(UUID uuid, String yaml, boolean force) {
+        if (closed) {
+            // Сохранение после остановки очереди (выход игроков при выключении) - пишем сразу
+            try {
+                store.write(uuid, yaml);
+                written.incrementAndGet();
+            } catch (IOException e) {
+                failed.incrementAndGet();
+                plugin.getLogger().severe("Не удалось сохранить данные игрока " + uuid + ": " + e.getMessage());
+            }
+            return true;
+        }
+
+        synchronized (pending) {
+            if (pending.containsKey(uuid)) {
+                pending.put(uuid, yaml);
+                coalesced.incrementAndGet();
+            } else if (!force && pending.size() >= capacity) {
+                rejected.incrementAndGet();
+                if (!saturated) {
+                    saturated = true;
+                    plugin.getLogger().warning("Очередь сохранений переполнена (" + capacity + "), сохранение отложено");
+                }
+                return false;
+            } else {
+                pending.put(uuid, yaml);
+                peakDepth = Math.max(peakDepth, pending.size());
+            }
+            submitted.incrementAndGet();
+        }
+
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+        return true;
+    }
+
+    // Снимки всех игроков одной пачкой, без ограничения емкости (остановка сервера)
+    public void submitAll(Map<UUID, String> snapshots) {
+        if (snapshots.isEmpty()) return;
+
+        if (closed) {
+            for (Map.Entry<UUID, String> entry : snapshots.entrySet()) {
+                submit(entry.getKey(), entry.getValue(), true);
+            }
+            return;
+        }
+
+        synchronized (pending) {
+            for (Map.Entry<UUID, String> entry : snapshots.entrySet()) {
+                if (pending.put(entry.getKey(), entry.getValue()) != null) {
+                    coalesced.incrementAndGet();
+                }
+                submitted.incrementAndGet();
+            }
+            peakDepth = Math.max(peakDepth, pending.size());
+        }
+
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Map<UUID, String> batch;
+            synchronized (pending) {
+                if (pending.isEmpty()) {
+                    saturated = false;
+                    draining.set(false);
+                    return;
+                }
+                batch = new LinkedHashMap<>(pending);
+                pending.clear();
+                inFlight = batch;
+                saturated = false;
+            }
+
+            Map<UUID, String> failedBatch = writeBatch(batch);
+            synchronized (pending) {
+                // Неудачные снимки возвращаем, если их еще не заменили новыми
+                for (Map.Entry<UUID, String> entry : failedBatch.entrySet()) {
+                    pending.putIfAbsent(entry.getKey(), entry.getValue());
+                }
+                inFlight = Collections.emptyMap();
+            }
+            if (failedBatch.isEmpty()) {
+                retryDelaySeconds = 0;
+                continue;
+            }
+
+            if (closed) {
+                // Последняя попытка при остановке - снимки остаются в журнале до следующего запуска
+                draining.set(false);
+                return;
+            }
+
+            // draining остается true: новые снимки дождутся повтора и уйдут той же пачкой
+            retryDelaySeconds = Math.min(MAX_RETRY_DELAY_SECONDS, Math.max(1, retryDelaySeconds * 2));
+            plugin.getLogger().warning("Не сохранено игроков: " + failedBatch.size()
+                + ", повтор через " + retryDelaySeconds + " с");
+            try {
+                executor.schedule(this::drain, retryDelaySeconds, TimeUnit.SECONDS);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+            }
+            return;
+        }
+    }
+
+    // Снимок игрока, еще не записанный в его файл (новее файла), или null
+    public String peek(UUID uuid) {
+        synchronized (pending) {
+            String yaml = pending.get(uuid);
+            return yaml != null ? yaml : inFlight.get(uuid);
+        }
+    }
+
+    // Возвращает снимки, которые не удалось записать
+    private Map<UUID, String> writeBatch(Map<UUID, String> batch) {
+        try {
+            journal.append(batch);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Не удалось записать журнал сохранений: " + e.getMessage());
+        }
+
+        Map<UUID, String> failedBatch = new LinkedHashMap<>();
+        for (Map.Entry<UUID, String> entry : batch.entrySet()) {
+            try {
+                store.write(entry.getKey(), entry.getValue());
+                written.incrementAndGet();
+                unwritten.remove(entry.getKey());
+            } catch (IOException e) {
+                failed.incrementAndGet();
+                unwritten.add(entry.getKey());
+                failedBatch.put(entry.getKey(), entry.getValue());
+                plugin.getLogger().severe("Не удалось сохранить данные игрока " + entry.getKey() + ": " + e.getMessage());
+            }
+        }
+        if (!unwritten.isEmpty()) return failedBatch;
+
+        // Последние снимки всех игроков в их файлах - журнал больше не нужен
+        try {
+            journal.clear();
+        } catch (IOException e) {
+            plugin.getLogger().warning("Не удалось очистить журнал сохранений: " + e.getMessage());
+        }
+        return failedBatch;
+    }
+
+    public void close(long timeoutSeconds) {
+        closed = true;
+        // Снимки, ждущие повтора после ошибки, пробуем записать сразу
+        executor.execute(this::drain);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeoutSeconds, TimeUnit.SECONDS)) {
+                plugin.getLogger().severe("Сохранение данных не завершилось за " + timeoutSeconds
+                    + " с, недописанные снимки восстановятся из журнала при запуске");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (pending) {
+            if (!pending.isEmpty()) {
+                plugin.getLogger().severe("Не сохранено игроков: " + pending.size());
+            }
+        }
+    }
+
+    public int getDepth() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getPeakDepth() {
+        synchronized (pending) {
+            return peakDepth;
+        }
+    }
+
+    public long getSubmitted() {
+        return submitted.get();
+    }
+
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.mineskill.storage;
+
+import com.example.mineskill.MineSkillPlugin;
+import com.example.mineskill.models.PlayerSkillData;
+import com.example.mineskill.models.SkillQuest;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class ShardedPlayerStore {
+    private static final String EXTENSION = ".yml";
+
+    private final MineSkillPlugin plugin;
+    private final File root;
+
+    public ShardedPlayerStore(MineSkillPlugin plugin, File root) {
+        this.plugin = plugin;
+        this.root = root;
+        if (!root.exists()) {
+            root.mkdirs();
+        }
+    }
+
+    public File getRoot() {
+        return root;
+    }
+
+    public File getPlayerFile(UUID uuid) {
+        String id = uuid.toString();
+        return new File(new File(root, id.substring(0, 2)), id + EXTENSION);
+    }
+
+    public boolean exists(UUID uuid) {
+        return getPlayerFile(uuid).exists();
+    }
+
+    public PlayerSkillData load(UUID uuid) {
+        File file = getPlayerFile(uuid);
+        if (!file.exists()) return null;
+
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
+        return readPlayer(config, uuid);
+    }
+
+    // Снимок из очереди сохранений; null, если YAML не читается
+    public PlayerSkillData deserialize(UUID uuid, String yaml) {
+        YamlConfiguration config = new YamlConfiguration();
+        try {
+            config.loadFromString(yaml);
+        } catch (InvalidConfigurationException e) {
+            plugin.getLogger().warning("Неверный снимок данных игрока " + uuid + ": " + e.getMessage());
+            return null;
+        }
+        return readPlayer(config, uuid);
+    }
+
+    public void save(PlayerSkillData data) {
+        try {
+            write(data.getUuid(), serialize(data));
+        } catch (IOException e) {
+            plugin.getLogger().severe("Не удалось сохранить данные игрока " + data.getName() + ": " + e.getMessage());
+        }
+    }
+
+    public String serialize(PlayerSkillData data) {
+        YamlConfiguration config = new YamlConfiguration();
+        writePlayer(config, data);
+        return config.saveToString();
+    }
+
+    public void write(UUID uuid, String yaml) throws IOException {
+        File file = getPlayerFile(uuid);
+        File shard = file.getParentFile();
+        if (!shard.exists()) {
+            shard.mkdirs();
+        }
+
+        Path target = file.toPath();
+        Path temp = target.resolveSibling(file.getName() + ".tmp");
+        Files.write(temp, yaml.getBytes(StandardCharsets.UTF_8));
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public List<UUID> listStoredPlayers() {
+        List<UUID> result = new ArrayList<>();
+        File[] shards = root.listFiles(File::isDirectory);
+        if (shards == null) return result;
+
+        for (File shard : shards) {
+            File[] files = shard.listFiles((dir, name) -> name.endsWith(EXTENSION));
+            if (files == null) continue;
+
+            for (File file : files) {
+                String name = file.getName();
+                try {
+                    result.add(UUID.fromString(name.substring(0, name.length() - EXTENSION.length())));
+                } catch (IllegalArgumentException e) {
+                    plugin.getLogger().warning("Неверное имя файла данных игрока: " + name);
+                }
+            }
+        }
+        return result;
+    }
+
+    public static PlayerSkillData readPlayer(ConfigurationSection section, UUID uuid) {
+        PlayerSkillData data = new PlayerSkillData(uuid, section.getString("name", "Unknown"));
+        data.setSkillPoints(section.getInt("skill_points", 0));
+        data.setTotalPoints(section.getInt("total_points", 0));
+
+        ConfigurationSection skillsSection = section.getConfigurationSection("skills");
+        if (skillsSection != null) {
+            for (String skillId : skillsSection.getKeys(false)) {
+                int level = skillsSection.getInt(skillId, 0);
+                if (level > 0) {
+                    data.setSkillLevel(skillId, level);
+                }
+            }
+        }
+
+        ConfigurationSection questsSection = section.getConfigurationSection("quests");
+        if (questsSection != null) {
+            for (String skillId : questsSection.getKeys(false)) {
+                ConfigurationSection questSection = questsSection.getConfigurationSection(skillId);
+                if (questSection == null) continue;
+
+                SkillQuest quest = new SkillQuest(
+                    skillId,
+                    questSection.getString("name", "Quest"),
+                    questSection.getInt("target", 100),
+                    questSection.getDouble("reward", 1.0)
+                );
+                quest.setProgress(questSection.getInt("progress", 0));
+                data.setQuest(skillId, quest);
+            }
+        }
+
+        return data;
+    }
+
+    public static void writePlayer(ConfigurationSection section, PlayerSkillData data) {
+        section.set("name", data.getName());
+        section.set("skill_points", data.getSkillPoints());
+        section.set("total_points", data.getTotalPoints());
+
+        for (Map.Entry<String, Integer> entry : data.getSkills().entrySet()) {
+            section.set("skills." + entry.getKey(), entry.getValue());
+        }
+
+        for (Map.Entry<String, SkillQuest> entry : data.getQuests().entrySet()) {
+            String questPath = "quests." + entry.getKey();
+            SkillQuest quest = entry.getValue();
+
+            section.set(questPath + ".name", quest.getQuestName());
+            section.set(questPath + ".progress", quest.getProgress());
+            section.set(questPath + ".target", quest.getTarget());
+            section.set(questPath + ".reward", quest.getPointReward());
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.mineskill.utils;
+
+import org.bukkit.World;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+public class PositionTracker {
+    // Шаги короче 0.1 блока копятся до следующего замера, длиннее 10 - телепорт
+    private static final double MIN_STEP_SQUARED = 0.1 * 0.1;
+    private static final double MAX_STEP_SQUARED = 10 * 10;
+
+    private final Map<UUID, Integer> slots = new HashMap<>();
+    private int[] freeSlots = new int[0];
+    private int freeCount;
+    private int used;
+
+    private World[] worlds;
+    private double[] x;
+    private double[] y;
+    private double[] z;
+    private double[] pending;
+    private int[] jumps;
+    private long[] lastJump;
+
+    public PositionTracker(int initialCapacity) {
+        resize(Math.max(1, initialCapacity));
+    }
+
+    public int slotOf(UUID uuid) {
+        Integer slot = slots.get(uuid);
+        if (slot != null) return slot;
+
+        int index;
+        if (freeCount > 0) {
+            index = freeSlots[--freeCount];
+        } else {
+            if (used == x.length) {
+                resize(x.length * 2);
+            }
+            index = used++;
+        }
+        slots.put(uuid, index);
+        return index;
+    }
+
+    public void release(UUID uuid) {
+        Integer slot = slots.remove(uuid);
+        if (slot == null) return;
+
+        clear(slot);
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, Math.max(8, freeSlots.length * 2));
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    public void reset(int slot, World world, double newX, double newY, double newZ) {
+        worlds[slot] = world;
+        x[slot] = newX;
+        y[slot] = newY;
+        z[slot] = newZ;
+    }
+
+    // Возвращает пройденные целые блоки; дробный остаток копится в слоте
+    public int move(int slot, World world, double newX, double newY, double newZ) {
+        if (worlds[slot] != world) {
+            reset(slot, world, newX, newY, newZ);
+            return 0;
+        }
+
+        double dx = newX - x[slot];
+        double dy = newY - y[slot];
+        double dz = newZ - z[slot];
+        double distanceSquared = dx * dx + dy * dy + dz * dz;
+
+        if (distanceSquared < MIN_STEP_SQUARED) return 0;
+
+        reset(slot, world, newX, newY, newZ);
+        if (distanceSquared > MAX_STEP_SQUARED) return 0;
+
+        double total = pending[slot] + Math.sqrt(distanceSquared);
+        int blocks = (int) total;
+        pending[slot] = total - blocks;
+        return blocks;
+    }
+
+    // Возвращает число прыжков или 0, если с прошлого прошло меньше minIntervalMillis
+    public int jump(int slot, long now, long minIntervalMillis) {
+        if (now - lastJump[slot] <= minIntervalMillis) return 0;
+
+        lastJump[slot] = now;
+        return ++jumps[slot];
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    private void clear(int slot) {
+        worlds[slot] = null;
+        x[slot] = 0;
+        y[slot] = 0;
+        z[slot] = 0;
+        pending[slot] = 0;
+        jumps[slot] = 0;
+        lastJump[slot] = 0;
+    }
+
+    private void resize(int capacity) {
+        worlds = worlds == null ? new World[capacity] : Arrays.copyOf(worlds, capacity);
+        x = x == null ? new double[capacity] : Arrays.copyOf(x, capacity);
+        y = y == null ? new double[capacity] : Arrays.copyOf(y, capacity);
+        z = z == null ? new double[capacity] : Arrays.copyOf(z, capacity);
+        pending = pending == null ? new double[capacity] : Arrays.copyOf(pending, capacity);
+        jumps = jumps == null ? new int[capacity] : Arrays.copyOf(jumps, capacity);
+        lastJump = lastJump == null ? new long[capacity] : Arrays.copyOf(lastJump, capacity);
+    }
+}
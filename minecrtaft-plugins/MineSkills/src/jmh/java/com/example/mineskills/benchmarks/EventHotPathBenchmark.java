@@ -0,0 +1,132 @@
+package com.example.mineskills.benchmarks;
+
+import com.example.mineskills.managers.ActionTracker;
+import com.example.mineskills.managers.NotificationManager;
+import com.example.mineskills.managers.PerformanceMonitor;
+import com.example.mineskills.managers.PlayerDataManager;
+import com.example.mineskills.managers.SkillApplier;
+import com.example.mineskills.managers.SkillManager;
+import com.example.mineskills.models.PlayerSkillData;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Стоимость одного события в обработчиках MineSkills на 200 игроках:
+ * учет добычи, урона и движения в ActionTracker, бонус опыта в SkillApplier
+ * и разбор записи игрока через toYamlMap/fromYamlMap
+ *
+ * Менеджеры настоящие, сервер и игроки - заглушки из {@link StandIns}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventHotPathBenchmark {
+    private static final int PLAYERS = 200;
+
+    private File dataFolder;
+    private PlayerDataManager playerDataManager;
+    private ActionTracker actionTracker;
+    private SkillApplier skillApplier;
+
+    private UUID[] uuids;
+    private Player[] players;
+    private Location from;
+    private Location to;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataFolder = Files.createTempDirectory("mineskills-bench").toFile();
+        Plugin plugin = StandIns.plugin(dataFolder);
+
+        SkillManager skillManager = new SkillManager(plugin);
+        playerDataManager = new PlayerDataManager(plugin, new PerformanceMonitor(plugin));
+        NotificationManager notificationManager = new NotificationManager(plugin);
+        skillApplier = new SkillApplier(skillManager, playerDataManager, notificationManager);
+        actionTracker = new ActionTracker(skillManager, playerDataManager, notificationManager,
+            100, 50, 1000, 50);
+
+        uuids = new UUID[PLAYERS];
+        players = new Player[PLAYERS];
+        for (int i = 0; i < PLAYERS; i++) {
+            UUID uuid = new UUID(i, i);
+            PlayerSkillData data = playerDataManager.getPlayerData(uuid, "Player" + i);
+            data.setSkillLevel("EXPERIENCE", 1 + i % 5);
+            data.setSkillLevel("SWIFT_MOVEMENT", i % 3);
+            uuids[i] = uuid;
+            players[i] = StandIns.player(uuid, "Player" + i);
+        }
+
+        from = new Location(null, 0.0, 64.0, 0.0);
+        to = new Location(null, 0.2, 64.0, 0.1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        playerDataManager.shutdown();
+        try (Stream<Path> files = Files.walk(dataFolder.toPath())) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = (index + 1) % PLAYERS;
+        return index;
+    }
+
+    @Benchmark
+    public void trackBlockBreak() {
+        actionTracker.trackBlockBreak(uuids[nextIndex()], Material.STONE);
+    }
+
+    @Benchmark
+    public void trackCombatDamage() {
+        actionTracker.trackCombatDamage(uuids[nextIndex()], 3.5);
+    }
+
+    @Benchmark
+    public void trackMovement() {
+        actionTracker.trackMovement(uuids[nextIndex()], from, to);
+    }
+
+    /**
+     * Тик с движением всех игроков и переносом накопленного в прогресс
+     */
+    @Benchmark
+    @OperationsPerInvocation(PLAYERS)
+    public void trackMovementTick() {
+        for (UUID uuid : uuids) {
+            actionTracker.trackMovement(uuid, from, to);
+        }
+        actionTracker.flushMovement();
+    }
+
+    @Benchmark
+    public double applyExperienceBonus() {
+        return skillApplier.applyExperienceBonus(players[nextIndex()], 10.0);
+    }
+
+    @Benchmark
+    public PlayerSkillData yamlMapRoundTrip() {
+        UUID uuid = uuids[nextIndex()];
+        Map<String, Object> map = playerDataManager.getPlayerData(uuid).toYamlMap();
+        return PlayerSkillData.fromYamlMap(uuid.toString(), map);
+    }
+}
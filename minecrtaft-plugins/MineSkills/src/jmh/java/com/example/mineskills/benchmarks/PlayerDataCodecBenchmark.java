@@ -0,0 +1,109 @@
+package com.example.mineskills.benchmarks;
+
+import com.example.mineskills.models.PlayerSkillData;
+import com.example.mineskills.storage.PlayerSkillDataCodec;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение бинарного кодека players.dat с прежним путем через YAML
+ * (toYamlMap/fromYamlMap + SnakeYAML) на 1k, 10k и 100k записей
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlayerDataCodecBenchmark {
+    private static final String[] SKILL_IDS = {
+        "MINING", "FAST_MINING", "ORE_FINDER", "POWER_BLOW", "IRON_SKIN",
+        "EXTRA_HEALTH", "SWIFT_MOVEMENT", "DOUBLE_JUMP", "EVASION", "STAMINA"
+    };
+
+    @Param({"1000", "10000", "100000"})
+    public int records;
+
+    private List<PlayerSkillData> players;
+    private PlayerSkillDataCodec codec;
+    private byte[] binaryFile;
+    private String yamlFile;
+    private Yaml yaml;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        players = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            UUID uuid = new UUID(random.nextLong(), random.nextLong());
+            PlayerSkillData data = new PlayerSkillData("Player" + i, uuid.toString());
+            data.addSkillPoints(random.nextInt(200));
+            for (int s = 0; s < 1 + random.nextInt(6); s++) {
+                data.setSkillLevel(SKILL_IDS[random.nextInt(SKILL_IDS.length)], 1 + random.nextInt(5));
+            }
+            PlayerSkillData.ActionProgress progress = data.getActionProgress();
+            progress.setMiningProgress(random.nextInt(100));
+            progress.setCombatProgress(random.nextInt(50));
+            progress.setMovementProgress(random.nextInt(1000));
+            progress.setJumpingProgress(random.nextInt(50));
+            players.add(data);
+        }
+
+        DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        yaml = new Yaml(options);
+
+        codec = new PlayerSkillDataCodec();
+        binaryFile = encodeBinary();
+        yamlFile = encodeYaml();
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return encodeBinary();
+    }
+
+    @Benchmark
+    public void binaryDecode(Blackhole blackhole) throws IOException {
+        for (Map.Entry<UUID, byte[]> entry : codec.readFile(binaryFile).entrySet()) {
+            blackhole.consume(codec.decode(entry.getKey().toString(), entry.getValue()));
+        }
+    }
+
+    @Benchmark
+    public String yamlEncode() {
+        return encodeYaml();
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public void yamlDecode(Blackhole blackhole) {
+        Map<String, Object> root = yaml.load(yamlFile);
+        Map<String, Object> section = (Map<String, Object>) root.get("players");
+        for (Map.Entry<String, Object> entry : section.entrySet()) {
+            blackhole.consume(PlayerSkillData.fromYamlMap(entry.getKey(), (Map<String, Object>) entry.getValue()));
+        }
+    }
+
+    private byte[] encodeBinary() {
+        Map<UUID, byte[]> encoded = new HashMap<>(records * 2);
+        for (PlayerSkillData data : players) {
+            encoded.put(UUID.fromString(data.getUuid()), codec.encode(data));
+        }
+        return codec.writeFile(encoded);
+    }
+
+    private String encodeYaml() {
+        Map<String, Object> section = new LinkedHashMap<>(records * 2);
+        for (PlayerSkillData data : players) {
+            section.put(data.getUuid(), data.toYamlMap());
+        }
+        return yaml.dump(Collections.singletonMap("players", section));
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.mineskills.benchmarks;
+
+import com.example.mineskills.managers.PerformanceMonitor;
+import com.example.mineskills.managers.PlayerDataManager;
+import com.example.mineskills.models.PlayerSkillData;
+import org.bukkit.plugin.Plugin;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Основной поток обрабатывает события 200 игроков, пока фоновое
+ * автосохранение копирует всех игроков
+ *
+ * globalLock - прежняя схема: каждое чтение и автосохранение под одним монитором
+ * lockFree - чтение из ConcurrentHashMap без блокировок, автосохранение через snapshot()
+ * manager - то же через настоящий PlayerDataManager: события с пометкой
+ *           изменений и write-behind сброс в players.dat
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlayerDataContentionBenchmark {
+    private static final int PLAYERS = 200;
+
+    @State(Scope.Group)
+    public static class Cache {
+        final Map<UUID, PlayerSkillData> players = new ConcurrentHashMap<>();
+        final UUID[] uuids = new UUID[PLAYERS];
+        final Object lock = new Object();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            for (int i = 0; i < PLAYERS; i++) {
+                UUID uuid = new UUID(i, i);
+                PlayerSkillData data = new PlayerSkillData("Player" + i, uuid.toString());
+                data.setSkillPoints(10);
+                data.setSkillLevel("MINING", 1);
+                data.setSkillLevel("SWIFT_MOVEMENT", 2);
+                uuids[i] = uuid;
+                players.put(uuid, data);
+            }
+        }
+    }
+
+    @State(Scope.Group)
+    public static class Manager {
+        File dataFolder;
+        PlayerDataManager playerDataManager;
+        final UUID[] uuids = new UUID[PLAYERS];
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            dataFolder = Files.createTempDirectory("mineskills-bench").toFile();
+            Plugin plugin = StandIns.plugin(dataFolder);
+            playerDataManager = new PlayerDataManager(plugin, new PerformanceMonitor(plugin));
+            for (int i = 0; i < PLAYERS; i++) {
+                uuids[i] = new UUID(i, i);
+                playerDataManager.getPlayerData(uuids[i], "Player" + i).setSkillLevel("SWIFT_MOVEMENT", 2);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            playerDataManager.shutdown();
+            try (Stream<Path> files = Files.walk(dataFolder.toPath())) {
+                files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class EventCursor {
+        int next;
+
+        UUID nextPlayer(Cache cache) {
+            UUID uuid = cache.uuids[next];
+            next = (next + 1) % PLAYERS;
+            return uuid;
+        }
+
+        UUID nextPlayer(Manager manager) {
+            UUID uuid = manager.uuids[next];
+            next = (next + 1) % PLAYERS;
+            return uuid;
+        }
+    }
+
+    @Benchmark
+    @Group("globalLock")
+    @GroupThreads(1)
+    public int globalLockEvent(Cache cache, EventCursor cursor) {
+        UUID uuid = cursor.nextPlayer(cache);
+        PlayerSkillData data;
+        synchronized (cache.lock) {
+            data = cache.players.get(uuid);
+        }
+        data.getActionProgress().addMiningProgress(1);
+        return data.getSkillLevel("MINING");
+    }
+
+    @Benchmark
+    @Group("globalLock")
+    @GroupThreads(1)
+    public void globalLockAutosave(Cache cache, Blackhole blackhole) {
+        Map<UUID, PlayerSkillData> batch = new HashMap<>();
+        synchronized (cache.lock) {
+            for (Map.Entry<UUID, PlayerSkillData> entry : cache.players.entrySet()) {
+                batch.put(entry.getKey(), entry.getValue().copy());
+            }
+        }
+        blackhole.consume(batch);
+    }
+
+    @Benchmark
+    @Group("lockFree")
+    @GroupThreads(1)
+    public int lockFreeEvent(Cache cache, EventCursor cursor) {
+        PlayerSkillData data = cache.players.get(cursor.nextPlayer(cache));
+        data.getActionProgress().addMiningProgress(1);
+        return data.getSkillLevel("MINING");
+    }
+
+    @Benchmark
+    @Group("lockFree")
+    @GroupThreads(1)
+    public void lockFreeAutosave(Cache cache, Blackhole blackhole) {
+        Map<UUID, PlayerSkillData> batch = new HashMap<>();
+        for (Map.Entry<UUID, PlayerSkillData> entry : cache.players.entrySet()) {
+            batch.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        blackhole.consume(batch);
+    }
+
+    @Benchmark
+    @Group("manager")
+    @GroupThreads(1)
+    public int managerEvent(Manager manager, EventCursor cursor) {
+        UUID uuid = cursor.nextPlayer(manager);
+        PlayerSkillData data = manager.playerDataManager.getPlayerData(uuid);
+        data.getActionProgress().addMiningProgress(1);
+        manager.playerDataManager.savePlayerData(uuid);
+        return data.getSkillLevel("MINING");
+    }
+
+    @Benchmark
+    @Group("manager")
+    @GroupThreads(1)
+    public void managerAutosave(Manager manager) {
+        manager.playerDataManager.flushDirtyPlayers();
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.mineskills.benchmarks;
+
+import org.bukkit.Server;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Легкие заглушки Plugin/Server/Player для бенчмарков без запущенного сервера
+ *
+ * Заглушки построены на java.lang.reflect.Proxy: отвечают только на то,
+ * что читают горячие пути (UUID, имя, логгер, планировщик), остальные
+ * методы возвращают значения по умолчанию. Задачи планировщика не
+ * выполняются - фоновая запись в бенчмарках вызывается напрямую.
+ */
+final class StandIns {
+    private static final Logger LOGGER = Logger.getLogger("MineSkillsBenchmarks");
+
+    private StandIns() {
+    }
+
+    /**
+     * Плагин с конфигом по умолчанию и папкой данных в dataFolder
+     *
+     * Менеджеры принимают org.bukkit.plugin.Plugin, поэтому MineSkillsPlugin
+     * не создается: заглушка отдает конфиг и ресурсы из jar бенчмарков.
+     */
+    static Plugin plugin(File dataFolder) {
+        BukkitScheduler scheduler = stub(BukkitScheduler.class, (method, args) -> null);
+        Server server = stub(Server.class, (method, args) -> {
+            switch (method.getName()) {
+                case "getLogger": return LOGGER;
+                case "getScheduler": return scheduler;
+                case "getName": return "StandIn";
+                case "getVersion": case "getBukkitVersion": return "1.21";
+                default: return null;
+            }
+        });
+
+        dataFolder.mkdirs();
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(
+            new InputStreamReader(resource("config.yml"), StandardCharsets.UTF_8));
+        return stub(Plugin.class, (method, args) -> {
+            switch (method.getName()) {
+                case "getConfig": return config;
+                case "getDataFolder": return dataFolder;
+                case "getLogger": return LOGGER;
+                case "getServer": return server;
+                case "getName": return "MineSkills";
+                case "isEnabled": return true;
+                case "getResource": return StandIns.class.getClassLoader().getResourceAsStream((String) args[0]);
+                case "saveResource":
+                    saveResource(dataFolder, (String) args[0], (Boolean) args[1]);
+                    return null;
+                default: return null;
+            }
+        });
+    }
+
+    /**
+     * Поток ресурса из jar бенчмарков (в него входят ресурсы плагина)
+     */
+    private static InputStream resource(String name) {
+        InputStream stream = StandIns.class.getClassLoader().getResourceAsStream(name);
+        if (stream == null) {
+            throw new IllegalStateException("В jar нет " + name);
+        }
+        return stream;
+    }
+
+    private static void saveResource(File dataFolder, String name, boolean replace) {
+        Path target = new File(dataFolder, name).toPath();
+        if (!replace && Files.exists(target)) return;
+        try (InputStream stream = resource(name)) {
+            Files.copy(stream, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Игрок с заданным UUID и именем
+     */
+    static Player player(UUID uuid, String name) {
+        return stub(Player.class, (method, args) -> {
+            switch (method.getName()) {
+                case "getUniqueId": return uuid;
+                case "getName": return name;
+                case "isOnline": case "isOnGround": return true;
+                default: return null;
+            }
+        });
+    }
+
+    /**
+     * Ответ заглушки на вызов метода (null - значение по умолчанию)
+     */
+    private interface Answer {
+        Object answer(Method method, Object[] args);
+    }
+
+    private static <T> T stub(Class<T> type, Answer answer) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (self, method, args) -> {
+            switch (method.getName()) {
+                case "equals": return self == args[0];
+                case "hashCode": return System.identityHashCode(self);
+                case "toString": return type.getSimpleName() + "StandIn";
+                default:
+                    Object result = answer.answer(method, args);
+                    return result != null ? result : defaultValue(method.getReturnType());
+            }
+        });
+        return type.cast(proxy);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) return null;
+        if (type == boolean.class) return false;
+        if (type == char.class) return '\0';
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0f;
+        if (type == double.class) return 0d;
+        if (type == byte.class) return (byte) 0;
+        if (type == short.class) return (short) 0;
+        return 0;
+    }
+}
@@ -5,6 +5,8 @@ import com.example.mineskills.commands.SkillTreeCommand;
 import com.example.mineskills.gui.GuiManager;
 import com.example.mineskills.listeners.*;
 import com.example.mineskills.managers.*;
+import com.example.mineskills.utils.ItemBuilder;
+import com.example.mineskills.utils.ProgressBar;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
 
@@ -18,6 +20,9 @@ public class MineSkillsPlugin extends JavaPlugin {
     private PlayerDataManager playerDataManager;
     private SkillApplier skillApplier;
     private ActionTracker actionTracker;
+    private NotificationManager notificationManager;
+    private PerformanceMonitor performanceMonitor;
+    private JoinPipeline joinPipeline;
     private GuiManager guiManager;
     
     // Конфигурационные параметры
@@ -32,6 +37,11 @@ public class MineSkillsPlugin extends JavaPlugin {
     private int jumpingThreshold;
     
     private int autoSaveInterval;
+    private int movementFlushTicks;
+    
+    public MineSkillsPlugin() {
+        super();
+    }
     
     @Override
     public void onEnable() {
@@ -54,9 +64,32 @@ public class MineSkillsPlugin extends JavaPlugin {
             createDataBackup();
         }
         
+        // Запускаем отложенную запись данных игроков
+        if (playerDataManager != null) {
+            playerDataManager.startWriteBehind();
+        }
+        
         // Запускаем автосохранение
         startAutoSave();
         
+        // Запускаем перенос накопленного движения в прогресс
+        startMovementFlush();
+        
+        // Запускаем разбор очереди уведомлений
+        if (notificationManager != null) {
+            notificationManager.start();
+        }
+        
+        // Запускаем применение скиллов вошедшим игрокам
+        if (joinPipeline != null) {
+            joinPipeline.start();
+        }
+        
+        // Запускаем поминутную статистику профилировщика
+        if (performanceMonitor != null) {
+            performanceMonitor.start();
+        }
+        
         getLogger().info("§a=== MineSkills Plugin Enabled Successfully ===");
         getLogger().info("§7Version: " + getDescription().getVersion());
         getLogger().info("§7API: Paper 1.21.x Compatible");
@@ -68,9 +101,29 @@ public class MineSkillsPlugin extends JavaPlugin {
     public void onDisable() {
         getLogger().info("§c=== MineSkills Plugin Shutting Down ===");
         
-        // Сохраняем все данные игроков
+        // Переносим движение, накопленное с последнего тика
+        if (actionTracker != null) {
+            actionTracker.flushMovement();
+        }
+        
+        // Останавливаем очередь уведомлений
+        if (notificationManager != null) {
+            notificationManager.stop();
+        }
+        
+        // Останавливаем очередь входа
+        if (joinPipeline != null) {
+            joinPipeline.stop();
+        }
+        
+        // Останавливаем профилировщик
+        if (performanceMonitor != null) {
+            performanceMonitor.stop();
+        }
+        
+        // Останавливаем write-behind и синхронно сохраняем все данные игроков
         if (playerDataManager != null) {
-            playerDataManager.saveAllPlayerData();
+            playerDataManager.shutdown();
             getLogger().info("§aPlayer data saved successfully");
         }
         
@@ -104,6 +157,7 @@ public class MineSkillsPlugin extends JavaPlugin {
         combatDamageThreshold = config.getInt("skill-tree.point-rewards.combat-damage", 50);
         movementDistanceThreshold = config.getInt("skill-tree.point-rewards.movement-distance", 1000);
         jumpingThreshold = config.getInt("skill-tree.point-rewards.jumping", 50);
+        movementFlushTicks = Math.max(1, config.getInt("skill-tree.movement-flush-ticks", 20));
         
         // Настройки сохранения
         autoSaveInterval = config.getInt("storage.auto-save-interval", 300); // 5 минут
@@ -121,23 +175,35 @@ public class MineSkillsPlugin extends JavaPlugin {
     private void initializeManagers() {
         try {
             // Инициализируем SkillManager (должен быть первым)
-            skillManager = new SkillManager();
+            skillManager = new SkillManager(this);
             getLogger().info("SkillManager initialized with " + skillManager.getAllSkills().size() + " skills");
             
+            // Инициализируем PerformanceMonitor (нужен менеджерам и слушателям)
+            performanceMonitor = new PerformanceMonitor(this);
+            getLogger().info("PerformanceMonitor initialized");
+            
             // Инициализируем PlayerDataManager
-            playerDataManager = new PlayerDataManager(this);
+            playerDataManager = new PlayerDataManager(this, performanceMonitor);
             getLogger().info("PlayerDataManager initialized");
             
+            // Инициализируем NotificationManager
+            notificationManager = new NotificationManager(this);
+            getLogger().info("NotificationManager initialized");
+            
             // Инициализируем SkillApplier
-            skillApplier = new SkillApplier(skillManager, playerDataManager);
+            skillApplier = new SkillApplier(skillManager, playerDataManager, notificationManager);
             getLogger().info("SkillApplier initialized");
             
             // Инициализируем ActionTracker
-            actionTracker = new ActionTracker(skillManager, playerDataManager,
+            actionTracker = new ActionTracker(skillManager, playerDataManager, notificationManager,
                 miningBlockThreshold, combatDamageThreshold, 
                 movementDistanceThreshold, jumpingThreshold);
             getLogger().info("ActionTracker initialized");
             
+            // Инициализируем JoinPipeline
+            joinPipeline = new JoinPipeline(this, playerDataManager, skillApplier, performanceMonitor);
+            getLogger().info("JoinPipeline initialized");
+            
             // Инициализируем GuiManager
             guiManager = new GuiManager(skillManager, playerDataManager, skillApplier);
             getLogger().info("GuiManager initialized");
@@ -158,21 +224,25 @@ public class MineSkillsPlugin extends JavaPlugin {
         try {
             // GUI слушатели
             getServer().getPluginManager().registerEvents(
-                new GuiClickListener(playerDataManager, skillApplier, actionTracker, guiManager), this);
+                new GuiClickListener(playerDataManager, skillApplier, actionTracker, guiManager,
+                    performanceMonitor), this);
             
             // Игровые слушатели
             getServer().getPluginManager().registerEvents(
-                new MiningActionListener(playerDataManager, skillApplier, actionTracker, miningTrackingEnabled), this);
+                new MiningActionListener(playerDataManager, skillApplier, actionTracker,
+                    notificationManager, performanceMonitor, miningTrackingEnabled), this);
             
             getServer().getPluginManager().registerEvents(
-                new CombatActionListener(playerDataManager, skillApplier, actionTracker, combatTrackingEnabled), this);
+                new CombatActionListener(playerDataManager, skillApplier, actionTracker,
+                    notificationManager, performanceMonitor, combatTrackingEnabled), this);
             
             getServer().getPluginManager().registerEvents(
-                new MovementActionListener(playerDataManager, skillApplier, actionTracker, movementTrackingEnabled, doubleJumpEnabled), this);
+                new MovementActionListener(playerDataManager, skillApplier, actionTracker,
+                    notificationManager, performanceMonitor, movementTrackingEnabled, doubleJumpEnabled), this);
             
             // Игрок слушатели
             getServer().getPluginManager().registerEvents(
-                new PlayerJoinListener(playerDataManager, skillApplier, skillManager), this);
+                new PlayerJoinListener(joinPipeline), this);
             
             getServer().getPluginManager().registerEvents(
                 new PlayerQuitListener(playerDataManager, skillApplier, actionTracker), this);
@@ -191,7 +261,7 @@ public class MineSkillsPlugin extends JavaPlugin {
     private void registerCommands() {
         try {
             SkillTreeCommand skillTreeCommand = new SkillTreeCommand(
-                skillManager, playerDataManager, skillApplier, actionTracker, guiManager);
+                skillManager, playerDataManager, skillApplier, actionTracker, guiManager, performanceMonitor);
             
             getCommand("skilltree").setExecutor(skillTreeCommand);
             getCommand("skilltree").setTabCompleter(new CommandTabCompleter());
@@ -234,6 +304,19 @@ public class MineSkillsPlugin extends JavaPlugin {
         }
     }
     
+    /**
+     * Запуск периодического переноса накопленного движения игроков
+     */
+    private void startMovementFlush() {
+        getServer().getScheduler().runTaskTimer(this, () -> {
+            if (actionTracker != null) {
+                long start = System.nanoTime();
+                actionTracker.flushMovement();
+                performanceMonitor.record(PerformanceMonitor.Section.MOVEMENT_FOLD, start);
+            }
+        }, movementFlushTicks, movementFlushTicks);
+    }
+    
     /**
      * Очистка ресурсов при отключении
      */
@@ -247,6 +330,9 @@ public class MineSkillsPlugin extends JavaPlugin {
         playerDataManager = null;
         skillApplier = null;
         actionTracker = null;
+        notificationManager = null;
+        joinPipeline = null;
+        performanceMonitor = null;
         guiManager = null;
     }
     
@@ -278,6 +364,20 @@ public class MineSkillsPlugin extends JavaPlugin {
         return actionTracker;
     }
     
+    /**
+     * Получить NotificationManager
+     */
+    public NotificationManager getNotificationManager() {
+        return notificationManager;
+    }
+    
+    /**
+     * Получить PerformanceMonitor
+     */
+    public PerformanceMonitor getPerformanceMonitor() {
+        return performanceMonitor;
+    }
+    
     /**
      * Получить GuiManager
      */
@@ -294,11 +394,21 @@ public class MineSkillsPlugin extends JavaPlugin {
         
         // Переинициализируем компоненты, зависящие от конфигурации
         if (actionTracker != null) {
-            actionTracker = new ActionTracker(skillManager, playerDataManager,
+            actionTracker.flushMovement();
+            actionTracker = new ActionTracker(skillManager, playerDataManager, notificationManager,
                 miningBlockThreshold, combatDamageThreshold, 
                 movementDistanceThreshold, jumpingThreshold);
         }
         
+        // Скиллы из skills.yml: при ошибке в файле остаются прежние
+        if (skillManager != null && skillManager.reload() && skillApplier != null) {
+            skillApplier.reloadSkills(getServer().getOnlinePlayers());
+        }
+        
+        // Шаблоны предметов GUI могли устареть
+        ItemBuilder.clearTemplates();
+        ProgressBar.clearCache();
+        
         getLogger().info("Configuration reloaded successfully");
     }
     
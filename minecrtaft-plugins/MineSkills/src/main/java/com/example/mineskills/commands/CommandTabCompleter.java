@@ -1,5 +1,6 @@
 package com.example.mineskills.commands;
 
+import com.example.mineskills.managers.Leaderboard;
 import org.bukkit.command.*;
 import org.bukkit.entity.Player;
 
@@ -27,20 +28,37 @@ public class CommandTabCompleter implements TabCompleter {
             completions.add("open");
             completions.add("info");
             completions.add("stats");
+            completions.add("top");
             
             // Админ команды
             if (player.hasPermission("mineskills.command.admin")) {
                 completions.add("addpoints");
                 completions.add("reload");
+                completions.add("perf");
+                completions.add("export");
+                completions.add("import");
             }
             
         } else if (args.length == 2) {
             // Второй аргумент для админ команд
-            if (args[0].equalsIgnoreCase("addpoints") && player.hasPermission("mineskills.command.admin")) {
+            if (args[0].equalsIgnoreCase("top")) {
+                // Метрики таблицы лидеров
+                for (Leaderboard.Metric metric : Leaderboard.Metric.values()) {
+                    completions.add(metric.getKey());
+                }
+            } else if (args[0].equalsIgnoreCase("addpoints") && player.hasPermission("mineskills.command.admin")) {
                 // Имена всех игроков
                 for (Player onlinePlayer : player.getServer().getOnlinePlayers()) {
                     completions.add(onlinePlayer.getName());
                 }
+            } else if (args[0].equalsIgnoreCase("import") && player.hasPermission("mineskills.command.admin")) {
+                // YAML файлы в папке data
+                java.io.File dataFolder = new java.io.File(
+                    player.getServer().getPluginManager().getPlugin("MineSkills").getDataFolder(), "data");
+                String[] files = dataFolder.list((dir, name) -> name.endsWith(".yml"));
+                if (files != null) {
+                    java.util.Collections.addAll(completions, files);
+                }
             }
             
         } else if (args.length == 3 && args[0].equalsIgnoreCase("addpoints")) {
@@ -4,35 +4,49 @@ import com.example.mineskills.managers.SkillManager;
 import com.example.mineskills.managers.PlayerDataManager;
 import com.example.mineskills.managers.SkillApplier;
 import com.example.mineskills.managers.ActionTracker;
+import com.example.mineskills.managers.Leaderboard;
+import com.example.mineskills.managers.PerformanceMonitor;
 import com.example.mineskills.gui.GuiManager;
 import com.example.mineskills.models.SkillBranch;
 import com.example.mineskills.models.PlayerSkillData;
+import com.example.mineskills.utils.ItemBuilder;
+import com.example.mineskills.utils.LatencyHistogram;
+import com.example.mineskills.utils.ProgressBar;
 import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
 import org.bukkit.command.*;
 import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 /**
  * Основная команда управления MineSkills
- * Поддерживает команды: open, info, addpoints
+ * Поддерживает команды: open, info, stats, top, addpoints, perf, export, import
  */
 public class SkillTreeCommand implements TabExecutor {
+    private static final int TOP_PAGE_SIZE = 10;
+
     private final SkillManager skillManager;
     private final PlayerDataManager playerDataManager;
     private final SkillApplier skillApplier;
     private final ActionTracker actionTracker;
     private final GuiManager guiManager;
+    private final PerformanceMonitor performanceMonitor;
 
     public SkillTreeCommand(SkillManager skillManager, PlayerDataManager playerDataManager,
-                          SkillApplier skillApplier, ActionTracker actionTracker, GuiManager guiManager) {
+                          SkillApplier skillApplier, ActionTracker actionTracker, GuiManager guiManager,
+                          PerformanceMonitor performanceMonitor) {
         this.skillManager = skillManager;
         this.playerDataManager = playerDataManager;
         this.skillApplier = skillApplier;
         this.actionTracker = actionTracker;
         this.guiManager = guiManager;
+        this.performanceMonitor = performanceMonitor;
     }
 
     @Override
@@ -86,6 +100,11 @@ public class SkillTreeCommand implements TabExecutor {
                 showStats(player);
                 break;
 
+            case "top":
+                showTop(player, args.length >= 2 ? args[1] : Leaderboard.Metric.TOTAL_POINTS.getKey(),
+                    args.length >= 3 ? args[2] : "1");
+                break;
+
             case "reload":
                 if (!player.hasPermission("mineskills.command.admin")) {
                     player.sendMessage("§cУ вас нет прав для использования этой команды!");
@@ -94,6 +113,34 @@ public class SkillTreeCommand implements TabExecutor {
                 reloadConfig(player);
                 break;
 
+            case "perf":
+                if (!player.hasPermission("mineskills.command.admin")) {
+                    player.sendMessage("§cУ вас нет прав для использования этой команды!");
+                    return true;
+                }
+                showPerformance(player, args.length >= 2 && args[1].equalsIgnoreCase("reset"));
+                break;
+
+            case "export":
+                if (!player.hasPermission("mineskills.command.admin")) {
+                    player.sendMessage("§cУ вас нет прав для использования этой команды!");
+                    return true;
+                }
+                exportData(player, args.length >= 2 ? args[1] : null);
+                break;
+
+            case "import":
+                if (!player.hasPermission("mineskills.command.admin")) {
+                    player.sendMessage("§cУ вас нет прав для использования этой команды!");
+                    return true;
+                }
+                if (args.length < 2) {
+                    player.sendMessage("§cИспользование: /skilltree import <файл.yml>");
+                    return true;
+                }
+                importData(player, args[1]);
+                break;
+
             default:
                 player.sendMessage("§cНеизвестная команда! Используйте /skilltree для справки.");
                 break;
@@ -129,10 +176,14 @@ public class SkillTreeCommand implements TabExecutor {
         player.sendMessage("§e/skilltree §7- открыть меню скиллов");
         player.sendMessage("§e/skilltree info §7- показать эту информацию");
         player.sendMessage("§e/skilltree stats §7- ваша статистика");
+        player.sendMessage("§e/skilltree top [points|mining|combat|movement|jumping] [страница] §7- таблица лидеров");
 
         if (player.hasPermission("mineskills.command.admin")) {
             player.sendMessage("§e/skilltree addpoints <игрок> <количество> §7- добавить очки");
             player.sendMessage("§e/skilltree reload §7- перезагрузить конфигурацию");
+            player.sendMessage("§e/skilltree perf [reset] §7- задержки обработчиков и запись на диск");
+            player.sendMessage("§e/skilltree export [файл] §7- выгрузить данные игроков в YAML");
+            player.sendMessage("§e/skilltree import <файл> §7- загрузить данные игроков из YAML");
         }
 
         player.sendMessage("");
@@ -190,6 +241,45 @@ public class SkillTreeCommand implements TabExecutor {
         player.sendMessage("§6§l============================");
     }
 
+    /**
+     * Показать страницу таблицы лидеров и место игрока
+     */
+    private void showTop(Player player, String metricKey, String pageStr) {
+        Leaderboard.Metric metric = Leaderboard.Metric.fromKey(metricKey);
+        if (metric == null) {
+            player.sendMessage("§cНеизвестная метрика! Доступно: points, mining, combat, movement, jumping");
+            return;
+        }
+
+        int page;
+        try {
+            page = Math.max(1, Integer.parseInt(pageStr));
+        } catch (NumberFormatException e) {
+            player.sendMessage("§cНомер страницы должен быть числом!");
+            return;
+        }
+
+        Leaderboard leaderboard = playerDataManager.getLeaderboard();
+        int pages = Math.max(1, (leaderboard.size() + TOP_PAGE_SIZE - 1) / TOP_PAGE_SIZE);
+        page = Math.min(page, pages);
+
+        player.sendMessage("§6§l=== Топ: " + metric.getDisplayName() + " §7(" + page + "/" + pages + ")§6§l ===");
+        List<Leaderboard.Position> positions = leaderboard.getPage(metric, page, TOP_PAGE_SIZE);
+        if (positions.isEmpty()) {
+            player.sendMessage("§7Пока нет игроков в таблице");
+        }
+        for (Leaderboard.Position position : positions) {
+            String color = position.getUuid().equals(player.getUniqueId()) ? "§a" : "§e";
+            player.sendMessage("§7#" + position.getRank() + " " + color + position.getName()
+                + " §7- §b" + metric.format(position.getScore()));
+        }
+
+        int rank = leaderboard.getRank(metric, player.getUniqueId());
+        if (rank > 0) {
+            player.sendMessage("§7Ваше место: §e" + rank + " §7из §e" + leaderboard.size());
+        }
+    }
+
     /**
      * Добавить очки игроку (админ команда)
      */
@@ -234,16 +324,135 @@ public class SkillTreeCommand implements TabExecutor {
         player.sendMessage("§aПерезагрузка конфигурации MineSkills...");
         
         try {
-            // Здесь можно добавить логику перезагрузки конфига
-            // Пока просто отправляем сообщение
-            player.sendMessage("§aКонфигурация перезагружена!");
-            player.sendMessage("§7Изменения вступят в силу при следующем входе на сервер");
+            // Скиллы из skills.yml подменяются целиком; при ошибке остаются прежние
+            if (!skillManager.reload()) {
+                player.sendMessage("§cОшибка в skills.yml, оставлены прежние скиллы (см. консоль)");
+                return;
+            }
+            skillApplier.reloadSkills(Bukkit.getOnlinePlayers());
+            
+            // Готовые предметы GUI и прогресс-бары собираются заново
+            ItemBuilder.clearTemplates();
+            ProgressBar.clearCache();
+            player.sendMessage("§aКонфигурация перезагружена! Скиллов: §e" + skillManager.getAllSkills().size());
+            player.sendMessage("§7Скиллы обновлены у всех игроков онлайн");
             
         } catch (Exception e) {
             player.sendMessage("§cОшибка при перезагрузке: " + e.getMessage());
         }
     }
 
+    /**
+     * Показать задержки обработчиков событий (админ команда)
+     */
+    private void showPerformance(Player player, boolean reset) {
+        if (!performanceMonitor.isEnabled()) {
+            player.sendMessage("§cПрофилировщик выключен (performance.enabled в config.yml)");
+            return;
+        }
+        if (reset) {
+            performanceMonitor.reset();
+            player.sendMessage("§aСтатистика профилировщика сброшена");
+            return;
+        }
+
+        player.sendMessage("§6§l=== Производительность MineSkills ===");
+        player.sendMessage("§7Обработчик: §eвызовов §7(за минуту) p50 / p99 / max");
+        for (PerformanceMonitor.Section section : PerformanceMonitor.Section.values()) {
+            LatencyHistogram histogram = performanceMonitor.getHistogram(section);
+            if (histogram.getCount() == 0) continue;
+
+            player.sendMessage("§7" + section.getDisplayName() + ": §e" + histogram.getCount()
+                + " §7(§e" + performanceMonitor.getCallsLastMinute(section) + "/мин§7) §e"
+                + formatNanos(histogram.getPercentile(50)) + " §7/ §e"
+                + formatNanos(histogram.getPercentile(99)) + " §7/ §e" + formatNanos(histogram.getMax()));
+        }
+        player.sendMessage("§7Записано на диск: §e" + formatBytes(performanceMonitor.getBytesWritten())
+            + " §7(§e" + formatBytes(performanceMonitor.getBytesLastMinute()) + "/мин§7)");
+    }
+
+    /**
+     * Время в удобных единицах (нс, мкс, мс)
+     */
+    private String formatNanos(long nanos) {
+        if (nanos < 1_000) return nanos + " нс";
+        if (nanos < 1_000_000) return String.format("%.1f мкс", nanos / 1_000.0);
+        return String.format("%.2f мс", nanos / 1_000_000.0);
+    }
+
+    /**
+     * Объем в удобных единицах (Б, КБ, МБ)
+     */
+    private String formatBytes(long bytes) {
+        if (bytes < 1024) return bytes + " Б";
+        if (bytes < 1024 * 1024) return String.format("%.1f КБ", bytes / 1024.0);
+        return String.format("%.1f МБ", bytes / (1024.0 * 1024.0));
+    }
+
+    /**
+     * Экспортировать данные игроков в YAML (админ команда)
+     */
+    private void exportData(Player player, String fileName) {
+        String name = fileName != null ? fileName : "players_export_" + System.currentTimeMillis() + ".yml";
+        File file = resolveDataFile(player, name);
+        Plugin plugin = getPlugin(player);
+
+        // Чтение хранилища и запись файла - в асинхронной задаче, сообщение - в основном потоке
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            String message;
+            try {
+                int exported = playerDataManager.exportToYaml(file);
+                message = "§aЭкспортировано игроков: §e" + exported + " §7(data/" + file.getName() + ")";
+            } catch (IOException e) {
+                message = "§cОшибка экспорта: " + e.getMessage();
+            }
+
+            String result = message;
+            plugin.getServer().getScheduler().runTask(plugin, () -> player.sendMessage(result));
+        });
+    }
+
+    private void importData(Player player, String fileName) {
+        File file = resolveDataFile(player, fileName);
+        if (!file.exists()) {
+            player.sendMessage("§cФайл data/" + file.getName() + " не найден!");
+            return;
+        }
+
+        Plugin plugin = getPlugin(player);
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                int imported = playerDataManager.importFromYaml(file);
+                plugin.getServer().getScheduler().runTask(plugin, () -> {
+                    player.sendMessage("§aИмпортировано игроков: §e" + imported);
+
+                    // Онлайн-игроки получили новые данные - переприменяем эффекты
+                    for (Player online : plugin.getServer().getOnlinePlayers()) {
+                        skillApplier.applyAllSkills(online);
+                    }
+                });
+            } catch (IOException e) {
+                plugin.getServer().getScheduler().runTask(plugin,
+                    () -> player.sendMessage("§cОшибка импорта: " + e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * Файл в папке data плагина (имя без путей, чтобы не выйти за ее пределы)
+     */
+    private File resolveDataFile(Player player, String fileName) {
+        File pluginFolder = getPlugin(player).getDataFolder();
+        return new File(new File(pluginFolder, "data"), new File(fileName).getName());
+    }
+
+    /**
+     * Получить плагин (для планировщика задач)
+     */
+    private Plugin getPlugin(Player player) {
+        return player.getServer().getPluginManager().getPlugin("MineSkills");
+    }
+
     /**
      * Получить отображаемое название скилла
      */
@@ -261,10 +470,19 @@ public class SkillTreeCommand implements TabExecutor {
             completions.add("open");
             completions.add("info");
             completions.add("stats");
+            completions.add("top");
             
             if (sender.hasPermission("mineskills.command.admin")) {
                 completions.add("addpoints");
                 completions.add("reload");
+                completions.add("perf");
+                completions.add("export");
+                completions.add("import");
+            }
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("top")) {
+            // Метрики таблицы лидеров
+            for (Leaderboard.Metric metric : Leaderboard.Metric.values()) {
+                completions.add(metric.getKey());
             }
         } else if (args.length == 2 && args[0].equalsIgnoreCase("addpoints")) {
             // Имена игроков
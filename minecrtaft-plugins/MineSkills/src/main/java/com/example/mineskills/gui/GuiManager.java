@@ -123,7 +123,7 @@ public class GuiManager {
     }
 
     /**
-     * Обновить отображение GUI
+     * Обновить отображение GUI (перерисовываются только изменившиеся слоты)
      */
     public void updateSkillTreeGui(Player player) {
         UUID uuid = player.getUniqueId();
@@ -132,6 +132,11 @@ public class GuiManager {
         if (skillTreeGui != null) {
             skillTreeGui.update();
         }
+
+        SkillChainSubMenu chainGui = skillChainGuis.get(uuid);
+        if (chainGui != null) {
+            chainGui.update();
+        }
     }
 
     /**
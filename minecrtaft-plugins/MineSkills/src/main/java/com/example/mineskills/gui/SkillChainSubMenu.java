@@ -2,6 +2,7 @@ package com.example.mineskills.gui;
 
 import com.example.mineskills.managers.SkillManager;
 import com.example.mineskills.managers.PlayerDataManager;
+import com.example.mineskills.managers.SkillApplier;
 import com.example.mineskills.models.Skill;
 import com.example.mineskills.models.SkillChain;
 import com.example.mineskills.models.PlayerSkillData;
@@ -22,12 +23,24 @@ import org.bukkit.inventory.ItemStack;
  * Показывает иконки и описания для каждого уровня скилла
  */
 public class SkillChainSubMenu {
+    private static final int INVENTORY_SIZE = 54;
+    private static final int INFO_SLOT = 4;
+    private static final int[] LEVEL_SLOTS = {10, 12, 14, 16, 18};
+    private static final int BONUS_SLOT = 31;
+    private static final int BACK_SLOT = 49;
+    private static final int PANEL_SLOT = 53;
+
+    // Состояния слотов для SlotRenderer
+    private static final long STATIC_STATE = 0L;
+    private static final long EMPTY_STATE = -1L;
+
     private final SkillManager skillManager;
     private final PlayerDataManager playerDataManager;
     private final SkillApplier skillApplier;
     private final Player player;
     private final String skillId;
     private final Inventory inventory;
+    private final SlotRenderer renderer;
 
     public SkillChainSubMenu(SkillManager skillManager, PlayerDataManager playerDataManager,
                            SkillApplier skillApplier, Player player, String skillId) {
@@ -38,43 +51,83 @@ public class SkillChainSubMenu {
         this.skillId = skillId;
         
         // Создаем инвентарь 54 слота
-        this.inventory = Bukkit.createInventory(null, 54, 
+        this.inventory = Bukkit.createInventory(null, INVENTORY_SIZE, 
             Component.text("§5§lЦепочка Навыков"));
+        this.renderer = new SlotRenderer(inventory);
         
-        initializeInventory();
+        render();
     }
 
     /**
-     * Инициализация инвентаря с цепочкой навыков
+     * Отрисовка цепочки: перерисовываются только слоты с изменившимся состоянием
      */
-    private void initializeInventory() {
-        // Очищаем инвентарь
-        for (int i = 0; i < 54; i++) {
-            inventory.setItem(i, ItemBuilder.createEmptySlot());
+    private void render() {
+        PlayerSkillData playerData = playerDataManager.getPlayerData(player.getUniqueId());
+        int currentLevel = playerData != null ? playerData.getSkillLevel(skillId) : 0;
+
+        // Фон
+        ItemStack emptySlot = ItemBuilder.template("empty", ItemBuilder::createEmptySlot);
+        for (int slot = 0; slot < INVENTORY_SIZE; slot++) {
+            if (!isDynamicSlot(slot) && renderer.isStale(slot, STATIC_STATE)) {
+                renderer.render(slot, STATIC_STATE, emptySlot);
+            }
         }
 
         // Добавляем информацию о скилле
-        addSkillInfo();
+        addSkillInfo(currentLevel);
         
         // Добавляем уровни цепочки
-        addSkillLevels();
+        addSkillLevels(currentLevel);
         
         // Добавляем кнопку назад
         addBackButton();
         
         // Добавляем информационную панель
-        addInfoPanel();
+        addInfoPanel(playerData);
+    }
+
+    /**
+     * Слот, содержимое которого задают скилл, уровни, бонус или кнопки
+     */
+    private boolean isDynamicSlot(int slot) {
+        if (slot == INFO_SLOT || slot == BONUS_SLOT || slot == BACK_SLOT || slot == PANEL_SLOT) {
+            return true;
+        }
+        for (int levelSlot : LEVEL_SLOTS) {
+            if (slot == levelSlot) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Выставить пустой слот, если он еще не пустой
+     */
+    private void renderEmpty(int slot) {
+        if (renderer.isStale(slot, EMPTY_STATE)) {
+            renderer.render(slot, EMPTY_STATE, ItemBuilder.template("empty", ItemBuilder::createEmptySlot));
+        }
     }
 
     /**
      * Добавление информации о скилле
      */
-    private void addSkillInfo() {
+    private void addSkillInfo(int currentLevel) {
         Skill skill = skillManager.getSkill(skillId);
-        if (skill == null) return;
-        
-        PlayerSkillData playerData = playerDataManager.getPlayerData(player.getUniqueId());
-        int currentLevel = playerData != null ? playerData.getSkillLevel(skillId) : 0;
+        if (skill == null) {
+            renderEmpty(INFO_SLOT);
+            return;
+        }
+        if (!renderer.isStale(INFO_SLOT, currentLevel)) return;
+
+        ItemStack skillInfoItem = ItemBuilder.template("chain:" + skillId + ":info:" + currentLevel,
+            () -> createSkillInfoItem(skill, currentLevel));
+        renderer.render(INFO_SLOT, currentLevel, skillInfoItem); // Центр верхнего ряда
+    }
+
+    /**
+     * Создание предмета с информацией о скилле
+     */
+    private ItemStack createSkillInfoItem(Skill skill, int currentLevel) {
         int maxLevel = skill.getMaxLevel();
         
         // Заголовок скилла
@@ -94,35 +147,45 @@ public class SkillChainSubMenu {
             Component.text("§7новые возможности и улучшения").color(NamedTextColor.GRAY)
         };
         
-        ItemStack skillInfoItem = ItemBuilder.createGuiButton(
+        return ItemBuilder.createGuiButton(
             skill.getIcon(),
             displayName,
             skillInfoLore
         );
-        inventory.setItem(4, skillInfoItem); // Центр верхнего ряда
     }
 
     /**
      * Добавление уровней цепочки
      */
-    private void addSkillLevels() {
+    private void addSkillLevels(int currentLevel) {
         SkillChain chain = skillManager.getSkillChain(skillId);
-        if (chain == null) return;
-        
-        PlayerSkillData playerData = playerDataManager.getPlayerData(player.getUniqueId());
-        int currentLevel = playerData != null ? playerData.getSkillLevel(skillId) : 0;
+        if (chain == null) {
+            for (int levelSlot : LEVEL_SLOTS) {
+                renderEmpty(levelSlot);
+            }
+            renderEmpty(BONUS_SLOT);
+            return;
+        }
         
         // Позиции для уровней (2-й ряд, от слота 10 до 16)
-        int[] levelSlots = {10, 12, 14, 16, 18};
-        
-        for (int i = 0; i < chain.getLevels().size() && i < levelSlots.length; i++) {
+        for (int i = 0; i < LEVEL_SLOTS.length; i++) {
+            if (i >= chain.getLevels().size()) {
+                renderEmpty(LEVEL_SLOTS[i]);
+                continue;
+            }
+
             SkillChain.SkillChainLevel level = chain.getLevels().get(i);
             int levelNumber = level.getLevel();
             boolean isUnlocked = currentLevel >= levelNumber;
             boolean isCurrent = currentLevel == levelNumber - 1;
+
+            // Вид уровня меняется только при переходе между тремя состояниями
+            long state = isUnlocked ? 0 : isCurrent ? 1 : 2;
+            if (!renderer.isStale(LEVEL_SLOTS[i], state)) continue;
             
-            ItemStack levelItem = createLevelItem(level, isUnlocked, isCurrent);
-            inventory.setItem(levelSlots[i], levelItem);
+            ItemStack levelItem = ItemBuilder.template("chain:" + skillId + ":" + levelNumber + ":" + state,
+                () -> createLevelItem(level, isUnlocked, isCurrent));
+            renderer.render(LEVEL_SLOTS[i], state, levelItem);
         }
         
         // Добавляем бонус за полное прохождение (последний уровень)
@@ -173,10 +236,20 @@ public class SkillChainSubMenu {
      * Добавление бонуса за полное прохождение цепочки
      */
     private void addChainBonus(SkillChain chain, int currentLevel) {
-        if (currentLevel < chain.getMaxLevel()) {
+        int remaining = Math.max(0, chain.getMaxLevel() - currentLevel);
+        if (!renderer.isStale(BONUS_SLOT, remaining)) return;
+
+        ItemStack bonusItem = ItemBuilder.template("chain:" + skillId + ":bonus:" + remaining,
+            () -> createBonusItem(chain, remaining));
+        renderer.render(BONUS_SLOT, remaining, bonusItem); // Центр нижней части
+    }
+
+    /**
+     * Создание предмета бонуса цепочки
+     */
+    private ItemStack createBonusItem(SkillChain chain, int remaining) {
+        if (remaining > 0) {
             // Цепочка не завершена
-            int remaining = chain.getMaxLevel() - currentLevel;
-            
             Component[] bonusLore = {
                 Component.text("§7Завершите все уровни").color(NamedTextColor.GRAY),
                 Component.text("§7цепочки для получения").color(NamedTextColor.GRAY),
@@ -185,65 +258,69 @@ public class SkillChainSubMenu {
                 Component.text("§7Осталось уровней: §e" + remaining).color(NamedTextColor.YELLOW)
             };
             
-            ItemStack lockedBonusItem = ItemBuilder.createGuiButton(
+            return ItemBuilder.createGuiButton(
                 Material.REDSTONE_BLOCK,
                 "§c§lЗаблокированный Бонус",
                 bonusLore
             );
-            inventory.setItem(31, lockedBonusItem); // Центр нижней части
-            
-        } else {
-            // Цепочка завершена, показываем бонус
-            String bonusName = "§a§l" + chain.getTitle() + " - МАСТЕР";
-            Component[] bonusLore = {
-                Component.text("§a§lПОЗДРАВЛЯЕМ!").color(NamedTextColor.GREEN),
-                Component.text("§7Вы стали мастером этого").color(NamedTextColor.GRAY),
-                Component.text("§7навыка и получили").color(NamedTextColor.GRAY),
-                Component.text("§7специальный бонус!").color(NamedTextColor.GRAY),
-                Component.empty(),
-                Component.text("§7Максимальные возможности").color(NamedTextColor.GRAY),
-                Component.text("§7скилла активны").color(NamedTextColor.GRAY),
-                Component.empty(),
-                Component.text("§a§l✓ ЦЕПОЧКА ЗАВЕРШЕНА").color(NamedTextColor.GREEN)
-            };
-            
-            ItemStack bonusItem = ItemBuilder.createGuiButton(
-                Material.NETHER_STAR,
-                bonusName,
-                bonusLore
-            );
-            inventory.setItem(31, bonusItem); // Центр нижней части
         }
+
+        // Цепочка завершена, показываем бонус
+        String bonusName = "§a§l" + chain.getTitle() + " - МАСТЕР";
+        Component[] bonusLore = {
+            Component.text("§a§lПОЗДРАВЛЯЕМ!").color(NamedTextColor.GREEN),
+            Component.text("§7Вы стали мастером этого").color(NamedTextColor.GRAY),
+            Component.text("§7навыка и получили").color(NamedTextColor.GRAY),
+            Component.text("§7специальный бонус!").color(NamedTextColor.GRAY),
+            Component.empty(),
+            Component.text("§7Максимальные возможности").color(NamedTextColor.GRAY),
+            Component.text("§7скилла активны").color(NamedTextColor.GRAY),
+            Component.empty(),
+            Component.text("§a§l✓ ЦЕПОЧКА ЗАВЕРШЕНА").color(NamedTextColor.GREEN)
+        };
+        
+        return ItemBuilder.createGuiButton(
+            Material.NETHER_STAR,
+            bonusName,
+            bonusLore
+        );
     }
 
     /**
      * Добавление кнопки назад
      */
     private void addBackButton() {
-        Component[] backLore = {
-            Component.text("§7Вернуться к").color(NamedTextColor.GRAY),
-            Component.text("§7дереву скиллов").color(NamedTextColor.GRAY),
-            Component.empty(),
-            Component.text("§cВнимание: Изменения").color(NamedTextColor.RED),
-            Component.text("§cуже сохранены!").color(NamedTextColor.RED)
-        };
-        
-        ItemStack backItem = ItemBuilder.createGuiButton(
-            Material.ARROW,
-            "§4§lНазад к Скиллам",
-            backLore
-        );
-        inventory.setItem(49, backItem); // Центр нижнего ряда
+        if (!renderer.isStale(BACK_SLOT, STATIC_STATE)) return;
+
+        ItemStack backItem = ItemBuilder.template("chain:back", () -> {
+            Component[] backLore = {
+                Component.text("§7Вернуться к").color(NamedTextColor.GRAY),
+                Component.text("§7дереву скиллов").color(NamedTextColor.GRAY),
+                Component.empty(),
+                Component.text("§cВнимание: Изменения").color(NamedTextColor.RED),
+                Component.text("§cуже сохранены!").color(NamedTextColor.RED)
+            };
+            
+            return ItemBuilder.createGuiButton(
+                Material.ARROW,
+                "§4§lНазад к Скиллам",
+                backLore
+            );
+        });
+        renderer.render(BACK_SLOT, STATIC_STATE, backItem); // Центр нижнего ряда
     }
 
     /**
      * Добавление информационной панели
      */
-    private void addInfoPanel() {
-        PlayerSkillData playerData = playerDataManager.getPlayerData(player.getUniqueId());
-        if (playerData == null) return;
+    private void addInfoPanel(PlayerSkillData playerData) {
+        if (playerData == null) {
+            renderEmpty(PANEL_SLOT);
+            return;
+        }
         
         int skillPoints = playerData.getSkillPoints();
+        if (!renderer.isStale(PANEL_SLOT, skillPoints)) return;
         
         Component[] infoLore = {
             Component.text("§7Информация о цепочке:").color(NamedTextColor.GRAY),
@@ -263,7 +340,7 @@ public class SkillChainSubMenu {
             "§6§lИнформация",
             infoLore
         );
-        inventory.setItem(53, infoItem); // Правый нижний угол
+        renderer.render(PANEL_SLOT, skillPoints, infoItem); // Правый нижний угол
     }
 
     /**
@@ -278,13 +355,13 @@ public class SkillChainSubMenu {
         Player clickedPlayer = (Player) event.getWhoClicked();
         
         // Кнопка назад
-        if (slot == 49) {
+        if (slot == BACK_SLOT) {
             openSkillTree();
             return;
         }
         
         // Остальные слоты только для отображения
-        if (slot >= 0 && slot < 54) {
+        if (slot >= 0 && slot < INVENTORY_SIZE) {
             // Просто играем звук при клике
             clickedPlayer.playSound(clickedPlayer.getLocation(), Sound.BLOCK_STONE_BUTTON_CLICK_ON, 1.0f, 1.0f);
         }
@@ -305,6 +382,13 @@ public class SkillChainSubMenu {
         player.openInventory(inventory);
     }
 
+    /**
+     * Обновить отображение подменю
+     */
+    public void update() {
+        render();
+    }
+
     /**
      * Получить инвентарь
      */
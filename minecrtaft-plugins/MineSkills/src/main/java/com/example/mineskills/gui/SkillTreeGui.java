@@ -27,11 +27,23 @@ import java.util.Map;
  * Использует Component API для отображения цветных текстов
  */
 public class SkillTreeGui {
+    private static final int INVENTORY_SIZE = 54;
+    private static final int[] BRANCH_SLOTS = {0, 9, 18, 27, 36};
+    private static final int[] SKILL_SLOTS = {2, 3, 4, 11, 12, 13}; // Центральные позиции для скиллов
+    private static final int POINTS_SLOT = 8;
+    private static final int EXIT_SLOT = 49;
+    private static final int PROGRESS_SLOT = 53;
+
+    // Состояния слотов для SlotRenderer
+    private static final long STATIC_STATE = 0L;
+    private static final long EMPTY_STATE = -1L;
+
     private final SkillManager skillManager;
     private final PlayerDataManager playerDataManager;
     private final SkillApplier skillApplier;
     private final Player player;
     private final Inventory inventory;
+    private final SlotRenderer renderer;
     private SkillBranch currentBranch;
 
     public SkillTreeGui(SkillManager skillManager, PlayerDataManager playerDataManager,
@@ -43,101 +55,132 @@ public class SkillTreeGui {
         this.currentBranch = SkillBranch.STRENGTH; // По умолчанию показываем Strength
         
         // Создаем инвентарь 54 слота (6 рядов x 9 слотов)
-        this.inventory = Bukkit.createInventory(null, 54, 
+        this.inventory = Bukkit.createInventory(null, INVENTORY_SIZE, 
             Component.text("§6§lДерево Скиллов - " + currentBranch.getDisplayName()));
+        this.renderer = new SlotRenderer(inventory);
         
-        initializeInventory();
+        render();
     }
 
     /**
-     * Инициализация инвентаря с скиллами
+     * Отрисовка инвентаря: перерисовываются только слоты с изменившимся состоянием
      */
-    private void initializeInventory() {
-        // Очищаем инвентарь
-        for (int i = 0; i < 54; i++) {
-            inventory.setItem(i, ItemBuilder.createEmptySlot());
+    private void render() {
+        PlayerSkillData playerData = playerDataManager.getPlayerData(player.getUniqueId());
+
+        // Фон не зависит от игрока - один шаблон на всех
+        ItemStack emptySlot = ItemBuilder.template("empty", ItemBuilder::createEmptySlot);
+        for (int slot = 0; slot < INVENTORY_SIZE; slot++) {
+            if (!isDynamicSlot(slot) && renderer.isStale(slot, STATIC_STATE)) {
+                renderer.render(slot, STATIC_STATE, emptySlot);
+            }
         }
 
         // Заполняем кнопки веток в верхнем ряду
         fillBranchButtons();
         
         // Заполняем скиллы выбранной ветки
-        fillSkillTree();
+        fillSkillTree(playerData);
         
         // Добавляем информационные панели
-        fillInfoPanels();
+        fillInfoPanels(playerData);
         
         // Добавляем кнопку выхода
         addExitButton();
     }
 
+    /**
+     * Слот, содержимое которого задают кнопки, скиллы или панели
+     */
+    private boolean isDynamicSlot(int slot) {
+        return isBranchButton(slot) || isSkillSlot(slot) ||
+               slot == POINTS_SLOT || slot == PROGRESS_SLOT || slot == EXIT_SLOT;
+    }
+
     /**
      * Заполнение кнопок веток в верхнем ряду
      */
     private void fillBranchButtons() {
         // Позиции кнопок веток: 0, 9, 18, 27, 36
-        int[] branchSlots = {0, 9, 18, 27, 36};
         SkillBranch[] branches = SkillBranch.values();
         
-        for (int i = 0; i < branches.length && i < branchSlots.length; i++) {
+        for (int i = 0; i < branches.length && i < BRANCH_SLOTS.length; i++) {
+            if (!renderer.isStale(BRANCH_SLOTS[i], STATIC_STATE)) continue;
+
             SkillBranch branch = branches[i];
-            Material icon = getBranchIcon(branch);
-            String displayName = branch.getColoredName() + " §l" + branch.getDisplayName();
-            
-            Component[] lore = {
-                Component.text("§7Нажмите для просмотра").color(NamedTextColor.GRAY),
-                Component.text("§7скиллов ветки").color(NamedTextColor.GRAY),
-                Component.empty(),
-                Component.text("§aДоступно скиллов: §e" + 
-                    skillManager.getSkillsByBranch(branch).size()).color(NamedTextColor.GREEN)
-            };
-            
-            ItemStack item = ItemBuilder.createGuiButton(icon, displayName, lore);
-            inventory.setItem(branchSlots[i], item);
+            ItemStack item = ItemBuilder.template("branch:" + branch.name(), () -> createBranchItem(branch));
+            renderer.render(BRANCH_SLOTS[i], STATIC_STATE, item);
         }
     }
 
     /**
-     * Заполнение скиллами выбранной ветки
+     * Создание кнопки ветки
      */
-    private void fillSkillTree() {
-        if (currentBranch == null) return;
+    private ItemStack createBranchItem(SkillBranch branch) {
+        Material icon = getBranchIcon(branch);
+        String displayName = branch.getColoredName() + " §l" + branch.getDisplayName();
         
+        Component[] lore = {
+            Component.text("§7Нажмите для просмотра").color(NamedTextColor.GRAY),
+            Component.text("§7скиллов ветки").color(NamedTextColor.GRAY),
+            Component.empty(),
+            Component.text("§aДоступно скиллов: §e" + 
+                skillManager.getSkillsByBranch(branch).size()).color(NamedTextColor.GREEN)
+        };
+        
+        return ItemBuilder.createGuiButton(icon, displayName, lore);
+    }
+
+    /**
+     * Заполнение скиллами выбранной ветки
+     */
+    private void fillSkillTree(PlayerSkillData playerData) {
         var skills = skillManager.getSkillsByBranch(currentBranch);
-        int slotIndex = 0;
+        int playerPoints = playerData != null ? playerData.getSkillPoints() : 0;
         
         // Размещаем скиллы в сетке 3x2 (максимум 6 скиллов на ветку)
-        int[] slots = {2, 3, 4, 11, 12, 13}; // Центральные позиции для скиллов
-        
-        for (int i = 0; i < skills.size() && i < slots.length; i++) {
+        for (int i = 0; i < SKILL_SLOTS.length; i++) {
+            int slot = SKILL_SLOTS[i];
+
+            if (playerData == null || i >= skills.size()) {
+                if (renderer.isStale(slot, EMPTY_STATE)) {
+                    renderer.render(slot, EMPTY_STATE, ItemBuilder.template("empty", ItemBuilder::createEmptySlot));
+                }
+                continue;
+            }
+
             Skill skill = skills.get(i);
-            ItemStack skillItem = createSkillItem(skill);
-            inventory.setItem(slots[i], skillItem);
-            slotIndex++;
+            int currentLevel = playerData.getSkillLevel(skill.getOrdinal());
+            boolean hasRequirements = skillManager.hasRequirements(skill, playerData);
+            boolean affordable = playerPoints >= skillManager.getNextLevelCost(skill, currentLevel);
+
+            // Предмет скилла определяется скиллом, уровнем и двумя флагами,
+            // а не самим числом очков - поэтому его можно делить между игроками
+            long state = ((long) skill.getOrdinal() << 32) | ((long) currentLevel << 2)
+                       | (hasRequirements ? 2 : 0) | (affordable ? 1 : 0);
+            if (!renderer.isStale(slot, state)) continue;
+
+            ItemStack skillItem = ItemBuilder.skillTemplate(skill.getId(), currentLevel, hasRequirements, affordable,
+                () -> createSkillItem(skill, currentLevel, hasRequirements, affordable));
+            renderer.render(slot, state, skillItem);
         }
     }
 
     /**
      * Создание предмета для скилла
      */
-    private ItemStack createSkillItem(Skill skill) {
-        PlayerSkillData playerData = playerDataManager.getPlayerData(player.getUniqueId());
-        if (playerData == null) return ItemBuilder.createEmptySlot();
-        
-        int currentLevel = playerData.getSkillLevel(skill.getId());
+    private ItemStack createSkillItem(Skill skill, int currentLevel, boolean hasRequirements, boolean affordable) {
         int maxLevel = skill.getMaxLevel();
-        boolean hasRequirements = skillManager.hasRequirements(skill, playerData);
         boolean canLevelUp = skill.canLevelUp(currentLevel);
         int cost = skillManager.getNextLevelCost(skill, currentLevel);
-        int playerPoints = playerData.getSkillPoints();
         
         // Определяем цвет и материал
         Material material = currentLevel >= maxLevel ? Material.LIME_STAINED_GLASS_PANE :
-                          canLevelUp && hasRequirements && playerPoints >= cost ? 
+                          canLevelUp && hasRequirements && affordable ? 
                           Material.GREEN_STAINED_GLASS_PANE : Material.RED_STAINED_GLASS_PANE;
         
         // Создаем имя скилла
-        String displayName = currentBranch.getMinecraftColor() + "§l" + skill.getName();
+        String displayName = skill.getBranch().getMinecraftColor() + "§l" + skill.getName();
         if (currentLevel > 0) {
             displayName += " §7(§e" + currentLevel + "§7/§e" + maxLevel + "§7)";
         }
@@ -170,7 +213,7 @@ public class SkillTreeGui {
             
             // Стоимость
             if (hasRequirements) {
-                if (playerPoints >= cost) {
+                if (affordable) {
                     loreList.add(Component.text("§aСтоимость: §e" + cost + " §aочков").color(NamedTextColor.GREEN));
                 } else {
                     loreList.add(Component.text("§cНедостаточно очков: §e" + cost).color(NamedTextColor.RED));
@@ -193,11 +236,11 @@ public class SkillTreeGui {
         loreList.add(Component.text(" "));
         if (currentLevel >= maxLevel) {
             loreList.add(Component.text("§6ЛКМ: Просмотр цепочки").color(NamedTextColor.GOLD));
-        } else if (canLevelUp && hasRequirements && playerPoints >= cost) {
+        } else if (canLevelUp && hasRequirements && affordable) {
             loreList.add(Component.text("§aЛКМ: Улучшить скилл").color(NamedTextColor.GREEN));
         } else if (!hasRequirements) {
             loreList.add(Component.text("§cТребования не выполнены").color(NamedTextColor.RED));
-        } else if (playerPoints < cost) {
+        } else if (!affordable) {
             loreList.add(Component.text("§cНедостаточно очков").color(NamedTextColor.RED));
         } else {
             loreList.add(Component.text("§cНедоступно").color(NamedTextColor.RED));
@@ -209,76 +252,97 @@ public class SkillTreeGui {
     /**
      * Заполнение информационных панелей
      */
-    private void fillInfoPanels() {
-        PlayerSkillData playerData = playerDataManager.getPlayerData(player.getUniqueId());
-        if (playerData == null) return;
+    private void fillInfoPanels(PlayerSkillData playerData) {
+        if (playerData == null) {
+            ItemStack emptySlot = ItemBuilder.template("empty", ItemBuilder::createEmptySlot);
+            if (renderer.isStale(POINTS_SLOT, EMPTY_STATE)) renderer.render(POINTS_SLOT, EMPTY_STATE, emptySlot);
+            if (renderer.isStale(PROGRESS_SLOT, EMPTY_STATE)) renderer.render(PROGRESS_SLOT, EMPTY_STATE, emptySlot);
+            return;
+        }
         
         // Панель очков скиллов (правый верхний угол)
         int skillPoints = playerData.getSkillPoints();
         int totalPoints = playerData.getTotalPointsEarned();
+        long pointsState = ((long) skillPoints << 32) | (totalPoints & 0xFFFFFFFFL);
         
-        Component[] pointsLore = {
-            Component.text("§7Ваши очки скиллов:").color(NamedTextColor.GRAY),
-            Component.text("§eТекущие: §a" + skillPoints).color(NamedTextColor.YELLOW),
-            Component.text("§7Всего заработано: §b" + totalPoints).color(NamedTextColor.AQUA),
-            Component.empty(),
-            Component.text("§7Очки даются за:").color(NamedTextColor.GRAY),
-            Component.text("§7• Добычу блоков").color(NamedTextColor.GRAY),
-            Component.text("§7• Бой и урон").color(NamedTextColor.GRAY),
-            Component.text("§7• Движение").color(NamedTextColor.GRAY),
-            Component.text("§7• Прыжки").color(NamedTextColor.GRAY)
-        };
-        
-        ItemStack pointsItem = ItemBuilder.createGuiButton(
-            Material.EXPERIENCE_BOTTLE,
-            "§6§lОчки Скиллов",
-            pointsLore
-        );
-        inventory.setItem(8, pointsItem);
+        if (renderer.isStale(POINTS_SLOT, pointsState)) {
+            Component[] pointsLore = {
+                Component.text("§7Ваши очки скиллов:").color(NamedTextColor.GRAY),
+                Component.text("§eТекущие: §a" + skillPoints).color(NamedTextColor.YELLOW),
+                Component.text("§7Всего заработано: §b" + totalPoints).color(NamedTextColor.AQUA),
+                Component.empty(),
+                Component.text("§7Очки даются за:").color(NamedTextColor.GRAY),
+                Component.text("§7• Добычу блоков").color(NamedTextColor.GRAY),
+                Component.text("§7• Бой и урон").color(NamedTextColor.GRAY),
+                Component.text("§7• Движение").color(NamedTextColor.GRAY),
+                Component.text("§7• Прыжки").color(NamedTextColor.GRAY)
+            };
+            
+            ItemStack pointsItem = ItemBuilder.createGuiButton(
+                Material.EXPERIENCE_BOTTLE,
+                "§6§lОчки Скиллов",
+                pointsLore
+            );
+            renderer.render(POINTS_SLOT, pointsState, pointsItem);
+        }
         
         // Панель прогресса действий (нижний ряд)
         var progress = playerData.getActionProgress();
-        Component[] progressLore = {
-            Component.text("§7Прогресс к следующим очкам:").color(NamedTextColor.GRAY),
-            Component.empty(),
-            Component.text("§8Добыча:").color(NamedTextColor.GRAY),
-            ProgressBar.createBar(progress.getMiningProgress(), 100, 15, 
-                NamedTextColor.GREEN, NamedTextColor.DARK_GRAY),
-            Component.text("§8Бой:").color(NamedTextColor.GRAY),
-            ProgressBar.createBar(progress.getCombatProgress(), 50, 15, 
-                NamedTextColor.RED, NamedTextColor.DARK_GRAY),
-            Component.text("§8Движение:").color(NamedTextColor.GRAY),
-            ProgressBar.createBar(progress.getMovementProgress(), 1000, 15, 
-                NamedTextColor.BLUE, NamedTextColor.DARK_GRAY),
-            Component.text("§8Прыжки:").color(NamedTextColor.GRAY),
-            ProgressBar.createBar(progress.getJumpingProgress(), 50, 15, 
-                NamedTextColor.YELLOW, NamedTextColor.DARK_GRAY)
-        };
-        
-        ItemStack progressItem = ItemBuilder.createGuiButton(
-            Material.BOOK,
-            "§5§lПрогресс Действий",
-            progressLore
-        );
-        inventory.setItem(53, progressItem);
+        int mining = progress.getMiningProgress();
+        int combat = progress.getCombatProgress();
+        int movement = progress.getMovementProgress();
+        int jumping = progress.getJumpingProgress();
+        // Прогресс сбрасывается на порогах, поэтому каждое значение умещается в 16 бит
+        long progressState = ((long) (mining & 0xFFFF) << 48) | ((long) (combat & 0xFFFF) << 32)
+                           | ((long) (movement & 0xFFFF) << 16) | (jumping & 0xFFFF);
+        
+        if (renderer.isStale(PROGRESS_SLOT, progressState)) {
+            Component[] progressLore = {
+                Component.text("§7Прогресс к следующим очкам:").color(NamedTextColor.GRAY),
+                Component.empty(),
+                Component.text("§8Добыча:").color(NamedTextColor.GRAY),
+                ProgressBar.createBar(mining, 100, 15, 
+                    NamedTextColor.GREEN, NamedTextColor.DARK_GRAY),
+                Component.text("§8Бой:").color(NamedTextColor.GRAY),
+                ProgressBar.createBar(combat, 50, 15, 
+                    NamedTextColor.RED, NamedTextColor.DARK_GRAY),
+                Component.text("§8Движение:").color(NamedTextColor.GRAY),
+                ProgressBar.createBar(movement, 1000, 15, 
+                    NamedTextColor.BLUE, NamedTextColor.DARK_GRAY),
+                Component.text("§8Прыжки:").color(NamedTextColor.GRAY),
+                ProgressBar.createBar(jumping, 50, 15, 
+                    NamedTextColor.YELLOW, NamedTextColor.DARK_GRAY)
+            };
+            
+            ItemStack progressItem = ItemBuilder.createGuiButton(
+                Material.BOOK,
+                "§5§lПрогресс Действий",
+                progressLore
+            );
+            renderer.render(PROGRESS_SLOT, progressState, progressItem);
+        }
     }
 
     /**
      * Добавление кнопки выхода
      */
     private void addExitButton() {
-        Component[] exitLore = {
-            Component.text("§7Закрыть меню скиллов").color(NamedTextColor.GRAY),
-            Component.empty(),
-            Component.text("§cВнимание: Изменения сохранятся!").color(NamedTextColor.RED)
-        };
-        
-        ItemStack exitItem = ItemBuilder.createGuiButton(
-            Material.BARRIER,
-            "§4§lВыход",
-            exitLore
-        );
-        inventory.setItem(49, exitItem); // Центр нижнего ряда
+        if (!renderer.isStale(EXIT_SLOT, STATIC_STATE)) return;
+
+        ItemStack exitItem = ItemBuilder.template("tree:exit", () -> {
+            Component[] exitLore = {
+                Component.text("§7Закрыть меню скиллов").color(NamedTextColor.GRAY),
+                Component.empty(),
+                Component.text("§cВнимание: Изменения сохранятся!").color(NamedTextColor.RED)
+            };
+            
+            return ItemBuilder.createGuiButton(
+                Material.BARRIER,
+                "§4§lВыход",
+                exitLore
+            );
+        });
+        renderer.render(EXIT_SLOT, STATIC_STATE, exitItem); // Центр нижнего ряда
     }
 
     /**
@@ -313,7 +377,7 @@ public class SkillTreeGui {
         }
         
         // Кнопка выхода
-        if (slot == 49) {
+        if (slot == EXIT_SLOT) {
             clickedPlayer.closeInventory();
             return;
         }
@@ -348,8 +412,8 @@ public class SkillTreeGui {
             currentBranch = newBranch;
             // Обновляем заголовок
             inventory.title(Component.text("§6§lДерево Скиллов - " + currentBranch.getDisplayName()));
-            // Перезаполняем скиллы
-            initializeInventory();
+            // Перерисовываются только слоты скиллов новой ветки
+            render();
             player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_PLING, 1.0f, 1.0f);
         }
     }
@@ -358,9 +422,8 @@ public class SkillTreeGui {
      * Получить ветку по слоту
      */
     private SkillBranch getBranchBySlot(int slot) {
-        int[] branchSlots = {0, 9, 18, 27, 36};
-        for (int i = 0; i < branchSlots.length; i++) {
-            if (slot == branchSlots[i]) {
+        for (int i = 0; i < BRANCH_SLOTS.length; i++) {
+            if (slot == BRANCH_SLOTS[i]) {
                 SkillBranch[] branches = SkillBranch.values();
                 return i < branches.length ? branches[i] : null;
             }
@@ -383,7 +446,7 @@ public class SkillTreeGui {
         
         if (playerData == null) return;
         
-        int currentLevel = playerData.getSkillLevel(skill.getId());
+        int currentLevel = playerData.getSkillLevel(skill.getOrdinal());
         boolean hasRequirements = skillManager.hasRequirements(skill, playerData);
         boolean canLevelUp = skill.canLevelUp(currentLevel);
         int cost = skillManager.getNextLevelCost(skill, currentLevel);
@@ -413,9 +476,8 @@ public class SkillTreeGui {
      * Получить индекс скилла по слоту
      */
     private int getSkillIndexBySlot(int slot) {
-        int[] skillSlots = {2, 3, 4, 11, 12, 13};
-        for (int i = 0; i < skillSlots.length; i++) {
-            if (slot == skillSlots[i]) {
+        for (int i = 0; i < SKILL_SLOTS.length; i++) {
+            if (slot == SKILL_SLOTS[i]) {
                 return i;
             }
         }
@@ -429,17 +491,17 @@ public class SkillTreeGui {
         PlayerSkillData playerData = playerDataManager.getPlayerData(player.getUniqueId());
         if (playerData == null) return;
         
-        int currentLevel = playerData.getSkillLevel(skill.getId());
+        int currentLevel = playerData.getSkillLevel(skill.getOrdinal());
         
         if (playerData.spendPoints(cost)) {
-            playerData.setSkillLevel(skill.getId(), currentLevel + 1);
+            playerData.setSkillLevel(skill.getOrdinal(), currentLevel + 1);
             playerDataManager.savePlayerData(player.getUniqueId());
             
             // Применяем скилл к игроку
             skillApplier.updateSkill(player, skill.getId(), currentLevel + 1);
             
-            // Обновляем GUI
-            initializeInventory();
+            // Обновляем GUI (скилл, очки и слоты, чья доступность изменилась)
+            render();
             
             // Сообщения и звуки
             player.sendMessage("§aСкилл " + skill.getName() + " улучшен до уровня " + (currentLevel + 1) + "!");
@@ -470,7 +532,7 @@ public class SkillTreeGui {
      * Обновить отображение GUI
      */
     public void update() {
-        initializeInventory();
+        render();
     }
 
     /**
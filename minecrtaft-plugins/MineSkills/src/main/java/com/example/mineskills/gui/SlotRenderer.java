@@ -0,0 +1,59 @@
+package com.example.mineskills.gui;
+
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Arrays;
+
+/**
+ * Инкрементальная отрисовка слотов инвентаря GUI
+ *
+ * Для каждого слота запоминается состояние, по которому он был отрисован
+ * (очки, уровень скилла, выбранная ветка, упакованные в long), и последний
+ * выставленный ItemStack. Окно при обновлении спрашивает {@link #isStale(int, long)}
+ * и собирает предмет только для слотов, чье состояние изменилось, а
+ * setItem (и пакет клиенту) уходит, только если предмет действительно другой.
+ */
+public class SlotRenderer {
+    private final Inventory inventory;
+    private final ItemStack[] rendered;
+    private final long[] states;
+    private final boolean[] valid;
+
+    public SlotRenderer(Inventory inventory) {
+        this.inventory = inventory;
+        int size = inventory.getSize();
+        this.rendered = new ItemStack[size];
+        this.states = new long[size];
+        this.valid = new boolean[size];
+    }
+
+    /**
+     * Нужно ли перерисовать слот для нового состояния
+     */
+    public boolean isStale(int slot, long state) {
+        return !valid[slot] || states[slot] != state;
+    }
+
+    /**
+     * Отрисовать слот: запоминает состояние, setItem только при смене предмета
+     */
+    public void render(int slot, long state, ItemStack item) {
+        states[slot] = state;
+        valid[slot] = true;
+
+        ItemStack previous = rendered[slot];
+        if (previous == item || (previous != null && previous.equals(item))) {
+            return;
+        }
+        rendered[slot] = item;
+        inventory.setItem(slot, item);
+    }
+
+    /**
+     * Сбросить запомненные состояния: следующий проход проверит все слоты
+     */
+    public void invalidate() {
+        Arrays.fill(valid, false);
+    }
+}
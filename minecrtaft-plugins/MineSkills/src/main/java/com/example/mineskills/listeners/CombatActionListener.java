@@ -3,129 +3,160 @@ package com.example.mineskills.listeners;
 import com.example.mineskills.managers.PlayerDataManager;
 import com.example.mineskills.managers.SkillApplier;
 import com.example.mineskills.managers.ActionTracker;
+import com.example.mineskills.managers.NotificationManager;
+import com.example.mineskills.managers.PerformanceMonitor;
+import com.example.mineskills.models.PlayerStatSnapshot;
 import org.bukkit.Material;
 import org.bukkit.entity.*;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.*;
 
+import java.util.ArrayDeque;
+
 /**
  * Слушатель событий боя для MineSkills
  * Отслеживает урон в бою и выдает очки за Combat навык
  */
 public class CombatActionListener implements Listener {
+    // Контекстов в пуле больше не нужно: вложенный урон бывает редко и неглубоко
+    private static final int CONTEXT_POOL_SIZE = 4;
+
     private final PlayerDataManager playerDataManager;
     private final SkillApplier skillApplier;
     private final ActionTracker actionTracker;
-    private final boolean combatTrackingEnabled;
+    private final NotificationManager notificationManager;
+    private final PerformanceMonitor performanceMonitor;
+    private boolean combatTrackingEnabled;
+
+    // Этапы обработки урона в порядке выполнения
+    private final CombatStage[] stages;
+    private final ArrayDeque<CombatContext> contextPool;
 
     public CombatActionListener(PlayerDataManager playerDataManager, SkillApplier skillApplier,
-                              ActionTracker actionTracker, boolean combatTrackingEnabled) {
+                              ActionTracker actionTracker, NotificationManager notificationManager,
+                              PerformanceMonitor performanceMonitor,
+                              boolean combatTrackingEnabled) {
         this.playerDataManager = playerDataManager;
         this.skillApplier = skillApplier;
         this.actionTracker = actionTracker;
+        this.notificationManager = notificationManager;
+        this.performanceMonitor = performanceMonitor;
         this.combatTrackingEnabled = combatTrackingEnabled;
+        this.stages = new CombatStage[] {
+            this::trackDamage, this::applyEvasion, this::applyDefense, this::applyPowerBlow
+        };
+        this.contextPool = new ArrayDeque<>(CONTEXT_POOL_SIZE);
     }
 
     /**
-     * Обработка нанесенного урона игроком
+     * Этап обработки урона
      */
-    @EventHandler
-    public void onEntityDamageByEntity(EntityDamageByEntityEvent event) {
-        if (!combatTrackingEnabled) return;
-        if (event.isCancelled()) return;
+    @FunctionalInterface
+    private interface CombatStage {
+        void apply(CombatContext context);
+    }
 
-        // Проверяем, что атакующий - игрок
-        if (!(event.getDamager() instanceof Player)) {
-            return;
+    /**
+     * Разобранное событие урона, общее для всех этапов
+     */
+    private static final class CombatContext {
+        private Player attacker;       // игрок или стрелок снаряда, иначе null
+        private Player victim;         // игрок-жертва, иначе null
+        private boolean projectile;
+        private double baseDamage;     // урон события до брони и зачарований
+        private double originalDamage;
+        private double damage;         // урон после уже пройденных этапов
+        private PlayerStatSnapshot attackerStats;
+        private PlayerStatSnapshot victimStats;
+
+        /**
+         * Заполнить контекст; false - в событии нет игроков, обрабатывать нечего
+         */
+        private boolean classify(EntityDamageByEntityEvent event, PlayerDataManager playerDataManager) {
+            Entity damager = event.getDamager();
+            if (damager instanceof Player) {
+                attacker = (Player) damager;
+            } else if (damager instanceof Projectile && ((Projectile) damager).getShooter() instanceof Player) {
+                attacker = (Player) ((Projectile) damager).getShooter();
+                projectile = true;
+            }
+            if (event.getEntity() instanceof Player) {
+                victim = (Player) event.getEntity();
+            }
+            if (attacker == null && victim == null) return false;
+
+            baseDamage = event.getDamage();
+            originalDamage = event.getFinalDamage();
+            damage = originalDamage;
+            attackerStats = attacker != null ? playerDataManager.getStats(attacker.getUniqueId()) : PlayerStatSnapshot.EMPTY;
+            victimStats = victim != null ? playerDataManager.getStats(victim.getUniqueId()) : PlayerStatSnapshot.EMPTY;
+            return true;
         }
 
-        Player attacker = (Player) event.getDamager();
-        Entity target = event.getEntity();
-        double damage = event.getFinalDamage();
-
-        // Отслеживаем нанесенный урон
-        actionTracker.trackCombatDamage(attacker.getUniqueId(), damage);
-
-        // Применяем бонусы от скиллов
-        applyCombatBonuses(attacker, target, damage);
-
-        // Специальная обработка для Power Blow
-        handlePowerBlow(attacker, target, damage);
+        private void clear() {
+            attacker = null;
+            victim = null;
+            projectile = false;
+            attackerStats = null;
+            victimStats = null;
+        }
     }
 
     /**
-     * Обработка получения урона игроком (для Evasion)
+     * Единая обработка урона между сущностями
+     *
+     * Событие разбирается один раз: атакующий игрок (или стрелок снаряда),
+     * игрок-жертва, итоговый урон и характеристики скиллов кладутся в общий
+     * контекст, по которому по порядку проходят этапы боя. Новый урон
+     * записывается в событие один раз после всех этапов.
      */
-    @EventHandler
-    public void onPlayerDamage(EntityDamageByEntityEvent event) {
-        if (event.isCancelled()) return;
-        
-        // Проверяем, что цель - игрок
-        if (!(event.getEntity() instanceof Player)) {
-            return;
-        }
-
-        Player victim = (Player) event.getEntity();
-        double originalDamage = event.getFinalDamage();
+    @EventHandler(ignoreCancelled = true)
+    public void onEntityDamageByEntity(EntityDamageByEntityEvent event) {
+        long start = System.nanoTime();
+        CombatContext context = acquireContext();
+        try {
+            if (!context.classify(event, playerDataManager)) return;
 
-        // Применяем скилл Evasion для уменьшения урона
-        double reducedDamage = skillApplier.applyEvasion(victim, originalDamage);
-        
-        // Устанавливаем новый урон
-        event.setFinalDamage(reducedDamage);
+            for (CombatStage stage : stages) {
+                stage.apply(context);
+            }
 
-        // Если урон был значительно уменьшен, показываем эффект
-        if (originalDamage > reducedDamage) {
-            double reduction = ((originalDamage - reducedDamage) / originalDamage) * 100;
-            if (reduction >= 20) { // Показываем только если уменьшение больше 20%
-                victim.sendMessage("§eУрон уменьшен на " + Math.round(reduction) + "%");
+            if (context.damage != context.originalDamage && context.originalDamage > 0) {
+                // Итоговый урон задать нельзя - масштабируем базовый, броня применится к нему так же
+                event.setDamage(context.baseDamage * (context.damage / context.originalDamage));
             }
+        } finally {
+            releaseContext(context);
+            performanceMonitor.record(PerformanceMonitor.Section.COMBAT_DAMAGE, start);
         }
     }
 
     /**
-     * Обработка урона от мобов
+     * Этап 1: учет нанесенного игроком урона (ближний бой и снаряды)
      */
-    @EventHandler
-    public void onEntityDamagePlayer(EntityDamageByEntityEvent event) {
-        if (event.isCancelled()) return;
-        
-        if (!(event.getEntity() instanceof Player)) {
-            return;
-        }
+    private void trackDamage(CombatContext context) {
+        if (!combatTrackingEnabled || context.attacker == null) return;
 
-        Player victim = (Player) event.getEntity();
-        Entity attacker = event.getDamager();
-
-        // Применяем защитные скиллы
-        applyDefenseBonuses(victim, attacker);
+        actionTracker.trackCombatDamage(context.attacker.getUniqueId(), context.originalDamage);
+        applyCombatBonuses(context);
     }
 
     /**
-     * Обработка стрельбы из лука
+     * Этап 2: скилл Evasion жертвы уменьшает урон
      */
-    @EventHandler
-    public void onProjectileHit(ProjectileHitEvent event) {
-        if (!combatTrackingEnabled) return;
-        if (event.isCancelled()) return;
+    private void applyEvasion(CombatContext context) {
+        if (context.victim == null) return;
 
-        // Проверяем, что стрелок - игрок
-        if (!(event.getEntity().getShooter() instanceof Player)) {
-            return;
-        }
+        double before = context.damage;
+        context.damage = skillApplier.applyEvasion(context.victim, context.victimStats, before);
 
-        Player shooter = (Player) event.getEntity().getShooter();
-        Projectile projectile = event.getEntity();
-
-        // Отслеживаем попадание стрелой
-        if (event.getHitEntity() != null) {
-            Entity target = event.getHitEntity();
-            
-            // Получаем урон стрелы
-            double damage = getProjectileDamage(projectile);
-            if (damage > 0) {
-                actionTracker.trackCombatDamage(shooter.getUniqueId(), damage);
+        // Если урон был значительно уменьшен, показываем эффект
+        if (before > context.damage) {
+            double reduction = ((before - context.damage) / before) * 100;
+            if (reduction >= 20) { // Показываем только если уменьшение больше 20%
+                notificationManager.notify(context.victim.getUniqueId(), NotificationManager.Template.DAMAGE_REDUCED,
+                    (int) Math.round(reduction));
             }
         }
     }
@@ -135,17 +166,22 @@ public class CombatActionListener implements Listener {
      */
     @EventHandler
     public void onPlayerInteractEntity(PlayerInteractEntityEvent event) {
-        if (!combatTrackingEnabled) return;
-        if (event.isCancelled()) return;
-
-        Player player = event.getPlayer();
-        Entity target = event.getRightClicked();
-        Material itemInHand = player.getInventory().getItemInMainHand().getType();
-
-        // Проверяем, что игрок использует трезубец
-        if (itemInHand == Material.TRIDENT) {
-            // Отслеживаем взаимодействие с трезубцем
-            actionTracker.trackCombatDamage(player.getUniqueId(), 1); // Минимальный урон за взаимодействие
+        long start = System.nanoTime();
+        try {
+            if (!combatTrackingEnabled) return;
+            if (event.isCancelled()) return;
+
+            Player player = event.getPlayer();
+            Entity target = event.getRightClicked();
+            Material itemInHand = player.getInventory().getItemInMainHand().getType();
+
+            // Проверяем, что игрок использует трезубец
+            if (itemInHand == Material.TRIDENT) {
+                // Отслеживаем взаимодействие с трезубцем
+                actionTracker.trackCombatDamage(player.getUniqueId(), 1); // Минимальный урон за взаимодействие
+            }
+        } finally {
+            performanceMonitor.record(PerformanceMonitor.Section.COMBAT_TRIDENT, start);
         }
     }
 
@@ -154,32 +190,48 @@ public class CombatActionListener implements Listener {
      */
     @EventHandler
     public void onPlayerItemConsume(PlayerItemConsumeEvent event) {
-        if (event.isCancelled()) return;
+        long start = System.nanoTime();
+        try {
+            if (event.isCancelled()) return;
         
-        Player player = event.getPlayer();
-        Material consumedItem = event.getItem().getType();
+            Player player = event.getPlayer();
+            Material consumedItem = event.getItem().getType();
 
-        // Отслеживаем использование боевых зелий
-        if (isCombatPotion(consumedItem)) {
-            // Зелье дает временный бонус к бою
-            player.sendMessage("§aБоевой эффект активирован!");
+            // Отслеживаем использование боевых зелий
+            if (isCombatPotion(consumedItem)) {
+                // Зелье дает временный бонус к бою
+                player.sendMessage("§aБоевой эффект активирован!");
+            }
+        } finally {
+            performanceMonitor.record(PerformanceMonitor.Section.COMBAT_CONSUME, start);
         }
     }
 
     /**
      * Применение боевых бонусов
      */
-    private void applyCombatBonuses(Player attacker, Entity target, double damage) {
+    private void applyCombatBonuses(CombatContext context) {
         // Дополнительные боевые бонусы могут быть добавлены здесь
         // Например, бонусы от конкретного оружия, критические удары и т.д.
     }
 
     /**
-     * Обработка скилла Power Blow
+     * Этап 3: применение защитных бонусов жертвы
      */
-    private void handlePowerBlow(Player attacker, Entity target, double damage) {
-        int powerBlowLevel = playerDataManager.getSkillLevel(attacker.getUniqueId(), "POWER_BLOW");
-        
+    private void applyDefense(CombatContext context) {
+        if (context.victim == null) return;
+
+        // Здесь применяются защитные бонусы
+        // Например, увеличение брони, уменьшение урона и т.д.
+    }
+
+    /**
+     * Этап 4: обработка скилла Power Blow атакующего
+     */
+    private void applyPowerBlow(CombatContext context) {
+        if (context.attacker == null || context.projectile) return;
+
+        int powerBlowLevel = context.attackerStats.getPowerBlowLevel();
         if (powerBlowLevel <= 0) return;
 
         // Дополнительный урон от Power Blow применяется через AttributeModifier
@@ -187,32 +239,20 @@ public class CombatActionListener implements Listener {
     }
 
     /**
-     * Применение защитных бонусов
+     * Взять контекст из пула (обработчики могут вкладываться, поэтому пул, а не одно поле)
      */
-    private void applyDefenseBonuses(Player victim, Entity attacker) {
-        // Здесь применяются защитные бонусы
-        // Например, увеличение брони, уменьшение урона и т.д.
+    private CombatContext acquireContext() {
+        CombatContext context = contextPool.poll();
+        return context != null ? context : new CombatContext();
     }
 
     /**
-     * Получить урон снаряда
+     * Вернуть контекст в пул
      */
-    private double getProjectileDamage(Projectile projectile) {
-        switch (projectile.getType()) {
-            case ARROW:
-                return 4.0; // Базовый урон стрелы
-            case SNOWBALL:
-                return 0.0; // Снежки не наносят урон
-            case EGG:
-                return 0.0; // Яйца не наносят урон
-            case THROWN_EXP_BOTTLE:
-                return 1.0; // Бутылки опыта наносят минимум урона
-            case THROWN_POTION:
-                return 0.0; // Зелья обрабатываются отдельно
-            case TRIDENT:
-                return 8.0; // Базовый урон трезубца
-            default:
-                return 0.0;
+    private void releaseContext(CombatContext context) {
+        context.clear();
+        if (contextPool.size() < CONTEXT_POOL_SIZE) {
+            contextPool.push(context);
         }
     }
 
@@ -239,7 +279,7 @@ public class CombatActionListener implements Listener {
      */
     public boolean isValidWeaponForPowerBlow(Player player) {
         Material weapon = player.getInventory().getItemInMainHand().getType();
-        int powerBlowLevel = playerDataManager.getSkillLevel(player.getUniqueId(), "POWER_BLOW");
+        int powerBlowLevel = playerDataManager.getStats(player.getUniqueId()).getPowerBlowLevel();
         
         if (powerBlowLevel <= 0) return false;
 
@@ -251,7 +291,7 @@ public class CombatActionListener implements Listener {
             case 3:
                 return weapon == Material.NETHER_STAR;
             case 4:
-                return weapon == Material.DIAMOND_SPADE;
+                return weapon == Material.DIAMOND_SHOVEL;
             case 5:
                 return weapon == Material.DIAMOND_PICKAXE;
             default:
@@ -263,7 +303,7 @@ public class CombatActionListener implements Listener {
      * Получить множитель урона для Power Blow
      */
     public double getPowerBlowMultiplier(Player player) {
-        int powerBlowLevel = playerDataManager.getSkillLevel(player.getUniqueId(), "POWER_BLOW");
+        int powerBlowLevel = playerDataManager.getStats(player.getUniqueId()).getPowerBlowLevel();
         
         if (powerBlowLevel <= 0) return 1.0;
 
@@ -289,24 +329,16 @@ public class CombatActionListener implements Listener {
      * Получить множитель защиты от Iron Skin
      */
     public double getIronSkinProtection(Player player) {
-        int ironSkinLevel = playerDataManager.getSkillLevel(player.getUniqueId(), "IRON_SKIN");
-        
-        if (ironSkinLevel <= 0) return 0.0;
-
         // +0.5 брони за уровень
-        return 0.5 * ironSkinLevel;
+        return playerDataManager.getStats(player.getUniqueId()).getIronSkinArmor();
     }
 
     /**
      * Получить множитель уклонения от Evasion
      */
     public double getEvasionChance(Player player) {
-        int evasionLevel = playerDataManager.getSkillLevel(player.getUniqueId(), "EVASION");
-        
-        if (evasionLevel <= 0) return 0.0;
-
         // 5% уклонения за уровень
-        return 0.05 * evasionLevel;
+        return playerDataManager.getStats(player.getUniqueId()).getEvasionReduction();
     }
 
     /**
@@ -3,6 +3,7 @@ package com.example.mineskills.listeners;
 import com.example.mineskills.managers.PlayerDataManager;
 import com.example.mineskills.managers.SkillApplier;
 import com.example.mineskills.managers.ActionTracker;
+import com.example.mineskills.managers.PerformanceMonitor;
 import com.example.mineskills.models.PlayerSkillData;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -20,13 +21,16 @@ public class GuiClickListener implements Listener {
     private final SkillApplier skillApplier;
     private final ActionTracker actionTracker;
     private final com.example.mineskills.gui.GuiManager guiManager;
+    private final PerformanceMonitor performanceMonitor;
 
     public GuiClickListener(PlayerDataManager playerDataManager, SkillApplier skillApplier,
-                          ActionTracker actionTracker, com.example.mineskills.gui.GuiManager guiManager) {
+                          ActionTracker actionTracker, com.example.mineskills.gui.GuiManager guiManager,
+                          PerformanceMonitor performanceMonitor) {
         this.playerDataManager = playerDataManager;
         this.skillApplier = skillApplier;
         this.actionTracker = actionTracker;
         this.guiManager = guiManager;
+        this.performanceMonitor = performanceMonitor;
     }
 
     /**
@@ -34,25 +38,30 @@ public class GuiClickListener implements Listener {
      */
     @EventHandler
     public void onInventoryClick(InventoryClickEvent event) {
-        if (!(event.getWhoClicked() instanceof Player)) {
-            return;
-        }
+        long start = System.nanoTime();
+        try {
+            if (!(event.getWhoClicked() instanceof Player)) {
+                return;
+            }
 
-        Player player = (Player) event.getWhoClicked();
+            Player player = (Player) event.getWhoClicked();
         
-        // Проверяем, открыт ли GUI MineSkills
-        if (!guiManager.hasOpenGui(player)) {
-            return;
+            // Проверяем, открыт ли GUI MineSkills
+            if (!guiManager.hasOpenGui(player)) {
+                return;
+            }
+
+            // Проверяем, что клик внутри нашего инвентаря
+            if (event.getView().getTopInventory() == null || 
+                event.getView().getTopInventory().getHolder() != null) {
+                return;
+            }
+
+            // Обрабатываем клик через GuiManager
+            guiManager.handleInventoryClick(player, event);
+        } finally {
+            performanceMonitor.record(PerformanceMonitor.Section.GUI_CLICK, start);
         }
-
-        // Проверяем, что клик внутри нашего инвентаря
-        if (event.getView().getTopInventory() == null || 
-            event.getView().getTopInventory().getHolder() != null) {
-            return;
-        }
-
-        // Обрабатываем клик через GuiManager
-        guiManager.handleInventoryClick(player, event);
     }
 
     /**
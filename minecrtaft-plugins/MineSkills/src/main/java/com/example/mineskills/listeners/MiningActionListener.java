@@ -3,6 +3,8 @@ package com.example.mineskills.listeners;
 import com.example.mineskills.managers.PlayerDataManager;
 import com.example.mineskills.managers.SkillApplier;
 import com.example.mineskills.managers.ActionTracker;
+import com.example.mineskills.managers.NotificationManager;
+import com.example.mineskills.managers.PerformanceMonitor;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -19,13 +21,19 @@ public class MiningActionListener implements Listener {
     private final PlayerDataManager playerDataManager;
     private final SkillApplier skillApplier;
     private final ActionTracker actionTracker;
+    private final NotificationManager notificationManager;
+    private final PerformanceMonitor performanceMonitor;
     private final boolean miningTrackingEnabled;
 
     public MiningActionListener(PlayerDataManager playerDataManager, SkillApplier skillApplier,
-                              ActionTracker actionTracker, boolean miningTrackingEnabled) {
+                              ActionTracker actionTracker, NotificationManager notificationManager,
+                              PerformanceMonitor performanceMonitor,
+                              boolean miningTrackingEnabled) {
         this.playerDataManager = playerDataManager;
         this.skillApplier = skillApplier;
         this.actionTracker = actionTracker;
+        this.notificationManager = notificationManager;
+        this.performanceMonitor = performanceMonitor;
         this.miningTrackingEnabled = miningTrackingEnabled;
     }
 
@@ -34,29 +42,34 @@ public class MiningActionListener implements Listener {
      */
     @EventHandler
     public void onBlockBreak(BlockBreakEvent event) {
-        if (!miningTrackingEnabled) return;
-        if (event.isCancelled()) return;
-        if (!(event.getPlayer() instanceof Player)) return;
+        long start = System.nanoTime();
+        try {
+            if (!miningTrackingEnabled) return;
+            if (event.isCancelled()) return;
+            if (!(event.getPlayer() instanceof Player)) return;
 
-        Player player = event.getPlayer();
-        Material blockType = event.getBlock().getType();
+            Player player = event.getPlayer();
+            Material blockType = event.getBlock().getType();
         
-        // Отслеживаем только руду и ценные блоки
-        if (isValuableBlock(blockType)) {
-            // Отслеживаем прогресс добычи
-            actionTracker.trackBlockBreak(player.getUniqueId(), blockType);
+            // Отслеживаем только руду и ценные блоки
+            if (isValuableBlock(blockType)) {
+                // Отслеживаем прогресс добычи
+                actionTracker.trackBlockBreak(player.getUniqueId(), blockType);
             
-            // Применяем бонус опыта если есть Mining навык
-            double originalExp = event.getExpToDrop();
-            double bonusExp = skillApplier.applyExperienceBonus(player, originalExp);
+                // Применяем бонус опыта если есть Mining навык
+                double originalExp = event.getExpToDrop();
+                double bonusExp = skillApplier.applyExperienceBonus(player, originalExp);
             
-            // Устанавливаем новый опыт за добычу
-            event.setExpToDrop((int) Math.round(bonusExp));
+                // Устанавливаем новый опыт за добычу
+                event.setExpToDrop((int) Math.round(bonusExp));
             
-            // Специальная логика для Ore Finder
-            if (skillApplier.canSeeOre(player, blockType)) {
-                handleOreFinder(player, blockType);
+                // Специальная логика для Ore Finder
+                if (skillApplier.canSeeOre(player, blockType)) {
+                    handleOreFinder(player, blockType);
+                }
             }
+        } finally {
+            performanceMonitor.record(PerformanceMonitor.Section.BLOCK_BREAK, start);
         }
     }
 
@@ -137,36 +150,31 @@ public class MiningActionListener implements Listener {
      * Обработка скилла Ore Finder
      */
     private void handleOreFinder(Player player, Material blockType) {
-        int oreFinderLevel = playerDataManager.getSkillLevel(player.getUniqueId(), "ORE_FINDER");
+        int oreFinderLevel = playerDataManager.getStats(player.getUniqueId()).getOreFinderLevel();
         
         if (oreFinderLevel <= 0) return;
         
-        // Подсвечиваем найденную руду
+        // Подсвечиваем найденную руду (уведомления о серии руды склеиваются)
+        NotificationManager.Template template;
         switch (oreFinderLevel) {
             case 1:
                 // Базовый уровень - просто информация
-                player.sendMessage("§aНайдена руда: " + getBlockDisplayName(blockType));
+                template = NotificationManager.Template.ORE_FOUND;
                 break;
-                
             case 2:
                 // Улучшенный уровень - больше информации
-                player.sendMessage("§aНайдена руда: " + getBlockDisplayName(blockType) + 
-                    " §7(качество: хорошее)");
+                template = NotificationManager.Template.ORE_FOUND_GOOD;
                 break;
-                
             case 3:
                 // Превосходный уровень - детальная информация
-                player.sendMessage("§aНайдена руда: " + getBlockDisplayName(blockType) + 
-                    " §7(качество: отличное)");
+                template = NotificationManager.Template.ORE_FOUND_EXCELLENT;
                 break;
-                
-            case 4:
-            case 5:
+            default:
                 // Максимальный уровень - максимальная информация
-                player.sendMessage("§aНайдена редкая руда: " + getBlockDisplayName(blockType) + 
-                    " §7(качество: превосходное)");
+                template = NotificationManager.Template.ORE_FOUND_RARE;
                 break;
         }
+        notificationManager.notify(player.getUniqueId(), template, getBlockDisplayName(blockType), 1, 0);
     }
 
     /**
@@ -209,19 +217,13 @@ public class MiningActionListener implements Listener {
      * Проверка, может ли игрок добыть блок быстрее (Fast Mining)
      */
     public double getMiningSpeedMultiplier(Player player, Material tool) {
-        int fastMiningLevel = playerDataManager.getSkillLevel(player.getUniqueId(), "FAST_MINING");
-        
-        if (fastMiningLevel <= 0) return 1.0;
-        
-        // Бонус к скорости добычи
-        double bonus = 1.0 + (0.1 * fastMiningLevel); // +10% за уровень
-        
         // Проверяем, подходит ли инструмент
-        if (isProperTool(tool)) {
-            return bonus;
+        if (!isProperTool(tool)) {
+            return 1.0; // Без бонуса если неправильный инструмент
         }
         
-        return 1.0; // Без бонуса если неправильный инструмент
+        // Бонус к скорости добычи (+10% за уровень Fast Mining)
+        return playerDataManager.getStats(player.getUniqueId()).getMiningSpeedMultiplier();
     }
 
     /**
@@ -3,6 +3,8 @@ package com.example.mineskills.listeners;
 import com.example.mineskills.managers.PlayerDataManager;
 import com.example.mineskills.managers.SkillApplier;
 import com.example.mineskills.managers.ActionTracker;
+import com.example.mineskills.managers.NotificationManager;
+import com.example.mineskills.managers.PerformanceMonitor;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -17,18 +19,24 @@ public class MovementActionListener implements Listener {
     private final PlayerDataManager playerDataManager;
     private final SkillApplier skillApplier;
     private final ActionTracker actionTracker;
-    private final boolean movementTrackingEnabled;
-    private final boolean doubleJumpEnabled;
+    private final NotificationManager notificationManager;
+    private final PerformanceMonitor performanceMonitor;
+    private boolean movementTrackingEnabled;
+    private boolean doubleJumpEnabled;
 
     // Последние позиции игроков для расчета расстояния
     private final java.util.Map<java.util.UUID, Location> lastLocations;
 
     public MovementActionListener(PlayerDataManager playerDataManager, SkillApplier skillApplier,
-                                ActionTracker actionTracker, boolean movementTrackingEnabled, 
+                                ActionTracker actionTracker, NotificationManager notificationManager,
+                                PerformanceMonitor performanceMonitor,
+                                boolean movementTrackingEnabled, 
                                 boolean doubleJumpEnabled) {
         this.playerDataManager = playerDataManager;
         this.skillApplier = skillApplier;
         this.actionTracker = actionTracker;
+        this.notificationManager = notificationManager;
+        this.performanceMonitor = performanceMonitor;
         this.movementTrackingEnabled = movementTrackingEnabled;
         this.doubleJumpEnabled = doubleJumpEnabled;
         this.lastLocations = new java.util.concurrent.ConcurrentHashMap<>();
@@ -39,21 +47,23 @@ public class MovementActionListener implements Listener {
      */
     @EventHandler
     public void onPlayerMove(PlayerMoveEvent event) {
-        if (!movementTrackingEnabled) return;
-        if (event.isCancelled()) return;
-
-        Player player = event.getPlayer();
-        Location from = event.getFrom();
-        Location to = event.getTo();
-
-        // Отслеживаем движение только если игрок прошел значительное расстояние
-        if (from.getWorld() == to.getWorld() && from.distance(to) > 0.1) {
-            actionTracker.trackMovement(player.getUniqueId(), from, to);
-        }
-
-        // Отслеживание двойного прыжка
-        if (doubleJumpEnabled) {
-            handleDoubleJumpTracking(player);
+        long start = System.nanoTime();
+        try {
+            if (!movementTrackingEnabled) return;
+            if (event.isCancelled()) return;
+
+            Player player = event.getPlayer();
+            Location from = event.getFrom();
+            Location to = event.getTo();
+
+            // Только накапливаем расстояние - порог и сохранение проверяются раз в N тиков.
+            // Поиск данных игрока (handleDoubleJumpTracking) здесь не делаем: на каждый
+            // пакет движения он брал общий lock, а двойной прыжок обрабатывается в onPlayerJump
+            if (from.getWorld() == to.getWorld()) {
+                actionTracker.trackMovement(player.getUniqueId(), from, to);
+            }
+        } finally {
+            performanceMonitor.record(PerformanceMonitor.Section.PLAYER_MOVE, start);
         }
     }
 
@@ -177,7 +187,7 @@ public class MovementActionListener implements Listener {
      * Отслеживание двойного прыжка
      */
     private void handleDoubleJumpTracking(Player player) {
-        int doubleJumpLevel = playerDataManager.getSkillLevel(player.getUniqueId(), "DOUBLE_JUMP");
+        int doubleJumpLevel = playerDataManager.getStats(player.getUniqueId()).getDoubleJumpCharges();
         
         if (doubleJumpLevel <= 0) return;
 
@@ -203,17 +213,18 @@ public class MovementActionListener implements Listener {
      * Применение защиты Stamina от падения
      */
     private void applyStaminaProtection(Player player, double damage, org.bukkit.event.entity.EntityDamageEvent event) {
-        int staminaLevel = playerDataManager.getSkillLevel(player.getUniqueId(), "STAMINA");
+        // Уменьшаем урон от падения на 5% за уровень Stamina
+        double protection = playerDataManager.getStats(player.getUniqueId()).getFallProtection();
         
-        if (staminaLevel <= 0) return;
+        if (protection <= 0) return;
 
-        // Уменьшаем урон от падения на 5% за уровень Stamina
-        double protection = 0.05 * staminaLevel;
         double reducedDamage = damage * (1.0 - protection);
         
         if (reducedDamage < damage) {
-            event.setFinalDamage(reducedDamage);
-            player.sendMessage("§aУрон от падения снижен на " + Math.round(protection * 100) + "%");
+            // Масштабируем базовый урон: итоговый пересчитается с учётом брони и зачарований
+            event.setDamage(event.getDamage() * (1.0 - protection));
+            notificationManager.notify(player.getUniqueId(), NotificationManager.Template.FALL_PROTECTION,
+                (int) Math.round(protection * 100));
         }
     }
 
@@ -223,11 +234,8 @@ public class MovementActionListener implements Listener {
     public boolean canUseDoubleJump(Player player) {
         if (!doubleJumpEnabled) return false;
         
-        int swiftMovementLevel = playerDataManager.getSkillLevel(player.getUniqueId(), "SWIFT_MOVEMENT");
-        int doubleJumpLevel = playerDataManager.getSkillLevel(player.getUniqueId(), "DOUBLE_JUMP");
-        
         // Требуется Swift Movement уровень 1+ и Double Jump уровень 1+
-        return swiftMovementLevel >= 1 && doubleJumpLevel >= 1;
+        return playerDataManager.getStats(player.getUniqueId()).isDoubleJumpUnlocked();
     }
 
     /**
@@ -236,20 +244,15 @@ public class MovementActionListener implements Listener {
     public int getAvailableDoubleJumps(Player player) {
         if (!doubleJumpEnabled) return 0;
         
-        int doubleJumpLevel = playerDataManager.getSkillLevel(player.getUniqueId(), "DOUBLE_JUMP");
-        return doubleJumpLevel;
+        return playerDataManager.getStats(player.getUniqueId()).getDoubleJumpCharges();
     }
 
     /**
      * Получить скорость игрока с учетом Swift Movement
      */
     public double getPlayerSpeed(Player player) {
-        int swiftMovementLevel = playerDataManager.getSkillLevel(player.getUniqueId(), "SWIFT_MOVEMENT");
-        
-        if (swiftMovementLevel <= 0) return 1.0;
-
         // +10% скорости за уровень Swift Movement
-        return 1.0 + (0.1 * swiftMovementLevel);
+        return playerDataManager.getStats(player.getUniqueId()).getSpeedMultiplier();
     }
 
     /**
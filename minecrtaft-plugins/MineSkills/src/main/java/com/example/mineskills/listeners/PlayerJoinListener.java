@@ -1,26 +1,36 @@
 package com.example.mineskills.listeners;
 
-import com.example.mineskills.managers.PlayerDataManager;
-import com.example.mineskills.managers.SkillApplier;
-import com.example.mineskills.managers.SkillManager;
+import com.example.mineskills.managers.JoinPipeline;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 
 /**
  * Слушатель событий подключения игроков
  * Обрабатывает вход игроков на сервер
+ *
+ * Данные загружаются еще до входа, на асинхронном потоке предлогина,
+ * а скиллы применяются через {@link JoinPipeline} в пределах бюджета тика.
  */
 public class PlayerJoinListener implements Listener {
-    private final PlayerDataManager playerDataManager;
-    private final SkillApplier skillApplier;
-    private final SkillManager skillManager;
+    private final JoinPipeline joinPipeline;
 
-    public PlayerJoinListener(PlayerDataManager playerDataManager, SkillApplier skillApplier, SkillManager skillManager) {
-        this.playerDataManager = playerDataManager;
-        this.skillApplier = skillApplier;
-        this.skillManager = skillManager;
+    public PlayerJoinListener(JoinPipeline joinPipeline) {
+        this.joinPipeline = joinPipeline;
+    }
+
+    /**
+     * Предзагрузка данных игрока (асинхронный поток входа)
+     * MONITOR - чтобы не загружать данные для входа, запрещенного другими плагинами
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+
+        joinPipeline.prefetch(event.getUniqueId());
     }
 
     /**
@@ -28,16 +38,8 @@ public class PlayerJoinListener implements Listener {
      */
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
-        Player player = event.getPlayer();
-        
-        // Загружаем данные игрока
-        var playerData = playerDataManager.getPlayerData(player.getUniqueId(), player.getName());
-        
-        // Применяем все скиллы игрока
-        skillApplier.applyAllSkills(player);
-        
-        // Отправляем приветственное сообщение с информацией о скиллах
-        sendWelcomeMessage(player, playerData);
+        // Скиллы применятся в ближайшем тике, затем придет приветствие
+        joinPipeline.enqueue(event.getPlayer(), this::sendWelcomeMessage);
     }
 
     /**
@@ -1,7 +1,8 @@
 package com.example.mineskills.managers;
 
 import com.example.mineskills.models.PlayerSkillData;
-import com.example.mineskills.models.ActionProgress;
+import com.example.mineskills.models.PlayerSkillData.ActionProgress;
+import com.example.mineskills.models.ActionType;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -11,26 +12,36 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * Трекер действий игроков для получения очков скиллов
  * Отслеживает добычу, бой, движение и прыжки
+ *
+ * Прогресс и очки меняются через {@link PlayerDataManager#recordAction}:
+ * каждое изменение - одно событие журнала действий, без перезаписи данных игрока.
  */
 public class ActionTracker {
     private final SkillManager skillManager;
     private final PlayerDataManager playerDataManager;
+    private final NotificationManager notificationManager;
     
     // Отслеживание последних позиций для расчета расстояния
     private final Map<UUID, Map<String, Object>> lastPlayerStates;
     
+    // Накопитель движения между тиками
+    private final MovementAccumulator movementAccumulator;
+    
     // Пороги для получения очков (из конфига)
     private final int miningBlockThreshold;
     private final int combatDamageThreshold;
     private final int movementDistanceThreshold;
     private final int jumpingThreshold;
 
-    public ActionTracker(SkillManager skillManager, PlayerDataManager playerDataManager, 
+    public ActionTracker(SkillManager skillManager, PlayerDataManager playerDataManager,
+                        NotificationManager notificationManager,
                         int miningBlockThreshold, int combatDamageThreshold, 
                         int movementDistanceThreshold, int jumpingThreshold) {
         this.skillManager = skillManager;
         this.playerDataManager = playerDataManager;
+        this.notificationManager = notificationManager;
         this.lastPlayerStates = new ConcurrentHashMap<>();
+        this.movementAccumulator = new MovementAccumulator();
         
         this.miningBlockThreshold = miningBlockThreshold;
         this.combatDamageThreshold = combatDamageThreshold;
@@ -46,7 +57,7 @@ public class ActionTracker {
         if (data == null) return;
 
         ActionProgress progress = data.getActionProgress();
-        progress.addMiningProgress(1);
+        playerDataManager.recordAction(uuid, data, ActionType.MINING, 1);
         
         // Проверяем, достигнут ли порог
         checkMiningProgress(uuid, progress.getMiningProgress());
@@ -60,7 +71,7 @@ public class ActionTracker {
         if (data == null) return;
 
         ActionProgress progress = data.getActionProgress();
-        progress.addCombatProgress((int) Math.ceil(damage));
+        playerDataManager.recordAction(uuid, data, ActionType.COMBAT, (int) Math.ceil(damage));
         
         // Проверяем, достигнут ли порог
         checkCombatProgress(uuid, progress.getCombatProgress());
@@ -68,24 +79,35 @@ public class ActionTracker {
 
     /**
      * Отследить движение игрока
+     * Только накапливает расстояние, в прогресс оно попадает в {@link #flushMovement()}
      */
     public void trackMovement(UUID uuid, org.bukkit.Location from, org.bukkit.Location to) {
+        movementAccumulator.record(uuid, to.getX() - from.getX(), to.getY() - from.getY(), to.getZ() - from.getZ());
+    }
+
+    /**
+     * Перенести накопленное движение всех игроков в прогресс (периодическая задача)
+     */
+    public void flushMovement() {
+        movementAccumulator.fold(this::applyMovement);
+    }
+
+    /**
+     * Добавить накопленное движение в прогресс игрока
+     */
+    private void applyMovement(UUID uuid, int units) {
         PlayerSkillData data = playerDataManager.getPlayerData(uuid);
         if (data == null) return;
 
-        // Вычисляем пройденное расстояние
-        double distance = from.distance(to);
-        if (distance < 0.1) return; // Игнорируем небольшие движения
-        
         ActionProgress progress = data.getActionProgress();
-        progress.addMovementProgress((int) Math.floor(distance * 100)); // Умножаем на 100 для точности
+        int before = progress.getMovementProgress();
+        playerDataManager.recordAction(uuid, data, ActionType.MOVEMENT, units); // в сотых долях блока
         
-        // Сохраняем последнюю позицию
-        Map<String, Object> lastState = lastPlayerStates.computeIfAbsent(uuid, k -> new HashMap<>());
-        lastState.put("last_location", to);
-        
-        // Проверяем, достигнут ли порог
-        checkMovementProgress(uuid, progress.getMovementProgress());
+        // За один сброс может быть пройдено несколько порогов
+        int pointsToAdd = progress.getMovementProgress() / movementDistanceThreshold - before / movementDistanceThreshold;
+        if (pointsToAdd > 0) {
+            addSkillPoints(uuid, pointsToAdd, "движение");
+        }
     }
 
     /**
@@ -96,7 +118,7 @@ public class ActionTracker {
         if (data == null) return;
 
         ActionProgress progress = data.getActionProgress();
-        progress.addJumpingProgress(1);
+        playerDataManager.recordAction(uuid, data, ActionType.JUMPING, 1);
         
         // Проверяем, достигнут ли порог
         checkJumpingProgress(uuid, progress.getJumpingProgress());
@@ -161,18 +183,11 @@ public class ActionTracker {
         PlayerSkillData data = playerDataManager.getPlayerData(uuid);
         if (data == null) return;
         
-        data.addSkillPoints(points);
-        playerDataManager.savePlayerData(uuid);
+        playerDataManager.recordAction(uuid, data, ActionType.POINTS, points);
         
-        // Отправляем уведомление игроку (если он онлайн)
-        org.bukkit.entity.Player player = org.bukkit.Bukkit.getPlayer(uuid);
-        if (player != null) {
-            String message = String.format("§a+%d очков скиллов за %s!", points, actionType);
-            player.sendMessage(message);
-            
-            // Показываем текущее количество очков
-            player.sendMessage("§7У вас §e%d §7очков скиллов", data.getSkillPoints());
-        }
+        // Уведомление с текущим количеством очков (награды за окно склеиваются)
+        notificationManager.notify(uuid, NotificationManager.Template.SKILL_POINTS,
+            actionType, points, data.getSkillPoints());
     }
 
     /**
@@ -234,6 +249,7 @@ public class ActionTracker {
      * Удалить данные игрока при отключении
      */
     public void removePlayer(UUID uuid) {
+        movementAccumulator.flush(uuid, this::applyMovement);
         lastPlayerStates.remove(uuid);
     }
 
@@ -242,18 +258,24 @@ public class ActionTracker {
      */
     public Map<String, Integer> getGlobalStats() {
         Map<String, Integer> stats = new HashMap<>();
-        stats.put("mining_progress", 0);
-        stats.put("combat_progress", 0);
-        stats.put("movement_progress", 0);
-        stats.put("jumping_progress", 0);
-        stats.put("total_players", playerDataManager.getCachedPlayerCount());
         
-        // Подсчитываем общий прогресс всех игроков
-        // (это может быть ресурсоемкой операцией для большого количества игроков)
+        // Суммы ведет таблица лидеров по мере изменений - обход игроков не нужен
+        Leaderboard leaderboard = playerDataManager.getLeaderboard();
+        stats.put("mining_progress", clampToInt(leaderboard.getTotal(Leaderboard.Metric.MINING)));
+        stats.put("combat_progress", clampToInt(leaderboard.getTotal(Leaderboard.Metric.COMBAT)));
+        stats.put("movement_progress", clampToInt(leaderboard.getTotal(Leaderboard.Metric.MOVEMENT)));
+        stats.put("jumping_progress", clampToInt(leaderboard.getTotal(Leaderboard.Metric.JUMPING)));
+        stats.put("total_points", clampToInt(leaderboard.getTotal(Leaderboard.Metric.TOTAL_POINTS)));
+        stats.put("total_players", leaderboard.size());
+        stats.put("cached_players", playerDataManager.getCachedPlayerCount());
         
         return stats;
     }
 
+    private static int clampToInt(long value) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+    }
+
     /**
      * Проверить, может ли игрок получить очки за определенное действие
      */
@@ -0,0 +1,188 @@
+package com.example.mineskills.managers;
+
+import com.example.mineskills.models.PlayerSkillData;
+import com.example.mineskills.models.Skill;
+import com.example.mineskills.models.SkillIndex;
+import org.bukkit.NamespacedKey;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.attribute.AttributeModifier;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.EquipmentSlotGroup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Сверка модификаторов атрибутов со скиллами игрока
+ *
+ * У каждого скилла постоянный ключ модификатора (mineskills:skill_<id>),
+ * поэтому модификатор не ищется по имени, а заменяется только при изменении
+ * его значения. Для каждого игрока запоминаются примененные модификаторы
+ * по номеру скилла: повторное применение без изменений уровня не трогает
+ * атрибуты и не отправляет пакетов, покупка уровня меняет один модификатор.
+ *
+ * Все методы вызываются только из основного потока сервера.
+ */
+public class AttributeReconciler {
+    private static final String KEY_NAMESPACE = "mineskills";
+    // Префикс имени модификаторов старых версий (со случайным UUID)
+    private static final String LEGACY_NAME_PREFIX = "MineSkills_";
+
+    // Номер скилла -> атрибут, ключ и значение за уровень (null - скилл без атрибута)
+    private final Attribute[] attributes;
+    private final NamespacedKey[] keys;
+    private final double[] valuesPerLevel;
+    // Атрибуты, которыми управляют скиллы (без повторов)
+    private final List<Attribute> managedAttributes;
+
+    // Примененные модификаторы игроков по номеру скилла
+    private final Map<UUID, AttributeModifier[]> applied;
+
+    public AttributeReconciler(SkillManager skillManager) {
+        int size = SkillIndex.size();
+        this.attributes = new Attribute[size];
+        this.keys = new NamespacedKey[size];
+        this.valuesPerLevel = new double[size];
+        this.managedAttributes = new ArrayList<>();
+        this.applied = new HashMap<>();
+
+        for (Skill skill : skillManager.getAllSkills()) {
+            if (skill.getAttributeName() == null || skill.getAttributeValue() <= 0) continue;
+
+            Attribute attribute = getAttributeByName(skill.getAttributeName());
+            if (attribute == null) continue;
+
+            int ordinal = skill.getOrdinal();
+            attributes[ordinal] = attribute;
+            keys[ordinal] = NamespacedKey.fromString(KEY_NAMESPACE + ":skill_" + skill.getId().toLowerCase());
+            valuesPerLevel[ordinal] = skill.getAttributeValue();
+            if (!managedAttributes.contains(attribute)) {
+                managedAttributes.add(attribute);
+            }
+        }
+    }
+
+    /**
+     * Привести модификаторы всех скиллов игрока к его уровням (вход, перезагрузка)
+     */
+    public void reconcileAll(Player player, PlayerSkillData data) {
+        AttributeModifier[] current = appliedFor(player);
+        for (int ordinal = 0; ordinal < attributes.length; ordinal++) {
+            if (attributes[ordinal] != null) {
+                reconcile(player, current, ordinal, data.getSkillLevel(ordinal));
+            }
+        }
+    }
+
+    /**
+     * Привести модификатор одного скилла к уровню (покупка, изменение админом)
+     */
+    public void reconcileSkill(Player player, Skill skill, int level) {
+        int ordinal = skill.getOrdinal();
+        if (ordinal >= attributes.length || attributes[ordinal] == null) return;
+
+        reconcile(player, appliedFor(player), ordinal, level);
+    }
+
+    /**
+     * Снять все модификаторы скиллов и забыть игрока (выход с сервера)
+     */
+    public void clear(Player player) {
+        AttributeModifier[] current = appliedFor(player);
+        for (int ordinal = 0; ordinal < current.length; ordinal++) {
+            if (current[ordinal] != null) {
+                reconcile(player, current, ordinal, 0);
+            }
+        }
+        applied.remove(player.getUniqueId());
+    }
+
+    /**
+     * Сверить один модификатор: заменяется только если изменилось значение
+     */
+    private void reconcile(Player player, AttributeModifier[] current, int ordinal, int level) {
+        double desired = level > 0 ? valuesPerLevel[ordinal] * level : 0.0;
+        AttributeModifier existing = current[ordinal];
+        double actual = existing != null ? existing.getAmount() : 0.0;
+        if (Double.compare(desired, actual) == 0) return;
+
+        AttributeInstance instance = player.getAttribute(attributes[ordinal]);
+        if (instance == null) return;
+
+        if (existing != null) {
+            instance.removeModifier(existing);
+            current[ordinal] = null;
+        }
+        if (desired != 0.0) {
+            AttributeModifier modifier = new AttributeModifier(
+                keys[ordinal], desired, AttributeModifier.Operation.ADD_NUMBER, EquipmentSlotGroup.ANY);
+            instance.addModifier(modifier);
+            current[ordinal] = modifier;
+        }
+
+        // Для здоровья обновляем текущее здоровье
+        if (attributes[ordinal] == Attribute.GENERIC_MAX_HEALTH) {
+            player.setHealth(Math.min(player.getHealth(), instance.getValue()));
+        }
+    }
+
+    /**
+     * Примененные модификаторы игрока; при первом обращении за сессию
+     * подхватывает сохраненные в игроке модификаторы и снимает устаревшие
+     */
+    private AttributeModifier[] appliedFor(Player player) {
+        AttributeModifier[] current = applied.get(player.getUniqueId());
+        if (current != null) return current;
+
+        current = new AttributeModifier[attributes.length];
+        for (Attribute attribute : managedAttributes) {
+            AttributeInstance instance = player.getAttribute(attribute);
+            if (instance == null) continue;
+
+            for (AttributeModifier modifier : new ArrayList<>(instance.getModifiers())) {
+                NamespacedKey key = modifier.getKey();
+                int ordinal = ordinalOf(key);
+                if (ordinal >= 0 && attributes[ordinal] == attribute && current[ordinal] == null) {
+                    current[ordinal] = modifier;
+                } else if (KEY_NAMESPACE.equals(key.getNamespace())
+                        || modifier.getName().startsWith(LEGACY_NAME_PREFIX)) {
+                    // Дубликаты, модификаторы удаленных скиллов и старого формата
+                    instance.removeModifier(modifier);
+                }
+            }
+        }
+
+        applied.put(player.getUniqueId(), current);
+        return current;
+    }
+
+    /**
+     * Номер скилла по ключу модификатора (-1 для чужих и неизвестных ключей)
+     */
+    private int ordinalOf(NamespacedKey key) {
+        if (!KEY_NAMESPACE.equals(key.getNamespace())) return -1;
+        for (int ordinal = 0; ordinal < keys.length; ordinal++) {
+            if (key.equals(keys[ordinal])) return ordinal;
+        }
+        return -1;
+    }
+
+    /**
+     * Получить атрибут по названию
+     */
+    private static Attribute getAttributeByName(String name) {
+        switch (name) {
+            case "generic.attack_damage": return Attribute.GENERIC_ATTACK_DAMAGE;
+            case "generic.armor": return Attribute.GENERIC_ARMOR;
+            case "generic.max_health": return Attribute.GENERIC_MAX_HEALTH;
+            case "generic.movement_speed": return Attribute.GENERIC_MOVEMENT_SPEED;
+            case "generic.luck": return Attribute.GENERIC_LUCK;
+            case "generic.mining_efficiency": return Attribute.GENERIC_MINING_EFFICIENCY;
+            default: return null;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.mineskills.managers;
+
+import com.example.mineskills.MineSkillsPlugin;
+import com.example.mineskills.models.PlayerSkillData;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Конвейер входа игроков
+ *
+ * Данные игрока загружаются заранее, в AsyncPlayerPreLoginEvent на потоке
+ * входа ({@link #prefetch(UUID)}), и к PlayerJoinEvent уже лежат в
+ * кэше PlayerDataManager. Сам вход только ставит игрока в очередь, а
+ * применение атрибутов и эффектов идет раз в тик в пределах бюджета
+ * join.tick-budget-ms: при массовом переподключении после рестарта игроки
+ * разбираются за несколько тиков, а не одним длинным тиком.
+ *
+ * Предзагрузка только читает хранилище: если записи нет, новый игрок
+ * создается в {@link #enqueue} в основном потоке с настоящим именем, уже
+ * после входа. Данные игроков, чей вход запретили после предзагрузки,
+ * выгружаются из кэша через PREFETCH_TIMEOUT_MILLIS.
+ *
+ * Если предзагрузки не было (ее отменил другой плагин или вход был до
+ * запуска MineSkills), хранилище читается асинхронно, и игрок остается
+ * в очереди до появления данных.
+ *
+ * Все методы, кроме prefetch, вызываются только из основного потока сервера.
+ */
+public class JoinPipeline {
+    // Через сколько предзагруженные данные невошедшего игрока выгружаются из кэша
+    private static final long PREFETCH_TIMEOUT_MILLIS = 60_000L;
+    // Проверка предзагрузок раз в секунду, а не каждый тик
+    private static final int PREFETCH_CHECK_TICKS = 20;
+
+    /**
+     * Игрок, ожидающий применения скиллов
+     */
+    private static final class PendingJoin {
+        private final Player player;
+        private final BiConsumer<Player, PlayerSkillData> onReady;
+        private volatile PlayerSkillData data;
+        private boolean loading;
+
+        private PendingJoin(Player player, BiConsumer<Player, PlayerSkillData> onReady, PlayerSkillData data) {
+            this.player = player;
+            this.onReady = onReady;
+            this.data = data;
+        }
+    }
+
+    private final MineSkillsPlugin plugin;
+    private final PlayerDataManager playerDataManager;
+    private final SkillApplier skillApplier;
+    private final PerformanceMonitor performanceMonitor;
+    private final long tickBudgetNanos;
+
+    private final ArrayDeque<PendingJoin> queue;
+    // Предзагруженные, но еще не вошедшие игроки -> время предзагрузки
+    private final Map<UUID, Long> prefetched;
+    // Из них те, кого нет в хранилище (новые игроки)
+    private final Set<UUID> newPlayers;
+    private BukkitTask drainTask;
+    private int ticks;
+
+    // Статистика
+    private final AtomicLong prefetchedCount = new AtomicLong();
+    private long appliedCount;
+    private long lateLoadCount;
+
+    public JoinPipeline(MineSkillsPlugin plugin, PlayerDataManager playerDataManager, SkillApplier skillApplier,
+                        PerformanceMonitor performanceMonitor) {
+        this.plugin = plugin;
+        this.playerDataManager = playerDataManager;
+        this.skillApplier = skillApplier;
+        this.performanceMonitor = performanceMonitor;
+        this.tickBudgetNanos = (long) (Math.max(0.1, plugin.getConfig().getDouble("join.tick-budget-ms", 2.0)) * 1_000_000L);
+        this.queue = new ArrayDeque<>();
+        this.prefetched = new ConcurrentHashMap<>();
+        this.newPlayers = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Запустить разбор очереди раз в тик
+     */
+    public void start() {
+        if (drainTask != null) return;
+
+        drainTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::drain, 1L, 1L);
+    }
+
+    /**
+     * Остановить разбор очереди
+     */
+    public void stop() {
+        if (drainTask != null) {
+            drainTask.cancel();
+            drainTask = null;
+        }
+        queue.clear();
+        prefetched.clear();
+        newPlayers.clear();
+    }
+
+    /**
+     * Загрузить данные игрока до входа (поток AsyncPlayerPreLoginEvent)
+     * Только чтение: вход еще могут запретить, новые данные здесь не создаются
+     */
+    public void prefetch(UUID uuid) {
+        if (playerDataManager.loadPlayerData(uuid) == null) {
+            newPlayers.add(uuid);
+        }
+        prefetched.put(uuid, System.currentTimeMillis());
+        prefetchedCount.incrementAndGet();
+    }
+
+    /**
+     * Поставить вошедшего игрока в очередь; onReady вызывается после применения скиллов
+     */
+    public void enqueue(Player player, BiConsumer<Player, PlayerSkillData> onReady) {
+        UUID uuid = player.getUniqueId();
+        prefetched.remove(uuid);
+
+        PlayerSkillData data = playerDataManager.getCachedPlayerData(uuid);
+        if (newPlayers.remove(uuid) && data == null) {
+            // Предзагрузка не нашла записи - создаем сразу, без чтения хранилища
+            data = playerDataManager.createPlayerData(uuid, player.getName());
+        }
+        queue.add(new PendingJoin(player, onReady, data));
+    }
+
+    /**
+     * Разобрать очередь в пределах бюджета тика (хотя бы одного игрока за тик)
+     */
+    private void drain() {
+        if (++ticks % PREFETCH_CHECK_TICKS == 0 && !prefetched.isEmpty()) {
+            evictStalePrefetches();
+        }
+        if (queue.isEmpty()) return;
+
+        long deadline = System.nanoTime() + tickBudgetNanos;
+        int remaining = queue.size();
+        boolean appliedAny = false;
+
+        while (remaining-- > 0) {
+            if (appliedAny && System.nanoTime() >= deadline) break;
+
+            PendingJoin join = queue.poll();
+            if (!join.player.isOnline()) continue;
+
+            PlayerSkillData data = join.data;
+            if (data == null) {
+                // Предзагрузки не было - читаем хранилище вне основного потока
+                if (!join.loading) {
+                    join.loading = true;
+                    lateLoadCount++;
+                    UUID uuid = join.player.getUniqueId();
+                    String name = join.player.getName();
+                    plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+                        PlayerSkillData loaded = playerDataManager.loadPlayerData(uuid);
+                        if (loaded != null) {
+                            join.data = loaded;
+                            return;
+                        }
+                        // Записи нет - новый игрок создается в основном потоке
+                        plugin.getServer().getScheduler().runTask(plugin,
+                            () -> join.data = playerDataManager.createPlayerData(uuid, name));
+                    });
+                }
+                queue.add(join);
+                continue;
+            }
+
+            long applyStart = System.nanoTime();
+            skillApplier.applyAllSkills(join.player);
+            join.onReady.accept(join.player, data);
+            performanceMonitor.record(PerformanceMonitor.Section.JOIN_APPLY, applyStart);
+            appliedCount++;
+            appliedAny = true;
+        }
+    }
+
+    /**
+     * Выгрузить данные игроков, которые после предзагрузки так и не вошли
+     * (вход запретили в PlayerLoginEvent или соединение оборвалось)
+     */
+    private void evictStalePrefetches() {
+        long deadline = System.currentTimeMillis() - PREFETCH_TIMEOUT_MILLIS;
+        Iterator<Map.Entry<UUID, Long>> iterator = prefetched.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, Long> entry = iterator.next();
+            if (entry.getValue() > deadline) continue;
+
+            iterator.remove();
+            newPlayers.remove(entry.getKey());
+            // Игрок онлайн с прошлой сессии - данные используются, не трогаем
+            if (plugin.getServer().getPlayer(entry.getKey()) == null) {
+                playerDataManager.evictPlayerData(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Игроков, ожидающих применения скиллов
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getPrefetchedCount() {
+        return prefetchedCount.get();
+    }
+
+    public long getAppliedCount() {
+        return appliedCount;
+    }
+
+    /**
+     * Входов, для которых данные пришлось догружать после PlayerJoinEvent
+     */
+    public long getLateLoadCount() {
+        return lateLoadCount;
+    }
+}
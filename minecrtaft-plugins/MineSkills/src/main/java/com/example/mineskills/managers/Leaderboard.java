@@ -0,0 +1,380 @@
+package com.example.mineskills.managers;
+
+import com.example.mineskills.models.ActionType;
+import com.example.mineskills.models.PlayerSkillData;
+import com.example.mineskills.storage.LeaderboardFile;
+import com.example.mineskills.utils.RankedSkipList;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Таблица лидеров MineSkills по всем игрокам, включая офлайн
+ *
+ * Для каждой метрики ведется отдельный {@link RankedSkipList}: место игрока
+ * и страница топа находятся за O(log n) без обхода хранилища. Индекс
+ * обновляется по мере поступления изменений (PlayerDataManager передает
+ * новые значения после каждого действия и сохранения), суммы по метрикам
+ * ведутся теми же приращениями.
+ *
+ * Индекс сохраняется в data/leaderboard.dat вместе с автосохранением и
+ * читается при запуске; полный обход хранилища нужен только при первом
+ * запуске или после восстановления из резервной копии. Для записи ведется
+ * собственная копия строк: под монитором снимаются только строки, изменившиеся
+ * с прошлого сохранения, поэтому сохранение не держит update() на O(игроков).
+ *
+ * Хранилище пишется чаще индекса (write-behind, сжатие журнала). Перед каждой
+ * такой записью UUID игроков пачки дописываются в leaderboard.dat.written,
+ * а сохранение индекса убирает из списка записи, сделанные до снимка строк.
+ * Если сервер упал между ними, при запуске перечитываются только игроки
+ * из списка ({@link #readWrittenSinceSave()}).
+ */
+public class Leaderboard {
+
+    /**
+     * Метрики таблицы лидеров
+     */
+    public enum Metric {
+        TOTAL_POINTS("points", "Всего очков"),
+        MINING("mining", "Добыча"),
+        COMBAT("combat", "Бой"),
+        MOVEMENT("movement", "Движение"),
+        JUMPING("jumping", "Прыжки");
+
+        private static final Metric[] VALUES = values();
+
+        private final String key;
+        private final String displayName;
+
+        Metric(String key, String displayName) {
+            this.key = key;
+            this.displayName = displayName;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        /**
+         * Значение метрики в данных игрока
+         */
+        public long scoreOf(PlayerSkillData data) {
+            PlayerSkillData.ActionProgress progress = data.getActionProgress();
+            switch (this) {
+                case MINING:
+                    return progress.getMiningProgress();
+                case COMBAT:
+                    return progress.getCombatProgress();
+                case MOVEMENT:
+                    return progress.getMovementProgress();
+                case JUMPING:
+                    return progress.getJumpingProgress();
+                default:
+                    return data.getTotalPointsEarned();
+            }
+        }
+
+        /**
+         * Значение для вывода (движение хранится в сотых долях блока)
+         */
+        public String format(long score) {
+            return this == MOVEMENT ? String.valueOf(score / 100) : String.valueOf(score);
+        }
+
+        /**
+         * Метрика, которую меняет действие
+         */
+        public static Metric of(ActionType type) {
+            switch (type) {
+                case MINING:
+                    return MINING;
+                case COMBAT:
+                    return COMBAT;
+                case MOVEMENT:
+                    return MOVEMENT;
+                case JUMPING:
+                    return JUMPING;
+                default:
+                    return TOTAL_POINTS;
+            }
+        }
+
+        /**
+         * Метрика по ключу команды (null, если не найдена)
+         */
+        public static Metric fromKey(String key) {
+            for (Metric metric : VALUES) {
+                if (metric.key.equalsIgnoreCase(key)) return metric;
+            }
+            return null;
+        }
+    }
+
+    private static final int METRICS = Metric.VALUES.length;
+
+    private final File file;
+    private final File writtenFile;
+    private final RankedSkipList[] rankings;
+    private final Map<UUID, LeaderboardFile.Row> rows;
+    private final long[] totals;
+
+    // Игроки, чьи строки изменились с прошлого снимка; clear() - копию сохранения сбросить целиком
+    private final Set<UUID> changedRows;
+    private boolean resetSaved;
+
+    // Копия строк для записи в файл (только под saveLock)
+    private final Object saveLock = new Object();
+    private final Map<UUID, LeaderboardFile.Row> savedRows;
+    private boolean savedRowsChanged;
+
+    // Длина списка записей хранилища в байтах (только под writtenLock)
+    private final Object writtenLock = new Object();
+    private long writtenBytes;
+
+    public Leaderboard(File file) {
+        this.file = file;
+        this.writtenFile = new File(file.getPath() + ".written");
+        this.writtenBytes = writtenFile.length();
+        this.rankings = new RankedSkipList[METRICS];
+        for (int i = 0; i < METRICS; i++) {
+            rankings[i] = new RankedSkipList();
+        }
+        this.rows = new HashMap<>();
+        this.totals = new long[METRICS];
+        this.changedRows = new HashSet<>();
+        this.savedRows = new HashMap<>();
+    }
+
+    /**
+     * Загрузить индекс из файла; false - файла нет или он устарел
+     */
+    public boolean load() throws IOException {
+        synchronized (saveLock) {
+            synchronized (this) {
+                Map<UUID, LeaderboardFile.Row> loaded = LeaderboardFile.read(file, METRICS);
+                if (loaded == null) return false;
+
+                clear();
+                savedRows.clear();
+                for (Map.Entry<UUID, LeaderboardFile.Row> entry : loaded.entrySet()) {
+                    LeaderboardFile.Row row = entry.getValue();
+                    rows.put(entry.getKey(), row);
+                    for (int i = 0; i < METRICS; i++) {
+                        rankings[i].update(entry.getKey(), row.getScore(i));
+                        totals[i] += row.getScore(i);
+                    }
+                    savedRows.put(entry.getKey(), row.copy());
+                }
+                // Копия сохранения совпадает с файлом
+                changedRows.clear();
+                resetSaved = false;
+                savedRowsChanged = false;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Записать индекс в файл, если он менялся; возвращает число записанных байт
+     * (под монитором копируются только измененные строки, запись идет без него)
+     */
+    public int save() throws IOException {
+        synchronized (saveLock) {
+            // Записи хранилища до этой отметки уже отражены в строках индекса
+            long writtenAtCopy;
+            synchronized (writtenLock) {
+                writtenAtCopy = writtenBytes;
+            }
+
+            Map<UUID, LeaderboardFile.Row> delta;
+            boolean reset;
+            synchronized (this) {
+                reset = resetSaved;
+                resetSaved = false;
+                delta = new HashMap<>(Math.max(16, changedRows.size() * 2));
+                for (UUID uuid : changedRows) {
+                    LeaderboardFile.Row row = rows.get(uuid);
+                    delta.put(uuid, row != null ? row.copy() : null);
+                }
+                changedRows.clear();
+            }
+
+            if (reset) {
+                savedRows.clear();
+                savedRowsChanged = true;
+            }
+            for (Map.Entry<UUID, LeaderboardFile.Row> entry : delta.entrySet()) {
+                if (entry.getValue() != null) {
+                    savedRows.put(entry.getKey(), entry.getValue());
+                } else {
+                    savedRows.remove(entry.getKey());
+                }
+                savedRowsChanged = true;
+            }
+
+            int written = 0;
+            if (savedRowsChanged) {
+                // При ошибке флаг остается - следующее сохранение повторит запись
+                written = LeaderboardFile.write(file, savedRows, METRICS);
+                savedRowsChanged = false;
+            }
+
+            if (writtenAtCopy > 0) {
+                synchronized (writtenLock) {
+                    LeaderboardFile.dropIds(writtenFile, writtenAtCopy);
+                    writtenBytes -= writtenAtCopy;
+                }
+            }
+            return written;
+        }
+    }
+
+    /**
+     * Отметить запись игроков в хранилище (вызывается перед каждой записью снимков)
+     */
+    public void beforeStoreWrite(Collection<UUID> players) throws IOException {
+        if (players.isEmpty()) return;
+
+        synchronized (writtenLock) {
+            writtenBytes += LeaderboardFile.appendIds(writtenFile, players);
+        }
+    }
+
+    /**
+     * Игроки, записанные в хранилище после последнего сохранения индекса
+     * (их строки могли не попасть в файл индекса из-за падения сервера)
+     */
+    public Set<UUID> readWrittenSinceSave() throws IOException {
+        synchronized (writtenLock) {
+            Set<UUID> players = LeaderboardFile.readIds(writtenFile);
+            writtenBytes = writtenFile.length();
+            return players;
+        }
+    }
+
+    /**
+     * Обновить все метрики игрока по его данным
+     */
+    public synchronized void update(UUID uuid, PlayerSkillData data) {
+        LeaderboardFile.Row row = row(uuid, data.getPlayerName());
+        for (Metric metric : Metric.VALUES) {
+            set(uuid, row, metric, metric.scoreOf(data));
+        }
+    }
+
+    /**
+     * Обновить одну метрику игрока (после действия)
+     */
+    public synchronized void update(UUID uuid, PlayerSkillData data, Metric metric) {
+        set(uuid, row(uuid, data.getPlayerName()), metric, metric.scoreOf(data));
+    }
+
+    private LeaderboardFile.Row row(UUID uuid, String name) {
+        LeaderboardFile.Row row = rows.get(uuid);
+        if (row == null) {
+            row = new LeaderboardFile.Row(name, METRICS);
+            rows.put(uuid, row);
+            for (int i = 0; i < METRICS; i++) {
+                rankings[i].update(uuid, 0);
+            }
+            changedRows.add(uuid);
+        } else if (name != null && !name.equals(row.getName())) {
+            row.setName(name);
+            changedRows.add(uuid);
+        }
+        return row;
+    }
+
+    private void set(UUID uuid, LeaderboardFile.Row row, Metric metric, long score) {
+        int index = metric.ordinal();
+        long previous = row.getScore(index);
+        if (previous == score) return;
+
+        row.setScore(index, score);
+        rankings[index].update(uuid, score);
+        totals[index] += score - previous;
+        changedRows.add(uuid);
+    }
+
+    /**
+     * Страница топа (страницы с 1)
+     */
+    public synchronized List<Position> getPage(Metric metric, int page, int pageSize) {
+        List<RankedSkipList.Entry> entries = rankings[metric.ordinal()].range((page - 1) * pageSize + 1, pageSize);
+        List<Position> result = new ArrayList<>(entries.size());
+        for (RankedSkipList.Entry entry : entries) {
+            LeaderboardFile.Row row = rows.get(entry.getId());
+            result.add(new Position(entry.getRank(), entry.getId(), row != null ? row.getName() : "?", entry.getScore()));
+        }
+        return result;
+    }
+
+    /**
+     * Место игрока по метрике (0, если игрока нет в индексе)
+     */
+    public synchronized int getRank(Metric metric, UUID uuid) {
+        return rankings[metric.ordinal()].rankOf(uuid);
+    }
+
+    /**
+     * Сумма метрики по всем игрокам
+     */
+    public synchronized long getTotal(Metric metric) {
+        return totals[metric.ordinal()];
+    }
+
+    /**
+     * Количество игроков в индексе
+     */
+    public synchronized int size() {
+        return rows.size();
+    }
+
+    /**
+     * Очистить индекс (перед полным перестроением)
+     */
+    public synchronized void clear() {
+        for (RankedSkipList ranking : rankings) {
+            ranking.clear();
+        }
+        rows.clear();
+        Arrays.fill(totals, 0);
+        changedRows.clear();
+        resetSaved = true;
+    }
+
+    /**
+     * Место игрока в топе
+     */
+    public static final class Position {
+        private final int rank;
+        private final UUID uuid;
+        private final String name;
+        private final long score;
+
+        public Position(int rank, UUID uuid, String name, long score) {
+            this.rank = rank;
+            this.uuid = uuid;
+            this.name = name;
+            this.score = score;
+        }
+
+        public int getRank() { return rank; }
+        public UUID getUuid() { return uuid; }
+        public String getName() { return name; }
+        public long getScore() { return score; }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.mineskills.managers;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Накопитель перемещений игроков между тиками
+ *
+ * Обработчик PlayerMoveEvent только прибавляет пройденное расстояние
+ * к примитивному счетчику игрока. Периодическая задача раз в N тиков
+ * переносит накопленное в ActionProgress одним проходом: один поиск
+ * данных игрока и одна пометка на сохранение вместо сотен на каждый пакет.
+ *
+ * Все методы вызываются только из основного потока сервера.
+ */
+public class MovementAccumulator {
+    // Движения короче 0.1 блока не учитываются (сравниваем квадраты, без sqrt)
+    private static final double MIN_STEP_SQUARED = 0.1 * 0.1;
+    // Прогресс движения хранится в сотых долях блока
+    private static final double UNITS_PER_BLOCK = 100.0;
+
+    private final Map<UUID, Slot> slots = new HashMap<>();
+
+    /**
+     * Получатель накопленного движения при сбросе
+     */
+    @FunctionalInterface
+    public interface Sink {
+        void accept(UUID uuid, int units);
+    }
+
+    /**
+     * Накопленное игроком расстояние
+     */
+    private static final class Slot {
+        private double distance;
+    }
+
+    /**
+     * Учесть перемещение игрока (вызывается на каждый PlayerMoveEvent)
+     */
+    public void record(UUID uuid, double dx, double dy, double dz) {
+        double squared = dx * dx + dy * dy + dz * dz;
+        if (squared >= MIN_STEP_SQUARED) {
+            Slot slot = slots.get(uuid);
+            if (slot == null) {
+                slot = new Slot();
+                slots.put(uuid, slot);
+            }
+            slot.distance += Math.sqrt(squared);
+        }
+    }
+
+    /**
+     * Перенести накопленное движение всех игроков (дробный остаток сохраняется)
+     */
+    public void fold(Sink sink) {
+        for (Map.Entry<UUID, Slot> entry : slots.entrySet()) {
+            Slot slot = entry.getValue();
+            int units = (int) (slot.distance * UNITS_PER_BLOCK);
+            if (units <= 0) continue;
+
+            slot.distance -= units / UNITS_PER_BLOCK;
+            sink.accept(entry.getKey(), units);
+        }
+    }
+
+    /**
+     * Перенести движение одного игрока и забыть его (при выходе)
+     */
+    public void flush(UUID uuid, Sink sink) {
+        Slot slot = slots.remove(uuid);
+        if (slot == null) return;
+
+        int units = (int) (slot.distance * UNITS_PER_BLOCK);
+        if (units > 0) {
+            sink.accept(uuid, units);
+        }
+    }
+}
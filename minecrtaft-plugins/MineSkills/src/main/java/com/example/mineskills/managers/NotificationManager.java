@@ -0,0 +1,229 @@
+package com.example.mineskills.managers;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Очередь уведомлений игрокам в чат
+ *
+ * Обработчики событий не отправляют сообщения сами, а кладут уведомление
+ * в очередь игрока. Одинаковые уведомления (тот же шаблон и аргумент)
+ * в пределах окна склеиваются: три награды за добычу превращаются в одно
+ * "+3 очков скиллов за добычу". Очередь разбирается раз в тик, за один
+ * разбор игроку уходит не больше max-per-flush сообщений, остальные ждут.
+ * Готовые Component кэшируются по тексту, поэтому повторяющиеся сообщения
+ * не собираются заново.
+ *
+ * Все методы вызываются только из основного потока сервера.
+ */
+public class NotificationManager {
+    private static final int COMPONENT_CACHE_SIZE = 512;
+
+    /**
+     * Шаблон уведомления
+     * Аргументы формата: %1$d - значение, %2$s - аргумент, %3$d - доп. значение
+     */
+    public enum Template {
+        SKILL_POINTS("§a+%1$d очков скиллов за %2$s! §7(всего: §e%3$d§7)", true, false),
+        DOUBLE_JUMP("§aДвойной прыжок! (%1$d/%3$d)", false, false),
+        EVASION("§eУклонение! Урон снижен на %1$d%%", false, true),
+        DAMAGE_REDUCED("§eУрон уменьшен на %1$d%%", false, true),
+        FALL_PROTECTION("§aУрон от падения снижен на %1$d%%", false, true),
+        ORE_FOUND("§aНайдена руда: %2$s", false, true),
+        ORE_FOUND_GOOD("§aНайдена руда: %2$s §7(качество: хорошее)", false, true),
+        ORE_FOUND_EXCELLENT("§aНайдена руда: %2$s §7(качество: отличное)", false, true),
+        ORE_FOUND_RARE("§aНайдена редкая руда: %2$s §7(качество: превосходное)", false, true);
+
+        private final String format;
+        private final boolean summing;     // значения складываются, иначе берется последнее
+        private final boolean showRepeats; // дописывать "x N" для склеенных повторов
+
+        Template(String format, boolean summing, boolean showRepeats) {
+            this.format = format;
+            this.summing = summing;
+            this.showRepeats = showRepeats;
+        }
+    }
+
+    /**
+     * Уведомление в очереди (копит склеенные повторы)
+     */
+    private static final class Pending {
+        private final Template template;
+        private final String argument;
+        private final long queuedTick;
+        private int value;
+        private int extra;
+        private int repeats;
+
+        private Pending(Template template, String argument, long queuedTick) {
+            this.template = template;
+            this.argument = argument;
+            this.queuedTick = queuedTick;
+        }
+
+        private String render() {
+            String text = String.format(template.format, value, argument, extra);
+            if (template.showRepeats && repeats > 1) {
+                text += " §7x" + repeats;
+            }
+            return text;
+        }
+    }
+
+    private final Plugin plugin;
+    private final long windowTicks;
+    private final int maxPerFlush;
+
+    // Очереди игроков: ключ склейки (шаблон + аргумент) -> уведомление
+    private final Map<UUID, LinkedHashMap<String, Pending>> queues;
+    // Готовые Component по тексту сообщения (LRU)
+    private final Map<String, Component> componentCache;
+    private final LegacyComponentSerializer serializer;
+
+    private BukkitTask flushTask;
+    private long currentTick;
+
+    // Статистика
+    private long queuedCount;
+    private long sentCount;
+
+    public NotificationManager(Plugin plugin) {
+        this.plugin = plugin;
+        this.windowTicks = Math.max(0, plugin.getConfig().getInt("notifications.window-ticks", 10));
+        this.maxPerFlush = Math.max(1, plugin.getConfig().getInt("notifications.max-per-flush", 3));
+        this.queues = new HashMap<>();
+        this.componentCache = new LinkedHashMap<String, Component>(COMPONENT_CACHE_SIZE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Component> eldest) {
+                return size() > COMPONENT_CACHE_SIZE;
+            }
+        };
+        this.serializer = LegacyComponentSerializer.legacySection();
+    }
+
+    /**
+     * Запустить разбор очереди раз в тик
+     */
+    public void start() {
+        if (flushTask != null) return;
+
+        flushTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::flush, 1L, 1L);
+    }
+
+    /**
+     * Остановить разбор очереди (оставшиеся уведомления отбрасываются)
+     */
+    public void stop() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        queues.clear();
+    }
+
+    /**
+     * Поставить уведомление в очередь игрока
+     */
+    public void notify(UUID uuid, Template template, String argument, int value, int extra) {
+        LinkedHashMap<String, Pending> queue = queues.computeIfAbsent(uuid, k -> new LinkedHashMap<>());
+
+        String key = argument != null ? template.name() + ':' + argument : template.name();
+        Pending pending = queue.get(key);
+        if (pending == null) {
+            pending = new Pending(template, argument, currentTick);
+            queue.put(key, pending);
+        }
+
+        pending.value = template.summing ? pending.value + value : value;
+        pending.extra = extra;
+        pending.repeats++;
+        queuedCount++;
+    }
+
+    /**
+     * Поставить уведомление без аргумента и доп. значения
+     */
+    public void notify(UUID uuid, Template template, int value) {
+        notify(uuid, template, null, value, 0);
+    }
+
+    /**
+     * Отправить накопленные уведомления, у которых истекло окно склейки
+     */
+    public void flush() {
+        currentTick++;
+        if (queues.isEmpty()) return;
+
+        Iterator<Map.Entry<UUID, LinkedHashMap<String, Pending>>> players = queues.entrySet().iterator();
+        while (players.hasNext()) {
+            Map.Entry<UUID, LinkedHashMap<String, Pending>> entry = players.next();
+            Player player = plugin.getServer().getPlayer(entry.getKey());
+            if (player == null) {
+                players.remove();
+                continue;
+            }
+
+            int sent = 0;
+            Iterator<Pending> pending = entry.getValue().values().iterator();
+            while (pending.hasNext() && sent < maxPerFlush) {
+                Pending notification = pending.next();
+                if (currentTick - notification.queuedTick < windowTicks) continue;
+
+                player.sendMessage(toComponent(notification.render()));
+                pending.remove();
+                sent++;
+            }
+            sentCount += sent;
+
+            if (entry.getValue().isEmpty()) {
+                players.remove();
+            }
+        }
+    }
+
+    /**
+     * Удалить очередь игрока (при выходе)
+     */
+    public void removePlayer(UUID uuid) {
+        queues.remove(uuid);
+    }
+
+    /**
+     * Готовый Component для текста (из кэша)
+     */
+    private Component toComponent(String text) {
+        Component component = componentCache.get(text);
+        if (component == null) {
+            component = serializer.deserialize(text);
+            componentCache.put(text, component);
+        }
+        return component;
+    }
+
+    /**
+     * Получить статистику очереди
+     */
+    public Map<String, Long> getStats() {
+        long pending = 0;
+        for (LinkedHashMap<String, Pending> queue : queues.values()) {
+            pending += queue.size();
+        }
+
+        Map<String, Long> stats = new HashMap<>();
+        stats.put("queued", queuedCount);
+        stats.put("sent", sentCount);
+        stats.put("pending", pending);
+        stats.put("cached_components", (long) componentCache.size());
+        return stats;
+    }
+}
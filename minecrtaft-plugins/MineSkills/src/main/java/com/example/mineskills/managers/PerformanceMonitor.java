@@ -0,0 +1,227 @@
+package com.example.mineskills.managers;
+
+import com.example.mineskills.utils.LatencyHistogram;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Профилировщик горячих путей MineSkills
+ *
+ * Обработчики событий замеряют свое время через {@link #record(Section, long)}:
+ * на каждый раздел заведена гистограмма задержек без аллокаций, по ней
+ * считаются p50/p99/max. Раз в минуту запоминается число вызовов и байт,
+ * записанных на диск, за прошедшую минуту. Сводка выводится командой
+ * /skilltree perf и периодически дописывается в perf/perf.csv, чтобы
+ * при лагах сервера можно было точно оценить долю MineSkills в тике.
+ */
+public class PerformanceMonitor {
+    private static final long MINUTE_TICKS = 20L * 60;
+
+    /**
+     * Замеряемые участки
+     */
+    public enum Section {
+        PLAYER_MOVE("MovementActionListener.onPlayerMove"),
+        BLOCK_BREAK("MiningActionListener.onBlockBreak"),
+        COMBAT_DAMAGE("CombatActionListener.onEntityDamageByEntity"),
+        COMBAT_TRIDENT("CombatActionListener.onPlayerInteractEntity"),
+        COMBAT_CONSUME("CombatActionListener.onPlayerItemConsume"),
+        GUI_CLICK("GuiClickListener.onInventoryClick"),
+        SAVE_PLAYER_DATA("PlayerDataManager.savePlayerData"),
+        RECORD_ACTION("PlayerDataManager.recordAction"),
+        JOIN_APPLY("JoinPipeline.applyJoin"),
+        MOVEMENT_FOLD("ActionTracker.flushMovement");
+
+        private final String displayName;
+
+        Section(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private final Plugin plugin;
+    private final boolean enabled;
+    private final long csvIntervalTicks;
+    private final File csvFile;
+
+    private final LatencyHistogram[] histograms;
+    private final AtomicLong bytesWritten;
+
+    // Значения на начало текущей минуты и приросты за прошлую минуту
+    private final long[] callsAtMinuteStart;
+    private final long[] callsLastMinute;
+    private long bytesAtMinuteStart;
+    private long bytesLastMinute;
+
+    private BukkitTask minuteTask;
+    private BukkitTask csvTask;
+
+    public PerformanceMonitor(Plugin plugin) {
+        this.plugin = plugin;
+        this.enabled = plugin.getConfig().getBoolean("performance.enabled", true);
+        this.csvIntervalTicks = Math.max(0, plugin.getConfig().getInt("performance.csv-interval", 300)) * 20L;
+        this.csvFile = new File(new File(plugin.getDataFolder(), "perf"), "perf.csv");
+
+        int sections = Section.values().length;
+        this.histograms = new LatencyHistogram[sections];
+        for (int i = 0; i < sections; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        this.bytesWritten = new AtomicLong();
+        this.callsAtMinuteStart = new long[sections];
+        this.callsLastMinute = new long[sections];
+    }
+
+    /**
+     * Запустить подсчет поминутных значений и выгрузку в CSV
+     */
+    public void start() {
+        if (!enabled || minuteTask != null) return;
+
+        minuteTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(
+            plugin, this::rollMinute, MINUTE_TICKS, MINUTE_TICKS);
+
+        if (csvIntervalTicks > 0) {
+            csvTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(
+                plugin, this::dumpCsv, csvIntervalTicks, csvIntervalTicks);
+        }
+    }
+
+    /**
+     * Остановить периодические задачи
+     */
+    public void stop() {
+        if (minuteTask != null) {
+            minuteTask.cancel();
+            minuteTask = null;
+        }
+        if (csvTask != null) {
+            csvTask.cancel();
+            csvTask = null;
+        }
+    }
+
+    /**
+     * Записать время участка, начатого в startNanos (System.nanoTime())
+     */
+    public void record(Section section, long startNanos) {
+        if (!enabled) return;
+
+        histograms[section.ordinal()].record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Учесть байты, записанные хранилищем на диск
+     */
+    public void addBytesWritten(long bytes) {
+        if (!enabled || bytes <= 0) return;
+
+        bytesWritten.addAndGet(bytes);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Гистограмма участка
+     */
+    public LatencyHistogram getHistogram(Section section) {
+        return histograms[section.ordinal()];
+    }
+
+    /**
+     * Вызовов участка за прошлую полную минуту
+     */
+    public synchronized long getCallsLastMinute(Section section) {
+        return callsLastMinute[section.ordinal()];
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    /**
+     * Байт записано на диск за прошлую полную минуту
+     */
+    public synchronized long getBytesLastMinute() {
+        return bytesLastMinute;
+    }
+
+    /**
+     * Обнулить все замеры
+     */
+    public synchronized void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+        bytesWritten.set(0);
+        Arrays.fill(callsAtMinuteStart, 0);
+        Arrays.fill(callsLastMinute, 0);
+        bytesAtMinuteStart = 0;
+        bytesLastMinute = 0;
+    }
+
+    /**
+     * Зафиксировать приросты за прошедшую минуту
+     */
+    private synchronized void rollMinute() {
+        for (int i = 0; i < histograms.length; i++) {
+            long calls = histograms[i].getCount();
+            callsLastMinute[i] = calls - callsAtMinuteStart[i];
+            callsAtMinuteStart[i] = calls;
+        }
+        long bytes = bytesWritten.get();
+        bytesLastMinute = bytes - bytesAtMinuteStart;
+        bytesAtMinuteStart = bytes;
+    }
+
+    /**
+     * Дописать текущую сводку в perf/perf.csv
+     */
+    private void dumpCsv() {
+        File folder = csvFile.getParentFile();
+        if (!folder.exists()) {
+            folder.mkdirs();
+        }
+
+        boolean newFile = !csvFile.exists();
+        long timestamp = System.currentTimeMillis();
+
+        try (BufferedWriter writer = Files.newBufferedWriter(csvFile.toPath(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (newFile) {
+                writer.write("timestamp,section,calls,calls_per_min,mean_ns,p50_ns,p99_ns,max_ns");
+                writer.newLine();
+            }
+
+            for (Section section : Section.values()) {
+                LatencyHistogram histogram = getHistogram(section);
+                writer.write(timestamp + "," + section.name() + "," + histogram.getCount() + ","
+                    + getCallsLastMinute(section) + "," + histogram.getMean() + ","
+                    + histogram.getPercentile(50) + "," + histogram.getPercentile(99) + ","
+                    + histogram.getMax());
+                writer.newLine();
+            }
+
+            // Запись на диск: calls - байт всего, calls_per_min - байт за минуту
+            writer.write(timestamp + ",BYTES_WRITTEN," + getBytesWritten() + "," + getBytesLastMinute() + ",0,0,0,0");
+            writer.newLine();
+        } catch (IOException e) {
+            plugin.getLogger().warning("Не удалось записать perf.csv: " + e.getMessage());
+        }
+    }
+}
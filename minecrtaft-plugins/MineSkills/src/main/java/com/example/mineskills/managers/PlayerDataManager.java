@@ -1,54 +1,287 @@
 package com.example.mineskills.managers;
 
-import com.example.mineskills.MineSkillsPlugin;
+import com.example.mineskills.models.ActionType;
 import com.example.mineskills.models.PlayerSkillData;
-import org.bukkit.configuration.file.FileConfiguration;
+import com.example.mineskills.models.PlayerStatSnapshot;
+import com.example.mineskills.storage.ActionLog;
+import com.example.mineskills.storage.BinaryPlayerDataStore;
+import com.example.mineskills.storage.PlayerDataStore;
+import com.example.mineskills.storage.SqlitePlayerDataStore;
+import com.example.mineskills.storage.YamlPlayerDataStore;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Менеджер данных игроков в системе MineSkills
  * Управляет загрузкой, сохранением и кэшированием данных игроков
+ *
+ * Сохранение работает по схеме write-behind: изменения только помечают
+ * игрока как "грязного", а фоновый flusher пачкой записывает все накопленные
+ * изменения в хранилище по интервалу или при превышении порога.
+ *
+ * Формат хранения задается {@link PlayerDataStore}: бинарный players.dat
+ * (по умолчанию), YAML или SQLite - выбирается по расширению
+ * storage.player-data-file. В хранилище всегда уходят согласованные
+ * снимки ({@link PlayerSkillData#snapshot()}), поэтому само хранилище
+ * пишет без блокировок менеджера.
+ *
+ * Чтение из кэша не берет блокировок: игрок уже в ConcurrentHashMap,
+ * а lock нужен только для загрузки и создания новой записи. Фоновое
+ * сохранение снимает снимки по версиям записей и не останавливает
+ * основной поток, сколько бы игроков ни сохранялось.
+ *
+ * Прогресс действий и заработанные очки идут через журнал действий
+ * ({@link ActionLog}, storage.action-log): событие дописывается в отображенный
+ * в память сегмент и сразу применяется к записи вместе со своим номером.
+ * Раз в compaction-interval закрытый сегмент сжимается в снимки затронутых
+ * игроков, после чего удаляется. При запуске события с номером больше
+ * сохраненного в снимке игрока применяются повторно - так восстанавливается
+ * прогресс после падения сервера.
+ *
+ * Менеджер ведет и {@link Leaderboard}: новые значения метрик передаются
+ * в индекс после каждого действия и явного сохранения, а сам индекс
+ * пишется в data/leaderboard.dat вместе с автосохранением.
  */
 public class PlayerDataManager {
-    private final MineSkillsPlugin plugin;
+    private final Plugin plugin;
+    private final PerformanceMonitor performanceMonitor;
+    private final File dataFolder;
     private final File dataFile;
-    private FileConfiguration config;
+    private final PlayerDataStore store;
     private final Map<UUID, PlayerSkillData> playerDataCache;
     private final Object lock = new Object();
 
-    public PlayerDataManager(MineSkillsPlugin plugin) {
+    // Write-behind: игроки с несохраненными изменениями
+    private final Set<UUID> dirtyPlayers;
+    private final Object flushLock = new Object();
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+    private final long flushIntervalTicks;
+    private final int maxDirtyPlayers;
+    private BukkitTask flushTask;
+
+    // Журнал действий (null - выключен) и игроки с событиями после последнего сжатия
+    private final ActionLog actionLog;
+    private final Set<UUID> loggedPlayers;
+    private final long compactionIntervalTicks;
+    private BukkitTask compactionTask;
+
+    // Таблица лидеров по всем игрокам (включая офлайн)
+    private final Leaderboard leaderboard;
+
+    public PlayerDataManager(Plugin plugin, PerformanceMonitor performanceMonitor) {
         this.plugin = plugin;
+        this.performanceMonitor = performanceMonitor;
         this.playerDataCache = new ConcurrentHashMap<>();
+        this.dirtyPlayers = ConcurrentHashMap.newKeySet();
         
-        // Создаем файл данных
-        File dataFolder = new File(plugin.getDataFolder(), "data");
+        // Настройки write-behind
+        this.flushIntervalTicks = Math.max(1, plugin.getConfig().getInt("storage.write-behind.flush-interval", 5)) * 20L;
+        this.maxDirtyPlayers = Math.max(1, plugin.getConfig().getInt("storage.write-behind.max-dirty-players", 50));
+        
+        // Создаем папку данных
+        this.dataFolder = new File(plugin.getDataFolder(), "data");
         if (!dataFolder.exists()) {
             dataFolder.mkdirs();
         }
         
-        this.dataFile = new File(dataFolder, "players.yml");
-        loadConfig();
+        String fileName = plugin.getConfig().getString("storage.player-data-file", "players.dat");
+        this.dataFile = new File(dataFolder, fileName);
+        try {
+            this.store = createStore(dataFile);
+        } catch (IOException e) {
+            // Не продолжаем с пустым хранилищем - иначе первая запись затрет данные
+            throw new IllegalStateException("Не удалось открыть хранилище " + fileName + ": " + e.getMessage(), e);
+        }
+        
+        plugin.getLogger().info("Хранилище данных игроков: " + store.getName());
+        migrateLegacyData();
+
+        this.leaderboard = new Leaderboard(new File(dataFolder, "leaderboard.dat"));
+        loadLeaderboard();
+
+        // Журнал действий
+        this.loggedPlayers = ConcurrentHashMap.newKeySet();
+        this.compactionIntervalTicks = Math.max(1, plugin.getConfig().getInt("storage.action-log.compaction-interval", 60)) * 20L;
+        if (plugin.getConfig().getBoolean("storage.action-log.enabled", true)) {
+            int segmentBytes = Math.max(64, plugin.getConfig().getInt("storage.action-log.segment-size", 4096)) * 1024;
+            this.actionLog = new ActionLog(new File(dataFolder, "actionlog"), segmentBytes, plugin.getLogger());
+            try {
+                recoverActionLog();
+            } catch (IOException e) {
+                // Не удаляем журнал, который не удалось применить
+                throw new IllegalStateException("Не удалось восстановить журнал действий: " + e.getMessage(), e);
+            }
+        } else {
+            this.actionLog = null;
+        }
     }
 
     /**
-     * Загрузка конфигурации из файла
+     * Прочитать индекс таблицы лидеров; без файла - построить его обходом хранилища
      */
-    private void loadConfig() {
-        if (!dataFile.exists()) {
-            try {
-                dataFile.createNewFile();
-            } catch (IOException e) {
-                plugin.getLogger().severe("Не удалось создать файл players.yml: " + e.getMessage());
+    private void loadLeaderboard() {
+        try {
+            if (leaderboard.load()) {
+                refreshLeaderboard();
+                return;
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Индекс таблицы лидеров поврежден, строится заново: " + e.getMessage());
+        }
+        rebuildLeaderboard();
+    }
+
+    /**
+     * Перечитать игроков, записанных в хранилище после сохранения индекса
+     */
+    private void refreshLeaderboard() throws IOException {
+        Set<UUID> written = leaderboard.readWrittenSinceSave();
+        if (written.isEmpty()) return;
+
+        for (UUID uuid : written) {
+            PlayerSkillData data = store.load(uuid);
+            if (data != null) {
+                leaderboard.update(uuid, data);
+            }
+        }
+        saveLeaderboard();
+        plugin.getLogger().info("Индекс таблицы лидеров: обновлено игроков после перезапуска: " + written.size());
+    }
+
+    /**
+     * Построить индекс таблицы лидеров по всем записям хранилища
+     */
+    private void rebuildLeaderboard() {
+        leaderboard.clear();
+        try {
+            for (UUID uuid : store.listPlayers()) {
+                PlayerSkillData data = playerDataCache.get(uuid);
+                if (data == null) {
+                    data = store.load(uuid);
+                }
+                if (data != null) {
+                    leaderboard.update(uuid, data);
+                }
             }
+            saveLeaderboard();
+            plugin.getLogger().info("Индекс таблицы лидеров построен: " + leaderboard.size() + " игроков");
+        } catch (IOException e) {
+            plugin.getLogger().severe("Ошибка построения таблицы лидеров: " + e.getMessage());
         }
+    }
+
+    /**
+     * Записать индекс таблицы лидеров, если он менялся
+     */
+    private void saveLeaderboard() {
+        try {
+            performanceMonitor.addBytesWritten(leaderboard.save());
+        } catch (IOException e) {
+            plugin.getLogger().warning("Не удалось сохранить таблицу лидеров: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Применить к хранилищу события журнала, не вошедшие в снимки, и начать новый сегмент
+     */
+    private void recoverActionLog() throws IOException {
+        Map<UUID, PlayerSkillData> recovered = new HashMap<>();
+        Set<UUID> unknown = new HashSet<>();
+        long[] applied = new long[1];
+
+        long total = actionLog.recover((sequence, uuid, type, amount, timestamp) -> {
+            PlayerSkillData data = recovered.get(uuid);
+            if (data == null) {
+                if (unknown.contains(uuid)) return;
+                data = store.load(uuid);
+                if (data == null) {
+                    // Записи нет - игрок не дожил до первого сохранения
+                    unknown.add(uuid);
+                    return;
+                }
+                recovered.put(uuid, data);
+            }
+            if (data.applyAction(type, amount, sequence)) {
+                applied[0]++;
+            }
+        });
+
+        if (applied[0] > 0) {
+            writeBatch(recovered);
+            for (Map.Entry<UUID, PlayerSkillData> entry : recovered.entrySet()) {
+                leaderboard.update(entry.getKey(), entry.getValue());
+            }
+            plugin.getLogger().info("Журнал действий: восстановлено " + applied[0] + " из " + total
+                + " событий для " + recovered.size() + " игроков");
+        }
+        if (!unknown.isEmpty()) {
+            plugin.getLogger().warning("Журнал действий: пропущены события " + unknown.size()
+                + " игроков без записи в хранилище");
+        }
+
+        // Все прочитанные события учтены в хранилище - старые сегменты больше не нужны
+        actionLog.open();
+        actionLog.deleteSegmentsBefore(actionLog.getLastSequence() + 1);
+    }
+
+    /**
+     * Создать хранилище по расширению файла данных
+     */
+    private PlayerDataStore createStore(File file) throws IOException {
+        String name = file.getName().toLowerCase();
         
-        this.config = YamlConfiguration.loadConfiguration(dataFile);
+        if (name.endsWith(".db") || name.endsWith(".sqlite")) {
+            return new SqlitePlayerDataStore(file, plugin.getLogger());
+        }
+        if (name.endsWith(".yml") || name.endsWith(".yaml")) {
+            return new YamlPlayerDataStore(file);
+        }
+        return new BinaryPlayerDataStore(file);
+    }
+
+    /**
+     * Однократный перенос данных из файлов других форматов в пустое хранилище
+     */
+    private void migrateLegacyData() {
+        try {
+            if (!store.listPlayers().isEmpty()) return;
+            
+            for (String legacyName : new String[] {"players.dat", "players.yml"}) {
+                File legacyFile = new File(dataFolder, legacyName);
+                if (!legacyFile.exists() || legacyFile.equals(dataFile)) continue;
+                
+                PlayerDataStore legacy = createStore(legacyFile);
+                Map<UUID, PlayerSkillData> batch = new HashMap<>();
+                for (UUID uuid : legacy.listPlayers()) {
+                    PlayerSkillData data = legacy.load(uuid);
+                    if (data != null) {
+                        batch.put(uuid, data);
+                    }
+                }
+                legacy.close();
+                
+                writeBatch(batch);
+                if (!legacyFile.renameTo(new File(dataFolder, legacyName + ".imported"))) {
+                    plugin.getLogger().warning("Не удалось переименовать " + legacyName + " после миграции");
+                }
+                plugin.getLogger().info("Данные " + batch.size() + " игроков перенесены из " + legacyName);
+                return;
+            }
+        } catch (IOException e) {
+            plugin.getLogger().severe("Ошибка миграции данных игроков: " + e.getMessage());
+        }
     }
 
     /**
@@ -59,32 +292,88 @@ public class PlayerDataManager {
     }
 
     /**
-     * Получить данные игрока с указанием имени (для новых игроков)
+     * Данные игрока, только если они уже в кэше (без загрузки из хранилища)
      */
-    public PlayerSkillData getPlayerData(UUID uuid, String playerName) {
+    public PlayerSkillData getCachedPlayerData(UUID uuid) {
+        return playerDataCache.get(uuid);
+    }
+
+    /**
+     * Загрузить данные существующего игрока в кэш, не создавая новых
+     * Можно вызывать из любого потока (например, при предзагрузке до входа)
+     *
+     * @return данные игрока или null, если в хранилище его нет
+     */
+    public PlayerSkillData loadPlayerData(UUID uuid) {
+        // Быстрый путь без блокировок - игрок уже в кэше
+        PlayerSkillData cached = playerDataCache.get(uuid);
+        if (cached != null) {
+            return cached;
+        }
+
         synchronized (lock) {
-            if (playerDataCache.containsKey(uuid)) {
-                return playerDataCache.get(uuid);
+            // Повторная проверка: запись могла загрузить другая нить
+            cached = playerDataCache.get(uuid);
+            if (cached != null) {
+                return cached;
             }
 
-            // Загружаем из конфигурации
-            String uuidStr = uuid.toString();
-            if (config.contains("players." + uuidStr)) {
-                try {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> playerDataMap = (Map<String, Object>) config.get("players." + uuidStr);
-                    PlayerSkillData data = PlayerSkillData.fromYamlMap(uuidStr, playerDataMap);
+            // Загружаем из хранилища
+            try {
+                PlayerSkillData data = store.load(uuid);
+                if (data != null) {
+                    data.markSaved(data.getVersion()); // совпадает с хранилищем
                     playerDataCache.put(uuid, data);
+                    leaderboard.update(uuid, data);
                     return data;
-                } catch (Exception e) {
-                    plugin.getLogger().warning("Ошибка загрузки данных игрока " + uuid + ": " + e.getMessage());
                 }
+            } catch (IOException e) {
+                plugin.getLogger().warning("Ошибка загрузки данных игрока " + uuid + ": " + e.getMessage());
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Получить данные игрока с указанием имени (для новых игроков)
+     * Новый игрок сразу сохраняется - вызывать, когда игрок уже на сервере
+     */
+    public PlayerSkillData getPlayerData(UUID uuid, String playerName) {
+        // Быстрый путь без блокировок - игрок уже в кэше
+        PlayerSkillData cached = playerDataCache.get(uuid);
+        if (cached != null) {
+            return cached;
+        }
+
+        synchronized (lock) {
+            cached = loadPlayerData(uuid);
+            if (cached != null) {
+                return cached;
+            }
+
+            if (playerName == null) {
+                // Вызов без имени (обработчики событий) - берем имя вошедшего игрока
+                Player player = plugin.getServer().getPlayer(uuid);
+                playerName = player != null ? player.getName() : null;
+            }
+            return createPlayerData(uuid, playerName);
+        }
+    }
+
+    /**
+     * Создать данные нового игрока без чтения хранилища (предзагрузка его не нашла)
+     */
+    public PlayerSkillData createPlayerData(UUID uuid, String playerName) {
+        synchronized (lock) {
+            PlayerSkillData cached = playerDataCache.get(uuid);
+            if (cached != null) {
+                return cached;
             }
 
             // Создаем новые данные для нового игрока
             PlayerSkillData newData = new PlayerSkillData(
                 playerName != null ? playerName : "Unknown",
-                uuidStr
+                uuid.toString()
             );
             
             // Выдаем начальные очки и базовый навык Mining
@@ -100,19 +389,179 @@ public class PlayerDataManager {
     }
 
     /**
-     * Сохранить данные игрока в файл
+     * Сохранить данные игрока (отложенно, через write-behind)
      */
     public void savePlayerData(UUID uuid) {
-        synchronized (lock) {
-            PlayerSkillData data = playerDataCache.get(uuid);
-            if (data == null) return;
+        long start = System.nanoTime();
+        PlayerSkillData data = playerDataCache.get(uuid);
+        if (data != null) {
+            leaderboard.update(uuid, data);
+        }
+        markDirty(uuid);
+        performanceMonitor.record(PerformanceMonitor.Section.SAVE_PLAYER_DATA, start);
+    }
+
+    /**
+     * Применить действие игрока: через журнал действий, если он включен,
+     * иначе напрямую с отложенным сохранением (вызывается из основного потока)
+     */
+    public void recordAction(UUID uuid, PlayerSkillData data, ActionType type, int amount) {
+        long start = System.nanoTime();
+        
+        long sequence = actionLog != null ? actionLog.append(uuid, type, amount) : -1;
+        if (sequence > 0 && data.applyAction(type, amount, sequence)) {
+            loggedPlayers.add(uuid);
+            performanceMonitor.addBytesWritten(ActionLog.RECORD_SIZE);
+        } else if (sequence > 0) {
+            // Запись новее журнала (журнал удален или данные скопированы) - событие не теряем:
+            // применяем напрямую и продолжаем нумерацию после номера записи
+            data.applyAction(type, amount);
+            markDirty(uuid);
+            advanceActionLog(data.getLogSequence() + 1);
+        } else {
+            data.applyAction(type, amount);
+            markDirty(uuid);
+        }
+        leaderboard.update(uuid, data, Leaderboard.Metric.of(type));
+        
+        performanceMonitor.record(PerformanceMonitor.Section.RECORD_ACTION, start);
+    }
+
+    /**
+     * Продвинуть нумерацию журнала действий (основной поток)
+     */
+    private void advanceActionLog(long sequence) {
+        try {
+            if (!actionLog.advanceTo(sequence)) return;
+            plugin.getLogger().warning("Журнал действий отставал от хранилища, нумерация продолжена с " + sequence);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Не удалось начать новый сегмент журнала действий: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Пометить данные игрока как измененные
+     */
+    public void markDirty(UUID uuid) {
+        if (!playerDataCache.containsKey(uuid)) return;
+        
+        dirtyPlayers.add(uuid);
+        
+        // Слишком много несохраненных игроков - сбрасываем раньше интервала
+        if (dirtyPlayers.size() >= maxDirtyPlayers) {
+            requestFlush();
+        }
+    }
+
+    /**
+     * Запустить фоновый flusher
+     */
+    public void startWriteBehind() {
+        if (flushTask != null) return;
+        
+        flushTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(
+            plugin, this::flushDirtyPlayers, flushIntervalTicks, flushIntervalTicks);
+        
+        if (actionLog != null) {
+            // Смена сегмента - в основном потоке, где дописываются события
+            compactionTask = plugin.getServer().getScheduler().runTaskTimer(
+                plugin, this::compactActionLog, compactionIntervalTicks, compactionIntervalTicks);
+        }
+    }
+
+    /**
+     * Закрыть текущий сегмент журнала и в фоне сжать его в снимки игроков
+     */
+    public void compactActionLog() {
+        if (actionLog == null || loggedPlayers.isEmpty()) return;
+
+        long boundary;
+        try {
+            boundary = actionLog.rotate();
+        } catch (IOException e) {
+            plugin.getLogger().severe("Не удалось закрыть сегмент журнала действий: " + e.getMessage());
+            return;
+        }
+
+        Set<UUID> players = new HashSet<>(loggedPlayers);
+        loggedPlayers.removeAll(players);
+        
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> writeCompaction(players, boundary));
+    }
+
+    /**
+     * Записать снимки игроков из закрытых сегментов и удалить эти сегменты
+     */
+    private void writeCompaction(Set<UUID> players, long boundary) {
+        synchronized (flushLock) {
+            Map<UUID, PlayerSkillData> batch = new HashMap<>();
+            for (UUID uuid : players) {
+                PlayerSkillData data = playerDataCache.get(uuid);
+                if (data != null) {
+                    // Все события до boundary уже применены в основном потоке
+                    batch.put(uuid, data.snapshot());
+                }
+            }
+
+            try {
+                writeBatch(batch);
+                markSaved(batch);
+                actionLog.deleteSegmentsBefore(boundary);
+            } catch (IOException e) {
+                plugin.getLogger().severe("Ошибка сжатия журнала действий: " + e.getMessage());
+                // Сегменты остаются на диске, игроки войдут в следующее сжатие
+                loggedPlayers.addAll(players);
+            }
+        }
+    }
+
+    /**
+     * Запросить внеочередной асинхронный сброс изменений
+     */
+    private void requestFlush() {
+        if (flushTask == null || !flushRequested.compareAndSet(false, true)) return;
+        
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                flushDirtyPlayers();
+            } finally {
+                flushRequested.set(false);
+            }
+        });
+    }
+
+    /**
+     * Записать всех "грязных" игроков одной пачкой
+     */
+    public void flushDirtyPlayers() {
+        if (dirtyPlayers.isEmpty()) return;
+
+        synchronized (flushLock) {
+            Map<UUID, PlayerSkillData> batch = new HashMap<>();
+            
+            // Снимки без общего lock - основной поток продолжает изменять данные
+            Iterator<UUID> iterator = dirtyPlayers.iterator();
+            while (iterator.hasNext()) {
+                UUID uuid = iterator.next();
+                iterator.remove();
+                
+                PlayerSkillData data = playerDataCache.get(uuid);
+                if (data == null) continue;
+                
+                batch.put(uuid, data.snapshot());
+            }
+            
+            if (batch.isEmpty()) return;
 
             try {
-                String uuidStr = uuid.toString();
-                config.set("players." + uuidStr, data.toYamlMap());
-                config.save(dataFile);
+                writeBatch(batch);
+                markSaved(batch);
             } catch (IOException e) {
-                plugin.getLogger().severe("Ошибка сохранения данных игрока " + uuid + ": " + e.getMessage());
+                plugin.getLogger().severe("Ошибка сохранения данных игроков: " + e.getMessage());
+                // Вернем игроков в очередь, чтобы не потерять изменения
+                for (UUID uuid : batch.keySet()) {
+                    markDirty(uuid);
+                }
             }
         }
     }
@@ -121,23 +570,126 @@ public class PlayerDataManager {
      * Сохранить данные всех игроков
      */
     public void saveAllPlayerData() {
-        synchronized (lock) {
+        saveAll();
+    }
+
+    /**
+     * Сохранить данные всех игроков, false - при ошибке записи
+     */
+    private boolean saveAll() {
+        synchronized (flushLock) {
+            Map<UUID, PlayerSkillData> batch = new HashMap<>();
+            dirtyPlayers.clear();
+            
             for (Map.Entry<UUID, PlayerSkillData> entry : playerDataCache.entrySet()) {
-                try {
-                    String uuidStr = entry.getKey().toString();
-                    config.set("players." + uuidStr, entry.getValue().toYamlMap());
-                } catch (Exception e) {
-                    plugin.getLogger().warning("Ошибка сохранения данных игрока " + entry.getKey() + ": " + e.getMessage());
-                }
+                // Записи без изменений с прошлого сохранения пропускаем
+                if (!entry.getValue().hasUnsavedChanges()) continue;
+                
+                batch.put(entry.getKey(), entry.getValue().snapshot());
             }
 
             try {
-                config.save(dataFile);
+                writeBatch(batch);
+                markSaved(batch);
+                saveLeaderboard();
                 plugin.getLogger().info("Данные всех игроков успешно сохранены");
+                return true;
             } catch (IOException e) {
                 plugin.getLogger().severe("Ошибка сохранения данных игроков: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Записать пачку в хранилище и учесть записанные байты
+     */
+    private void writeBatch(Map<UUID, PlayerSkillData> batch) throws IOException {
+        if (actionLog != null) {
+            // Номер журнала сохраняется до снимков: он всегда не меньше номеров в хранилище
+            long watermark = 0;
+            for (PlayerSkillData data : batch.values()) {
+                watermark = Math.max(watermark, data.getLogSequence());
             }
+            actionLog.saveWatermark(watermark);
         }
+        if (leaderboard != null) {
+            leaderboard.beforeStoreWrite(batch.keySet());
+        }
+
+        long before = store.getBytesWritten();
+        store.saveBatch(batch);
+        performanceMonitor.addBytesWritten(store.getBytesWritten() - before);
+    }
+
+    /**
+     * Запомнить версии записанных снимков у записей в кэше
+     */
+    private void markSaved(Map<UUID, PlayerSkillData> batch) {
+        for (Map.Entry<UUID, PlayerSkillData> entry : batch.entrySet()) {
+            PlayerSkillData data = playerDataCache.get(entry.getKey());
+            if (data != null) {
+                data.markSaved(entry.getValue().getVersion());
+            }
+        }
+    }
+
+    /**
+     * Остановить flusher и синхронно сохранить все изменения (вызывается в onDisable)
+     */
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        if (compactionTask != null) {
+            compactionTask.cancel();
+            compactionTask = null;
+        }
+        
+        boolean saved = saveAll();
+        if (actionLog != null) {
+            // После полного сохранения журнал не нужен; при ошибке он восстановится при запуске
+            if (saved) {
+                discardActionLog();
+            }
+            actionLog.close();
+        }
+        store.close();
+    }
+
+    /**
+     * Удалить все закрытые сегменты журнала (их события уже в хранилище или больше не нужны)
+     */
+    private void discardActionLog() {
+        try {
+            long boundary = actionLog.rotate();
+            loggedPlayers.clear();
+            actionLog.deleteSegmentsBefore(boundary);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Не удалось закрыть сегмент журнала действий: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Таблица лидеров по всем игрокам
+     */
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+
+    /**
+     * Количество сегментов журнала действий на диске (0 - журнал выключен)
+     */
+    public int getActionLogSegmentCount() {
+        return actionLog != null ? actionLog.getSegmentCount() : 0;
+    }
+
+    /**
+     * Получить количество игроков с несохраненными изменениями
+     */
+    public int getDirtyPlayerCount() {
+        return dirtyPlayers.size();
     }
 
     /**
@@ -149,6 +701,18 @@ public class PlayerDataManager {
         }
     }
 
+    /**
+     * Выгрузить предзагруженные данные игрока, так и не вошедшего на сервер
+     * (несохраненные изменения не теряются - такие данные остаются в кэше)
+     */
+    public void evictPlayerData(UUID uuid) {
+        synchronized (lock) {
+            if (!dirtyPlayers.contains(uuid)) {
+                playerDataCache.remove(uuid);
+            }
+        }
+    }
+
     /**
      * Получить количество игроков в кэше
      */
@@ -199,6 +763,22 @@ public class PlayerDataManager {
         return data != null ? data.getSkillLevel(skillId) : 0;
     }
 
+    /**
+     * Получить уровень скилла игрока по номеру из SkillIndex (для горячих путей)
+     */
+    public int getSkillLevel(UUID uuid, int ordinal) {
+        PlayerSkillData data = getPlayerData(uuid);
+        return data != null ? data.getSkillLevel(ordinal) : 0;
+    }
+
+    /**
+     * Получить производные характеристики игрока (множители для обработчиков событий)
+     */
+    public PlayerStatSnapshot getStats(UUID uuid) {
+        PlayerSkillData data = getPlayerData(uuid);
+        return data != null ? data.getStats() : PlayerStatSnapshot.EMPTY;
+    }
+
     /**
      * Потратить очки на скилл
      */
@@ -258,16 +838,9 @@ public class PlayerDataManager {
      * Создать резервную копию данных
      */
     public void createBackup() {
-        File backupFile = new File(plugin.getDataFolder(), "data/players_backup_" + System.currentTimeMillis() + ".yml");
         try {
-            if (dataFile.exists()) {
-                java.nio.file.Files.copy(
-                    dataFile.toPath(),
-                    backupFile.toPath(),
-                    java.nio.file.StandardCopyOption.REPLACE_EXISTING
-                );
-                plugin.getLogger().info("Резервная копия создана: " + backupFile.getName());
-            }
+            File backupFile = store.backup(dataFolder);
+            plugin.getLogger().info("Резервная копия создана: " + backupFile.getName());
         } catch (IOException e) {
             plugin.getLogger().warning("Не удалось создать резервную копию: " + e.getMessage());
         }
@@ -277,21 +850,105 @@ public class PlayerDataManager {
      * Загрузить данные из резервной копии
      */
     public boolean loadFromBackup(String backupFileName) {
-        File backupFile = new File(plugin.getDataFolder(), "data/" + backupFileName);
+        File backupFile = new File(dataFolder, backupFileName);
         if (!backupFile.exists()) {
             return false;
         }
 
-        try {
-            this.config = YamlConfiguration.loadConfiguration(backupFile);
-            this.config.save(dataFile);
-            loadConfig(); // Перезагружаем
-            playerDataCache.clear(); // Очищаем кэш
-            plugin.getLogger().info("Данные загружены из резервной копии: " + backupFileName);
-            return true;
-        } catch (IOException e) {
-            plugin.getLogger().severe("Ошибка загрузки резервной копии: " + e.getMessage());
-            return false;
+        synchronized (flushLock) {
+            synchronized (lock) {
+                try {
+                    store.restore(backupFile);
+                    playerDataCache.clear(); // Очищаем кэш
+                    dirtyPlayers.clear();
+                    if (actionLog != null) {
+                        // События до восстановления не должны применяться к данным из копии
+                        discardActionLog();
+                    }
+                    rebuildLeaderboard();
+                    plugin.getLogger().info("Данные загружены из резервной копии: " + backupFileName);
+                    return true;
+                } catch (IOException e) {
+                    plugin.getLogger().severe("Ошибка загрузки резервной копии: " + e.getMessage());
+                    return false;
+                }
+            }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Экспортировать данные всех игроков в YAML (для чтения человеком; вызывать вне основного потока)
+     */
+    public int exportToYaml(File file) throws IOException {
+        java.nio.file.Files.deleteIfExists(file.toPath());
+        YamlPlayerDataStore export = new YamlPlayerDataStore(file);
+        Map<UUID, PlayerSkillData> batch = new HashMap<>();
+
+        for (UUID uuid : store.listPlayers()) {
+            if (playerDataCache.containsKey(uuid)) continue;
+
+            PlayerSkillData data = store.load(uuid);
+            if (data != null) {
+                batch.put(uuid, data);
+            }
+        }
+
+        for (Map.Entry<UUID, PlayerSkillData> entry : playerDataCache.entrySet()) {
+            batch.put(entry.getKey(), entry.getValue().snapshot());
+        }
+
+        export.saveBatch(batch);
+        return batch.size();
+    }
+
+    /**
+     * Импортировать данные игроков из YAML (заменяет записи с совпадающим UUID; вызывать вне основного потока)
+     */
+    public int importFromYaml(File file) throws IOException {
+        YamlPlayerDataStore source = new YamlPlayerDataStore(file);
+        Map<UUID, PlayerSkillData> batch = new HashMap<>();
+
+        for (UUID uuid : source.listPlayers()) {
+            try {
+                PlayerSkillData data = source.load(uuid);
+                if (data != null) {
+                    batch.put(uuid, data);
+                }
+            } catch (IOException e) {
+                plugin.getLogger().warning("Ошибка импорта данных игрока " + uuid + ": " + e.getMessage());
+            }
+        }
+
+        if (actionLog != null) {
+            // Прежние события журнала не должны применяться поверх импортированных данных
+            long sequence = actionLog.getLastSequence();
+            for (PlayerSkillData data : batch.values()) {
+                data.setLogSequence(Math.max(data.getLogSequence(), sequence));
+            }
+        }
+
+        synchronized (flushLock) {
+            writeBatch(batch);
+
+            for (Map.Entry<UUID, PlayerSkillData> entry : batch.entrySet()) {
+                leaderboard.update(entry.getKey(), entry.getValue());
+            }
+
+            synchronized (lock) {
+                for (UUID uuid : batch.keySet()) {
+                    // Игроки в кэше получат свежие данные при следующем обращении
+                    playerDataCache.remove(uuid);
+                    dirtyPlayers.remove(uuid);
+                }
+            }
+        }
+        return batch.size();
+    }
+
+    /**
+     * Получить название активного хранилища
+     */
+    public String getStoreName() {
+        return store.getName();
+    }
+}
@@ -1,17 +1,16 @@
 package com.example.mineskills.managers;
 
 import com.example.mineskills.models.PlayerSkillData;
+import com.example.mineskills.models.PlayerStatSnapshot;
 import com.example.mineskills.models.Skill;
-import net.kyori.adventure.text.Component;
-import org.bukkit.attribute.Attribute;
-import org.bukkit.attribute.AttributeModifier;
+import com.example.mineskills.models.SkillIndex;
 import org.bukkit.entity.Player;
-import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
 
+import java.util.Collection;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -20,8 +19,13 @@ import java.util.concurrent.ConcurrentHashMap;
  * Применяет бонусы скиллов через AttributeModifier, PotionEffect и другие механики
  */
 public class SkillApplier {
+    // Номер скилла со специальной логикой при применении
+    private static final int DOUBLE_JUMP = SkillIndex.ordinalOf("DOUBLE_JUMP");
+
     private final SkillManager skillManager;
     private final PlayerDataManager playerDataManager;
+    private AttributeReconciler attributeReconciler;
+    private final NotificationManager notificationManager;
     
     // Отслеживание активных эффектов для предотвращения дублирования
     private final ConcurrentHashMap<UUID, ConcurrentHashMap<String, Integer>> activeEffects;
@@ -30,9 +34,12 @@ public class SkillApplier {
     private final ConcurrentHashMap<UUID, Integer> doubleJumpCount;
     private final ConcurrentHashMap<UUID, Boolean> wasOnGround;
 
-    public SkillApplier(SkillManager skillManager, PlayerDataManager playerDataManager) {
+    public SkillApplier(SkillManager skillManager, PlayerDataManager playerDataManager,
+                        NotificationManager notificationManager) {
         this.skillManager = skillManager;
         this.playerDataManager = playerDataManager;
+        this.notificationManager = notificationManager;
+        this.attributeReconciler = new AttributeReconciler(skillManager);
         this.activeEffects = new ConcurrentHashMap<>();
         this.doubleJumpCount = new ConcurrentHashMap<>();
         this.wasOnGround = new ConcurrentHashMap<>();
@@ -46,12 +53,20 @@ public class SkillApplier {
         PlayerSkillData data = playerDataManager.getPlayerData(uuid);
         
         if (data == null) return;
+        data.refreshStats();
+
+        // Модификаторы атрибутов - одной сверкой, меняются только отличающиеся
+        attributeReconciler.reconcileAll(player, data);
 
-        // Применяем каждый скилл
-        for (String skillId : data.getSkills().keySet()) {
-            int level = data.getSkillLevel(skillId);
+        // Остальные эффекты скиллов (обход по номерам, без копии Map)
+        int count = SkillIndex.size();
+        for (int ordinal = 0; ordinal < count; ordinal++) {
+            int level = data.getSkillLevel(ordinal);
             if (level > 0) {
-                applySkill(player, skillId, level);
+                Skill skill = skillManager.getSkill(ordinal);
+                if (skill != null) {
+                    applySkillEffects(player, skill, level);
+                }
             }
         }
 
@@ -59,6 +74,20 @@ public class SkillApplier {
         wasOnGround.put(uuid, player.isOnGround());
     }
 
+    /**
+     * Подхватить новый реестр скиллов после перезагрузки skills.yml
+     * Модификаторы снимаются по старому описанию и ставятся по новому
+     */
+    public void reloadSkills(Collection<? extends Player> onlinePlayers) {
+        for (Player player : onlinePlayers) {
+            attributeReconciler.clear(player);
+        }
+        attributeReconciler = new AttributeReconciler(skillManager);
+        for (Player player : onlinePlayers) {
+            applyAllSkills(player);
+        }
+    }
+
     /**
      * Применить конкретный скилл
      */
@@ -68,89 +97,31 @@ public class SkillApplier {
         Skill skill = skillManager.getSkill(skillId);
         if (skill == null) return;
 
-        UUID uuid = player.getUniqueId();
-        
-        // Применяем AttributeModifier
-        if (skill.getAttributeName() != null && skill.getAttributeValue() > 0) {
-            applyAttributeModifier(player, skill, level);
-        }
-        
+        applySkill(player, skill, level);
+    }
+
+    /**
+     * Применить скилл, уже найденный в SkillManager
+     */
+    private void applySkill(Player player, Skill skill, int level) {
+        // Сверяем AttributeModifier (без изменений уровня атрибут не трогается)
+        attributeReconciler.reconcileSkill(player, skill, level);
+        applySkillEffects(player, skill, level);
+    }
+
+    /**
+     * Применить эффекты скилла, кроме модификаторов атрибутов
+     */
+    private void applySkillEffects(Player player, Skill skill, int level) {
         // Применяем PotionEffect
         if (skill.getPotionEffect() != null) {
             applyPotionEffect(player, skill, level);
         }
         
         // Специальная логика для определенных скиллов
-        switch (skillId) {
-            case "DOUBLE_JUMP":
-                handleDoubleJump(player, level);
-                break;
-            case "EVASION":
-                // Эвейжн обрабатывается в слушателе урона
-                break;
-            case "ORE_FINDER":
-                // Обрабатывается в слушателе добычи
-                break;
-        }
-    }
-
-    /**
-     * Применить модификатор атрибута
-     */
-    private void applyAttributeModifier(Player player, Skill skill, int level) {
-        try {
-            Attribute attribute = null;
-            
-            // Определяем тип атрибута по названию
-            switch (skill.getAttributeName()) {
-                case "generic.attack_damage":
-                    attribute = Attribute.GENERIC_ATTACK_DAMAGE;
-                    break;
-                case "generic.armor":
-                    attribute = Attribute.GENERIC_ARMOR;
-                    break;
-                case "generic.max_health":
-                    attribute = Attribute.GENERIC_MAX_HEALTH;
-                    break;
-                case "generic.movement_speed":
-                    attribute = Attribute.GENERIC_MOVEMENT_SPEED;
-                    break;
-                case "generic.luck":
-                    attribute = Attribute.GENERIC_LUCK;
-                    break;
-                case "generic.mining_efficiency":
-                    attribute = Attribute.GENERIC_MINING_EFFICIENCY;
-                    break;
-            }
-            
-            if (attribute != null) {
-                // Удаляем старый модификатор
-                player.getAttribute(attribute).getModifiers().forEach(modifier -> {
-                    if (modifier.getName().startsWith("MineSkills_" + skill.getId())) {
-                        player.getAttribute(attribute).removeModifier(modifier);
-                    }
-                });
-                
-                // Добавляем новый модификатор
-                double totalValue = skill.getAttributeValue() * level;
-                AttributeModifier modifier = new AttributeModifier(
-                    UUID.randomUUID(),
-                    "MineSkills_" + skill.getId(),
-                    totalValue,
-                    AttributeModifier.Operation.ADD_NUMBER,
-                    EquipmentSlot.HAND
-                );
-                
-                player.getAttribute(attribute).addModifier(modifier);
-                
-                // Для здоровья обновляем текущее здоровье
-                if (attribute == Attribute.GENERIC_MAX_HEALTH) {
-                    player.setHealth(Math.min(player.getHealth(), player.getMaxHealth()));
-                }
-            }
-        } catch (Exception e) {
-            // Логируем ошибку, но не прерываем выполнение
-            System.err.println("Ошибка применения атрибута " + skill.getAttributeName() + " для игрока " + player.getName());
+        // (Evasion обрабатывается в слушателе урона, Ore Finder - в слушателе добычи)
+        if (skill.getOrdinal() == DOUBLE_JUMP) {
+            handleDoubleJump(player, level);
         }
     }
 
@@ -165,6 +136,13 @@ public class SkillApplier {
         int amplifier = Math.max(0, level - 1);
         int duration = Integer.MAX_VALUE / 20; // Бесконечно (20 тиков = 1 секунда)
         
+        // Эффект того же уровня уже висит - повторно не отправляем
+        ConcurrentHashMap<String, Integer> playerEffects = activeEffects.get(player.getUniqueId());
+        Integer activeLevel = playerEffects != null ? playerEffects.get(skill.getId()) : null;
+        if (activeLevel != null && activeLevel == level && player.hasPotionEffect(effectType)) {
+            return;
+        }
+        
         // Удаляем старый эффект
         player.removePotionEffect(effectType);
         
@@ -194,7 +172,7 @@ public class SkillApplier {
         
         if (data == null) return false;
         
-        int doubleJumpLevel = data.getSkillLevel("DOUBLE_JUMP");
+        int doubleJumpLevel = data.getStats().getDoubleJumpCharges();
         if (doubleJumpLevel <= 0) return false;
         
         boolean isOnGround = player.isOnGround();
@@ -209,8 +187,9 @@ public class SkillApplier {
                 player.setVelocity(player.getVelocity().setY(0.5));
                 doubleJumpCount.put(uuid, currentJumps + 1);
                 
-                // Отправляем сообщение игроку
-                player.sendMessage(Component.text("§aДвойной прыжок! (" + (currentJumps + 1) + "/" + doubleJumpLevel + ")"));
+                // Уведомляем игрока
+                notificationManager.notify(uuid, NotificationManager.Template.DOUBLE_JUMP,
+                    null, currentJumps + 1, doubleJumpLevel);
                 
                 return true;
             }
@@ -234,17 +213,21 @@ public class SkillApplier {
         
         if (data == null) return damage;
         
-        int evasionLevel = data.getSkillLevel("EVASION");
-        if (evasionLevel <= 0) return damage;
+        return applyEvasion(player, data.getStats(), damage);
+    }
+
+    /**
+     * Обработка получения урона по уже полученным характеристикам игрока
+     */
+    public double applyEvasion(Player player, PlayerStatSnapshot stats, double damage) {
+        // Снижение урона 5% за уровень Evasion - уже рассчитано в снимке
+        double reduction = stats.getEvasionReduction();
+        if (reduction <= 0) return damage;
         
-        // Снижаем урон на 5% за уровень
-        double reduction = 0.05 * evasionLevel;
         double newDamage = damage * (1.0 - reduction);
         
-        // Отправляем сообщение об уклонении
-        if (reduction > 0 && Math.random() < 0.3) { // Показываем в 30% случаев
-            player.sendMessage(Component.text("§eУклонение! Урон снижен на " + (int)(reduction * 100) + "%"));
-        }
+        // Сообщение об уклонении (серия ударов склеивается в одно)
+        notificationManager.notify(player.getUniqueId(), NotificationManager.Template.EVASION, (int) (reduction * 100));
         
         return newDamage;
     }
@@ -255,14 +238,8 @@ public class SkillApplier {
     public void removeAllSkillEffects(Player player) {
         UUID uuid = player.getUniqueId();
         
-        // Удаляем модификаторы атрибутов
-        for (Attribute attribute : Attribute.values()) {
-            player.getAttribute(attribute).getModifiers().forEach(modifier -> {
-                if (modifier.getName().startsWith("MineSkills_")) {
-                    player.getAttribute(attribute).removeModifier(modifier);
-                }
-            });
-        }
+        // Удаляем модификаторы атрибутов (только примененные скиллами)
+        attributeReconciler.clear(player);
         
         // Удаляем зелья эффекты
         player.getActivePotionEffects().forEach(effect -> {
@@ -294,17 +271,16 @@ public class SkillApplier {
         
         if (data == null) return;
         
-        int oldLevel = data.getSkillLevel(skillId);
-        
-        if (oldLevel > 0) {
-            // Удаляем старые эффекты
-            removeSkillEffect(player, skillId, oldLevel);
-        }
-        
         if (newLevel > 0) {
-            // Применяем новые эффекты
+            // Применяем новый уровень: модификатор заменяется только этого скилла
             applySkill(player, skillId, newLevel);
+        } else {
+            // Удаляем эффекты
+            removeSkillEffect(player, skillId, data.getSkillLevel(skillId));
         }
+        
+        // Пересчитываем множители для обработчиков событий
+        data.refreshStats();
     }
 
     /**
@@ -315,20 +291,15 @@ public class SkillApplier {
         if (skill == null) return;
         
         // Удаляем модификатор атрибута
-        if (skill.getAttributeName() != null) {
-            Attribute attribute = getAttributeByName(skill.getAttributeName());
-            if (attribute != null) {
-                player.getAttribute(attribute).getModifiers().forEach(modifier -> {
-                    if (modifier.getName().startsWith("MineSkills_" + skillId)) {
-                        player.getAttribute(attribute).removeModifier(modifier);
-                    }
-                });
-            }
-        }
+        attributeReconciler.reconcileSkill(player, skill, 0);
         
         // Удаляем зелье эффект
         if (skill.getPotionEffect() != null) {
             player.removePotionEffect(skill.getPotionEffect());
+            ConcurrentHashMap<String, Integer> playerEffects = activeEffects.get(player.getUniqueId());
+            if (playerEffects != null) {
+                playerEffects.remove(skillId);
+            }
         }
         
         // Специальная обработка
@@ -339,21 +310,6 @@ public class SkillApplier {
         }
     }
 
-    /**
-     * Получить атрибут по названию
-     */
-    private Attribute getAttributeByName(String name) {
-        switch (name) {
-            case "generic.attack_damage": return Attribute.GENERIC_ATTACK_DAMAGE;
-            case "generic.armor": return Attribute.GENERIC_ARMOR;
-            case "generic.max_health": return Attribute.GENERIC_MAX_HEALTH;
-            case "generic.movement_speed": return Attribute.GENERIC_MOVEMENT_SPEED;
-            case "generic.luck": return Attribute.GENERIC_LUCK;
-            case "generic.mining_efficiency": return Attribute.GENERIC_MINING_EFFICIENCY;
-            default: return null;
-        }
-    }
-
     /**
      * Проверить, может ли игрок использовать определенную руду (для Ore Finder)
      */
@@ -363,8 +319,7 @@ public class SkillApplier {
         
         if (data == null) return false;
         
-        int oreFinderLevel = data.getSkillLevel("ORE_FINDER");
-        return oreFinderLevel > 0;
+        return data.getStats().getOreFinderLevel() > 0;
     }
 
     /**
@@ -376,20 +331,7 @@ public class SkillApplier {
         
         if (data == null) return experience;
         
-        double bonus = 1.0;
-        
-        // Mining skill bonus
-        int miningLevel = data.getSkillLevel("MINING");
-        if (miningLevel > 0) {
-            bonus += 0.1 * miningLevel; // +10% за уровень
-        }
-        
-        // Experience skill bonus  
-        int expLevel = data.getSkillLevel("EXPERIENCE");
-        if (expLevel > 0) {
-            bonus += 0.05 * expLevel; // +5% за уровень
-        }
-        
-        return experience * bonus;
+        // Mining +10% и Experience +5% за уровень (см. PlayerStatSnapshot)
+        return experience * data.getStats().getExperienceMultiplier();
     }
 }
\ No newline at end of file
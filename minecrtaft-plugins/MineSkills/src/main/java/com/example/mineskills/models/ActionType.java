@@ -0,0 +1,41 @@
+package com.example.mineskills.models;
+
+/**
+ * Тип действия игрока, меняющего прогресс или очки
+ *
+ * Код записывается в журнал действий одним байтом и не должен меняться:
+ * по нему восстанавливаются события после сбоя. 0 зарезервирован
+ * под конец записей сегмента.
+ */
+public enum ActionType {
+    MINING(1),
+    COMBAT(2),
+    MOVEMENT(3),
+    JUMPING(4),
+    POINTS(5);
+
+    private static final ActionType[] BY_CODE = new ActionType[6];
+
+    static {
+        for (ActionType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final int code;
+
+    ActionType(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Тип по коду из журнала (null для неизвестного кода)
+     */
+    public static ActionType fromCode(int code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
@@ -1,26 +1,51 @@
 package com.example.mineskills.models;
 
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Данные скиллов игрока в системе MineSkills
+ *
+ * Изменяются только из основного потока сервера. Для фонового сохранения
+ * каждая запись ведет версию по схеме seqlock: писатель делает ее нечетной
+ * на время изменения, а {@link #snapshot()} повторяет копирование, пока
+ * не получит согласованную копию. Поэтому сохранение не берет блокировок,
+ * которые могли бы задержать основной поток.
+ *
+ * Уровни скиллов лежат в массиве по номеру из {@link SkillIndex}:
+ * getSkillLevel(int) - одно чтение массива без хеширования и копий.
+ * Map с уровнями собирается только для сериализации.
+ *
+ * logSequence - номер последнего события журнала действий, вошедшего в
+ * запись. Он меняется в той же записи seqlock, что и сам прогресс, поэтому
+ * снимок всегда знает, какие события журнала в нем уже учтены.
  */
 public class PlayerSkillData {
     private final String playerName;
     private final String uuid;
     private int skillPoints;
     private int totalPointsEarned;
-    private final Map<String, Integer> skills; // skillId -> level
+    private int[] levels; // номер скилла (SkillIndex) -> уровень
     private final ActionProgress actionProgress;
+    private long logSequence; // последнее учтенное событие журнала действий
+
+    // Версия записи (seqlock) и последняя сохраненная версия
+    private volatile long version;
+    private volatile long savedVersion = -1;
+
+    // Производные характеристики (null - пересчитать при следующем чтении)
+    private volatile PlayerStatSnapshot stats;
 
     public PlayerSkillData(String playerName, String uuid) {
         this.playerName = playerName;
         this.uuid = uuid;
         this.skillPoints = 0;
         this.totalPointsEarned = 0;
-        this.skills = new HashMap<>();
+        this.levels = new int[SkillIndex.size()];
         this.actionProgress = new ActionProgress();
+        this.actionProgress.owner = this;
     }
 
     // Конструктор для загрузки из YAML
@@ -30,8 +55,29 @@ public class PlayerSkillData {
         this.uuid = uuid;
         this.skillPoints = skillPoints;
         this.totalPointsEarned = totalPointsEarned;
-        this.skills = new HashMap<>(skills);
+        this.levels = new int[SkillIndex.size()];
+        for (Map.Entry<String, Integer> entry : skills.entrySet()) {
+            int ordinal = SkillIndex.ordinalOf(entry.getKey());
+            if (ordinal >= levels.length) {
+                levels = Arrays.copyOf(levels, SkillIndex.size());
+            }
+            levels[ordinal] = Math.max(0, entry.getValue());
+        }
         this.actionProgress = actionProgress;
+        this.actionProgress.owner = this;
+    }
+
+    // Конструктор для копирования
+    private PlayerSkillData(String playerName, String uuid, int skillPoints, int totalPointsEarned,
+                            int[] levels, ActionProgress actionProgress, long logSequence) {
+        this.playerName = playerName;
+        this.uuid = uuid;
+        this.skillPoints = skillPoints;
+        this.totalPointsEarned = totalPointsEarned;
+        this.levels = levels;
+        this.actionProgress = actionProgress;
+        this.actionProgress.owner = this;
+        this.logSequence = logSequence;
     }
 
     // Геттеры
@@ -39,25 +85,225 @@ public class PlayerSkillData {
     public String getUuid() { return uuid; }
     public int getSkillPoints() { return skillPoints; }
     public int getTotalPointsEarned() { return totalPointsEarned; }
-    public Map<String, Integer> getSkills() { return new HashMap<>(skills); }
     public ActionProgress getActionProgress() { return actionProgress; }
+    public long getLogSequence() { return logSequence; }
+
+    /**
+     * Уровни изученных скиллов по ID (новая Map - для сериализации и команд)
+     */
+    public Map<String, Integer> getSkills() {
+        Map<String, Integer> skills = new HashMap<>();
+        forEachSkill(skills::put);
+        return skills;
+    }
 
     // Сеттеры
-    public void setSkillPoints(int skillPoints) { this.skillPoints = skillPoints; }
-    public void setTotalPointsEarned(int totalPointsEarned) { this.totalPointsEarned = totalPointsEarned; }
+    public void setSkillPoints(int skillPoints) {
+        beginWrite();
+        this.skillPoints = skillPoints;
+        endWrite();
+    }
+
+    public void setTotalPointsEarned(int totalPointsEarned) {
+        beginWrite();
+        this.totalPointsEarned = totalPointsEarned;
+        endWrite();
+    }
+
+    /**
+     * Установить номер последнего учтенного события журнала (при загрузке из хранилища)
+     */
+    public void setLogSequence(long logSequence) {
+        beginWrite();
+        this.logSequence = logSequence;
+        endWrite();
+    }
+
+    /**
+     * Применить действие без журнала (номер учтенного события не меняется)
+     */
+    public void applyAction(ActionType type, int amount) {
+        beginWrite();
+        addAction(type, amount);
+        endWrite();
+    }
+
+    /**
+     * Применить событие журнала действий: прогресс (или очки) и его номер меняются
+     * одной записью, события с номером не больше уже учтенного пропускаются
+     *
+     * @return false, если событие уже было учтено
+     */
+    public boolean applyAction(ActionType type, int amount, long sequence) {
+        if (sequence <= logSequence) return false;
+
+        beginWrite();
+        addAction(type, amount);
+        logSequence = sequence;
+        endWrite();
+        return true;
+    }
+
+    private void addAction(ActionType type, int amount) {
+        switch (type) {
+            case MINING:
+                actionProgress.miningProgress += amount;
+                break;
+            case COMBAT:
+                actionProgress.combatProgress += amount;
+                break;
+            case MOVEMENT:
+                actionProgress.movementProgress += amount;
+                break;
+            case JUMPING:
+                actionProgress.jumpingProgress += amount;
+                break;
+            case POINTS:
+                skillPoints += amount;
+                totalPointsEarned += amount;
+                break;
+        }
+    }
+
+    /**
+     * Начало изменения: версия становится нечетной
+     */
+    private void beginWrite() {
+        version++; // единственный писатель - основной поток
+        VarHandle.storeStoreFence();
+    }
+
+    /**
+     * Конец изменения: версия снова четная
+     */
+    private void endWrite() {
+        version++;
+    }
+
+    /**
+     * Текущая версия записи (меняется при каждом изменении)
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Есть ли изменения после последнего сохранения
+     */
+    public boolean hasUnsavedChanges() {
+        return version != savedVersion;
+    }
+
+    /**
+     * Отметить, что снимок с указанной версией записан в хранилище
+     */
+    public void markSaved(long savedVersion) {
+        this.savedVersion = savedVersion;
+    }
+
+    /**
+     * Согласованная копия данных без блокировок (можно вызывать из любого потока)
+     * Версия копии равна версии записи, с которой она снята
+     */
+    public PlayerSkillData snapshot() {
+        while (true) {
+            long before = version;
+            if ((before & 1) == 0) {
+                try {
+                    PlayerSkillData copy = copy();
+                    VarHandle.loadLoadFence();
+                    if (version == before) {
+                        copy.version = before;
+                        return copy;
+                    }
+                } catch (RuntimeException ignored) {
+                    // Массив уровней заменялся во время копирования - повторяем
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
 
     // Методы работы со скиллами
     public int getSkillLevel(String skillId) {
-        return skills.getOrDefault(skillId, 0);
+        int ordinal = SkillIndex.find(skillId);
+        return ordinal >= 0 ? getSkillLevel(ordinal) : 0;
+    }
+
+    /**
+     * Уровень скилла по номеру из {@link SkillIndex} (без копий и хеширования)
+     */
+    public int getSkillLevel(int ordinal) {
+        int[] current = levels;
+        return ordinal >= 0 && ordinal < current.length ? current[ordinal] : 0;
     }
 
     public void setSkillLevel(String skillId, int level) {
-        skills.put(skillId, Math.max(0, level));
+        setSkillLevel(SkillIndex.ordinalOf(skillId), level);
+    }
+
+    /**
+     * Установить уровень скилла по номеру из {@link SkillIndex}
+     */
+    public void setSkillLevel(int ordinal, int level) {
+        beginWrite();
+        if (ordinal >= levels.length) {
+            levels = Arrays.copyOf(levels, Math.max(ordinal + 1, SkillIndex.size()));
+        }
+        levels[ordinal] = Math.max(0, level);
+        endWrite();
+        stats = null;
+    }
+
+    /**
+     * Производные характеристики игрока (одно чтение ссылки на горячих путях)
+     * Если уровни менялись в обход {@link #refreshStats()}, пересчитываются здесь
+     */
+    public PlayerStatSnapshot getStats() {
+        PlayerStatSnapshot current = stats;
+        if (current == null) {
+            current = refreshStats();
+        }
+        return current;
+    }
+
+    /**
+     * Пересчитать и опубликовать характеристики (вызывается при изменении уровня скилла)
+     */
+    public PlayerStatSnapshot refreshStats() {
+        PlayerStatSnapshot current = PlayerStatSnapshot.of(this);
+        stats = current;
+        return current;
+    }
+
+    /**
+     * Обойти изученные скиллы (уровень больше 0) без промежуточной Map
+     */
+    public void forEachSkill(SkillLevelConsumer consumer) {
+        int[] current = levels;
+        for (int ordinal = 0; ordinal < current.length; ordinal++) {
+            if (current[ordinal] > 0) {
+                consumer.accept(SkillIndex.idOf(ordinal), current[ordinal]);
+            }
+        }
+    }
+
+    /**
+     * Количество изученных скиллов
+     */
+    public int getLearnedSkillCount() {
+        int count = 0;
+        for (int level : levels) {
+            if (level > 0) count++;
+        }
+        return count;
     }
 
     public void addSkillPoint() {
+        beginWrite();
         this.skillPoints++;
         this.totalPointsEarned++;
+        endWrite();
     }
 
     public boolean hasSkill(String skillId) {
@@ -65,8 +311,10 @@ public class PlayerSkillData {
     }
 
     public void addSkillPoints(int amount) {
+        beginWrite();
         this.skillPoints += amount;
         this.totalPointsEarned += amount;
+        endWrite();
     }
 
     public boolean canAfford(int cost) {
@@ -75,20 +323,31 @@ public class PlayerSkillData {
 
     public boolean spendPoints(int cost) {
         if (canAfford(cost)) {
+            beginWrite();
             skillPoints -= cost;
+            endWrite();
             return true;
         }
         return false;
     }
 
+    /**
+     * Независимая копия данных (без проверки версии, см. {@link #snapshot()})
+     */
+    public PlayerSkillData copy() {
+        return new PlayerSkillData(playerName, uuid, skillPoints, totalPointsEarned, levels.clone(),
+            actionProgress.copy(), logSequence);
+    }
+
     // Сериализация для YAML
     public Map<String, Object> toYamlMap() {
         Map<String, Object> data = new HashMap<>();
         data.put("name", playerName);
         data.put("skill_points", skillPoints);
         data.put("total_points", totalPointsEarned);
-        data.put("skills", new HashMap<>(skills));
+        data.put("skills", getSkills());
         data.put("action_progress", actionProgress.toYamlMap());
+        data.put("log_sequence", logSequence);
         return data;
     }
 
@@ -102,7 +361,20 @@ public class PlayerSkillData {
         
         ActionProgress actionProgress = ActionProgress.fromYamlMap((Map<String, Object>) data.get("action_progress"));
         
-        return new PlayerSkillData(name, uuid, skillPoints, totalPoints, skills, actionProgress);
+        PlayerSkillData result = new PlayerSkillData(name, uuid, skillPoints, totalPoints, skills, actionProgress);
+        Object logSequence = data.get("log_sequence");
+        if (logSequence instanceof Number) {
+            result.logSequence = ((Number) logSequence).longValue();
+        }
+        return result;
+    }
+
+    /**
+     * Получатель пары "ID скилла - уровень" при обходе
+     */
+    @FunctionalInterface
+    public interface SkillLevelConsumer {
+        void accept(String skillId, int level);
     }
 
     /**
@@ -114,6 +386,9 @@ public class PlayerSkillData {
         private int movementProgress;   // пройденное расстояние
         private int jumpingProgress;    // количество прыжков
 
+        // Запись, версию которой увеличивают изменения прогресса
+        private PlayerSkillData owner;
+
         public ActionProgress() {
             this.miningProgress = 0;
             this.combatProgress = 0;
@@ -131,28 +406,40 @@ public class PlayerSkillData {
 
         // Геттеры и сеттеры
         public int getMiningProgress() { return miningProgress; }
-        public void setMiningProgress(int miningProgress) { this.miningProgress = miningProgress; }
+        public void setMiningProgress(int miningProgress) { beginWrite(); this.miningProgress = miningProgress; endWrite(); }
         
         public int getCombatProgress() { return combatProgress; }
-        public void setCombatProgress(int combatProgress) { this.combatProgress = combatProgress; }
+        public void setCombatProgress(int combatProgress) { beginWrite(); this.combatProgress = combatProgress; endWrite(); }
         
         public int getMovementProgress() { return movementProgress; }
-        public void setMovementProgress(int movementProgress) { this.movementProgress = movementProgress; }
+        public void setMovementProgress(int movementProgress) { beginWrite(); this.movementProgress = movementProgress; endWrite(); }
         
         public int getJumpingProgress() { return jumpingProgress; }
-        public void setJumpingProgress(int jumpingProgress) { this.jumpingProgress = jumpingProgress; }
+        public void setJumpingProgress(int jumpingProgress) { beginWrite(); this.jumpingProgress = jumpingProgress; endWrite(); }
 
         // Методы добавления прогресса
-        public void addMiningProgress(int amount) { this.miningProgress += amount; }
-        public void addCombatProgress(int amount) { this.combatProgress += amount; }
-        public void addMovementProgress(int amount) { this.movementProgress += amount; }
-        public void addJumpingProgress(int amount) { this.jumpingProgress += amount; }
+        public void addMiningProgress(int amount) { beginWrite(); this.miningProgress += amount; endWrite(); }
+        public void addCombatProgress(int amount) { beginWrite(); this.combatProgress += amount; endWrite(); }
+        public void addMovementProgress(int amount) { beginWrite(); this.movementProgress += amount; endWrite(); }
+        public void addJumpingProgress(int amount) { beginWrite(); this.jumpingProgress += amount; endWrite(); }
 
         // Сброс прогресса
-        public void resetMining() { this.miningProgress = 0; }
-        public void resetCombat() { this.combatProgress = 0; }
-        public void resetMovement() { this.movementProgress = 0; }
-        public void resetJumping() { this.jumpingProgress = 0; }
+        public void resetMining() { setMiningProgress(0); }
+        public void resetCombat() { setCombatProgress(0); }
+        public void resetMovement() { setMovementProgress(0); }
+        public void resetJumping() { setJumpingProgress(0); }
+
+        private void beginWrite() {
+            if (owner != null) owner.beginWrite();
+        }
+
+        private void endWrite() {
+            if (owner != null) owner.endWrite();
+        }
+
+        public ActionProgress copy() {
+            return new ActionProgress(miningProgress, combatProgress, movementProgress, jumpingProgress);
+        }
 
         // Сериализация для YAML
         public Map<String, Object> toYamlMap() {
@@ -0,0 +1,72 @@
+package com.example.mineskills.models;
+
+/**
+ * Производные характеристики игрока, рассчитанные из уровней скиллов
+ *
+ * Неизменяемый объект: строится заново только при изменении уровня скилла
+ * и публикуется в {@link PlayerSkillData} одной volatile-записью. Обработчики
+ * событий (урон, добыча, прыжки) читают готовые множители одной ссылкой
+ * вместо поиска уровней и пересчета формул на каждое событие.
+ */
+public final class PlayerStatSnapshot {
+    private static final int MINING = SkillIndex.ordinalOf("MINING");
+    private static final int EXPERIENCE = SkillIndex.ordinalOf("EXPERIENCE");
+    private static final int EVASION = SkillIndex.ordinalOf("EVASION");
+    private static final int STAMINA = SkillIndex.ordinalOf("STAMINA");
+    private static final int FAST_MINING = SkillIndex.ordinalOf("FAST_MINING");
+    private static final int SWIFT_MOVEMENT = SkillIndex.ordinalOf("SWIFT_MOVEMENT");
+    private static final int DOUBLE_JUMP = SkillIndex.ordinalOf("DOUBLE_JUMP");
+    private static final int ORE_FINDER = SkillIndex.ordinalOf("ORE_FINDER");
+    private static final int POWER_BLOW = SkillIndex.ordinalOf("POWER_BLOW");
+    private static final int IRON_SKIN = SkillIndex.ordinalOf("IRON_SKIN");
+
+    // Характеристики игрока без изученных скиллов
+    public static final PlayerStatSnapshot EMPTY = new PlayerStatSnapshot(new PlayerSkillData("", ""));
+
+    private final double experienceMultiplier; // Mining +10% и Experience +5% за уровень
+    private final double evasionReduction;     // доля снижения урона (Evasion)
+    private final double fallProtection;       // доля снижения урона от падения (Stamina)
+    private final double miningSpeedMultiplier; // Fast Mining, только с киркой
+    private final double speedMultiplier;      // Swift Movement
+    private final int doubleJumpCharges;       // прыжков в воздухе (Double Jump)
+    private final boolean doubleJumpUnlocked;  // Swift Movement 1+ и Double Jump 1+
+    private final int oreFinderLevel;
+    private final int powerBlowLevel;
+    private final double ironSkinArmor;
+
+    private PlayerStatSnapshot(PlayerSkillData data) {
+        int miningLevel = data.getSkillLevel(MINING);
+        int experienceLevel = data.getSkillLevel(EXPERIENCE);
+        int swiftMovementLevel = data.getSkillLevel(SWIFT_MOVEMENT);
+
+        this.experienceMultiplier = 1.0 + 0.1 * miningLevel + 0.05 * experienceLevel;
+        this.evasionReduction = 0.05 * data.getSkillLevel(EVASION);
+        this.fallProtection = 0.05 * data.getSkillLevel(STAMINA);
+        this.miningSpeedMultiplier = 1.0 + 0.1 * data.getSkillLevel(FAST_MINING);
+        this.speedMultiplier = 1.0 + 0.1 * swiftMovementLevel;
+        this.doubleJumpCharges = data.getSkillLevel(DOUBLE_JUMP);
+        this.doubleJumpUnlocked = swiftMovementLevel >= 1 && doubleJumpCharges >= 1;
+        this.oreFinderLevel = data.getSkillLevel(ORE_FINDER);
+        this.powerBlowLevel = data.getSkillLevel(POWER_BLOW);
+        this.ironSkinArmor = 0.5 * data.getSkillLevel(IRON_SKIN);
+    }
+
+    /**
+     * Рассчитать характеристики по текущим уровням скиллов
+     */
+    public static PlayerStatSnapshot of(PlayerSkillData data) {
+        return new PlayerStatSnapshot(data);
+    }
+
+    // Геттеры
+    public double getExperienceMultiplier() { return experienceMultiplier; }
+    public double getEvasionReduction() { return evasionReduction; }
+    public double getFallProtection() { return fallProtection; }
+    public double getMiningSpeedMultiplier() { return miningSpeedMultiplier; }
+    public double getSpeedMultiplier() { return speedMultiplier; }
+    public int getDoubleJumpCharges() { return doubleJumpCharges; }
+    public boolean isDoubleJumpUnlocked() { return doubleJumpUnlocked; }
+    public int getOreFinderLevel() { return oreFinderLevel; }
+    public int getPowerBlowLevel() { return powerBlowLevel; }
+    public double getIronSkinArmor() { return ironSkinArmor; }
+}
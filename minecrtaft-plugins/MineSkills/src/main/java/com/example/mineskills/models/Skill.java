@@ -23,6 +23,8 @@ public class Skill {
     private final PotionEffectType potionEffect; // Для скиллов с эффектами
     private final String attributeName; // Для AttributeModifier
     private final double attributeValue; // Значение модификатора
+    private final int ordinal;          // Номер в SkillIndex
+    private final int requiredOrdinal;  // Номер скилла-требования (-1 если нет)
 
     public Skill(String id, String name, String description, SkillBranch branch, Material icon,
                  List<String> levelDescriptions, int maxLevel, int baseCost,
@@ -41,6 +43,8 @@ public class Skill {
         this.potionEffect = potionEffect;
         this.attributeName = attributeName;
         this.attributeValue = attributeValue;
+        this.ordinal = SkillIndex.ordinalOf(id);
+        this.requiredOrdinal = requiredSkill != null ? SkillIndex.ordinalOf(requiredSkill) : -1;
     }
 
     // Геттеры
@@ -54,9 +58,11 @@ public class Skill {
     public int getBaseCost() { return baseCost; }
     public String getRequiredSkill() { return requiredSkill; }
     public int getRequiredLevel() { return requiredLevel; }
+    public int getRequiredOrdinal() { return requiredOrdinal; }
     public PotionEffectType getPotionEffect() { return potionEffect; }
     public String getAttributeName() { return attributeName; }
     public double getAttributeValue() { return attributeValue; }
+    public int getOrdinal() { return ordinal; }
 
     // Методы
     public int getCostForLevel(int level) {
@@ -69,7 +75,7 @@ public class Skill {
 
     public boolean hasRequirements(PlayerSkillData playerData) {
         if (requiredSkill == null) return true;
-        int currentLevel = playerData.getSkillLevel(requiredSkill);
+        int currentLevel = playerData.getSkillLevel(requiredOrdinal);
         return currentLevel >= requiredLevel;
     }
 
@@ -0,0 +1,72 @@
+package com.example.mineskills.models;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Плотная нумерация ID скиллов
+ *
+ * Каждый ID получает порядковый номер (0, 1, 2, ...) при первом обращении
+ * и сохраняет его до выключения сервера. Номера никогда не переиспользуются,
+ * поэтому уровни в {@link PlayerSkillData} хранятся в массиве по номеру,
+ * а горячие пути (урон, добыча, движение) читают уровень без хеширования строк.
+ *
+ * Скиллы регистрирует SkillManager в порядке объявления; ID, которые
+ * встречаются только в сохраненных данных, получают номера следом,
+ * чтобы не потеряться при следующем сохранении.
+ */
+public final class SkillIndex {
+    private static final Map<String, Integer> ordinals = new ConcurrentHashMap<>();
+    private static volatile String[] ids = new String[0];
+
+    private SkillIndex() {
+    }
+
+    /**
+     * Получить номер скилла, присвоив новый при первом обращении
+     */
+    public static int ordinalOf(String skillId) {
+        Integer ordinal = ordinals.get(skillId);
+        if (ordinal != null) {
+            return ordinal;
+        }
+        return register(skillId);
+    }
+
+    /**
+     * Найти номер скилла без регистрации (-1, если ID неизвестен)
+     */
+    public static int find(String skillId) {
+        Integer ordinal = ordinals.get(skillId);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    /**
+     * ID скилла по номеру
+     */
+    public static String idOf(int ordinal) {
+        return ids[ordinal];
+    }
+
+    /**
+     * Количество выданных номеров
+     */
+    public static int size() {
+        return ids.length;
+    }
+
+    private static synchronized int register(String skillId) {
+        Integer existing = ordinals.get(skillId);
+        if (existing != null) {
+            return existing;
+        }
+
+        int ordinal = ids.length;
+        String[] grown = Arrays.copyOf(ids, ordinal + 1);
+        grown[ordinal] = skillId;
+        ids = grown; // массив публикуется до номера - idOf всегда найдет ID
+        ordinals.put(skillId, ordinal);
+        return ordinal;
+    }
+}
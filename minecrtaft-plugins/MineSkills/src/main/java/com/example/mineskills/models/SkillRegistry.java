@@ -0,0 +1,276 @@
+package com.example.mineskills.models;
+
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Registry;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.potion.PotionEffectType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Скомпилированный реестр скиллов и цепочек из skills.yml
+ *
+ * Строится целиком при загрузке и после этого не меняется: скиллы лежат
+ * в массиве по номеру из {@link SkillIndex}, скиллы веток - в готовых
+ * неизменяемых списках по номеру ветки, цепочки требований проверены
+ * на циклы. Поэтому поиск скилла или ветки - чтение массива без аллокаций, а
+ * перезагрузка - подмена одной ссылки на новый реестр.
+ *
+ * Ошибки в описании (неизвестная ветка, материал, требование или
+ * циклическая зависимость) приводят к IllegalArgumentException - текущий
+ * реестр при этом остается в работе.
+ */
+public final class SkillRegistry {
+    private final Skill[] skillsByOrdinal;
+    private final Map<String, Skill> skillsById;
+    private final List<Skill> allSkills;
+    private final List<List<Skill>> skillsByBranch;
+    private final Map<String, SkillChain> skillChains;
+
+    private SkillRegistry(Skill[] skillsByOrdinal, Map<String, Skill> skillsById, List<List<Skill>> skillsByBranch,
+                          Map<String, SkillChain> skillChains) {
+        this.skillsByOrdinal = skillsByOrdinal;
+        this.skillsById = Collections.unmodifiableMap(skillsById);
+        this.allSkills = Collections.unmodifiableList(new ArrayList<>(skillsById.values()));
+        this.skillsByBranch = skillsByBranch;
+        this.skillChains = Collections.unmodifiableMap(skillChains);
+    }
+
+    /**
+     * Скомпилировать реестр из корня skills.yml (секции skills и chains)
+     */
+    public static SkillRegistry compile(ConfigurationSection root) {
+        ConfigurationSection skillsSection = root.getConfigurationSection("skills");
+        if (skillsSection == null || skillsSection.getKeys(false).isEmpty()) {
+            throw new IllegalArgumentException("skills.yml: секция skills пуста");
+        }
+
+        // Скиллы в порядке объявления - в этом же порядке они идут в ветках GUI
+        Map<String, Skill> skillsById = new LinkedHashMap<>();
+        for (String id : skillsSection.getKeys(false)) {
+            ConfigurationSection section = skillsSection.getConfigurationSection(id);
+            if (section == null) {
+                throw new IllegalArgumentException("skills." + id + ": ожидается секция");
+            }
+            skillsById.put(id, parseSkill(id, section));
+        }
+
+        int size = 0;
+        for (Skill skill : skillsById.values()) {
+            size = Math.max(size, Math.max(skill.getOrdinal(), skill.getRequiredOrdinal()) + 1);
+        }
+        Skill[] skillsByOrdinal = new Skill[size];
+        for (Skill skill : skillsById.values()) {
+            skillsByOrdinal[skill.getOrdinal()] = skill;
+        }
+
+        // Требования должны ссылаться на объявленные скиллы и допустимый уровень
+        for (Skill skill : skillsById.values()) {
+            if (skill.getRequiredSkill() == null) continue;
+
+            Skill required = skillsById.get(skill.getRequiredSkill());
+            if (required == null) {
+                throw new IllegalArgumentException("skills." + skill.getId() + ".requires: неизвестный скилл "
+                    + skill.getRequiredSkill());
+            }
+            if (skill.getRequiredLevel() < 1 || skill.getRequiredLevel() > required.getMaxLevel()) {
+                throw new IllegalArgumentException("skills." + skill.getId() + ".requires: уровень "
+                    + skill.getRequiredLevel() + " вне диапазона 1-" + required.getMaxLevel());
+            }
+        }
+
+        for (Skill skill : skillsById.values()) {
+            checkRequirementCycle(skill, skillsByOrdinal);
+        }
+
+        SkillBranch[] branches = SkillBranch.values();
+        List<List<Skill>> skillsByBranch = new ArrayList<>(branches.length);
+        for (SkillBranch branch : branches) {
+            List<Skill> branchSkills = new ArrayList<>();
+            for (Skill skill : skillsById.values()) {
+                if (skill.getBranch() == branch) {
+                    branchSkills.add(skill);
+                }
+            }
+            skillsByBranch.add(Collections.unmodifiableList(branchSkills));
+        }
+
+        Map<String, SkillChain> skillChains = new HashMap<>();
+        ConfigurationSection chainsSection = root.getConfigurationSection("chains");
+        if (chainsSection != null) {
+            for (String id : chainsSection.getKeys(false)) {
+                Skill skill = skillsById.get(id);
+                if (skill == null) {
+                    throw new IllegalArgumentException("chains." + id + ": неизвестный скилл");
+                }
+                skillChains.put(id, parseChain(skill, chainsSection.getMapList(id)));
+            }
+        }
+
+        return new SkillRegistry(skillsByOrdinal, skillsById, Collections.unmodifiableList(skillsByBranch),
+            skillChains);
+    }
+
+    /**
+     * Разобрать описание одного скилла
+     */
+    private static Skill parseSkill(String id, ConfigurationSection section) {
+        String path = "skills." + id;
+
+        SkillBranch branch = parseEnum(SkillBranch.class, section.getString("branch"), path + ".branch");
+        Material icon = parseMaterial(section.getString("icon"), path + ".icon");
+
+        int maxLevel = section.getInt("max-level", 5);
+        if (maxLevel < 1) {
+            throw new IllegalArgumentException(path + ".max-level: должен быть не меньше 1");
+        }
+        int baseCost = section.getInt("base-cost", 1);
+        if (baseCost < 0) {
+            throw new IllegalArgumentException(path + ".base-cost: не может быть отрицательным");
+        }
+
+        String requiredSkill = section.getString("requires.skill");
+        int requiredLevel = requiredSkill != null ? section.getInt("requires.level", 1) : 0;
+
+        PotionEffectType potionEffect = null;
+        String potionName = section.getString("potion-effect");
+        if (potionName != null) {
+            potionEffect = Registry.EFFECT.get(NamespacedKey.minecraft(potionName.toLowerCase(Locale.ROOT)));
+            if (potionEffect == null) {
+                throw new IllegalArgumentException(path + ".potion-effect: неизвестный эффект " + potionName);
+            }
+        }
+
+        return new Skill(
+            id,
+            section.getString("name", id),
+            section.getString("description", ""),
+            branch,
+            icon,
+            Collections.unmodifiableList(new ArrayList<>(section.getStringList("levels"))),
+            maxLevel,
+            baseCost,
+            requiredSkill,
+            requiredLevel,
+            potionEffect,
+            section.getString("attribute.name"),
+            section.getDouble("attribute.value", 0.0)
+        );
+    }
+
+    /**
+     * Разобрать уровни цепочки навыков; последний уровень - максимальный
+     */
+    private static SkillChain parseChain(Skill skill, List<Map<?, ?>> levelMaps) {
+        String path = "chains." + skill.getId();
+        if (levelMaps.isEmpty()) {
+            throw new IllegalArgumentException(path + ": нет уровней");
+        }
+
+        List<SkillChain.SkillChainLevel> levels = new ArrayList<>(levelMaps.size());
+        for (int i = 0; i < levelMaps.size(); i++) {
+            Map<?, ?> level = levelMaps.get(i);
+            String levelPath = path + "[" + i + "]";
+
+            Object title = level.get("title");
+            Object description = level.get("description");
+            Object icon = level.get("icon");
+            levels.add(new SkillChain.SkillChainLevel(
+                i + 1,
+                title != null ? title.toString() : "Уровень " + (i + 1),
+                description != null ? description.toString() : "",
+                icon != null ? parseMaterial(icon.toString(), levelPath + ".icon") : skill.getIcon(),
+                i == levelMaps.size() - 1
+            ));
+        }
+
+        return new SkillChain(skill.getId(), skill.getName(), skill.getIcon(), Collections.unmodifiableList(levels));
+    }
+
+    /**
+     * Пройти цепочку requires скилла; цикл в требованиях - ошибка
+     */
+    private static void checkRequirementCycle(Skill skill, Skill[] skillsByOrdinal) {
+        BitSet visited = new BitSet(skillsByOrdinal.length);
+        Skill current = skill;
+        while (current.getRequiredOrdinal() >= 0) {
+            int required = current.getRequiredOrdinal();
+            if (required == skill.getOrdinal() || visited.get(required)) {
+                throw new IllegalArgumentException("skills." + skill.getId()
+                    + ".requires: циклическая зависимость через " + current.getRequiredSkill());
+            }
+            visited.set(required);
+            current = skillsByOrdinal[required];
+        }
+    }
+
+    private static Material parseMaterial(String name, String path) {
+        Material material = name != null ? Material.matchMaterial(name) : null;
+        if (material == null) {
+            throw new IllegalArgumentException(path + ": неизвестный материал " + name);
+        }
+        return material;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String name, String path) {
+        if (name != null) {
+            for (E value : type.getEnumConstants()) {
+                if (value.name().equalsIgnoreCase(name)) return value;
+            }
+        }
+        throw new IllegalArgumentException(path + ": неизвестное значение " + name
+            + " (допустимо: " + Arrays.toString(type.getEnumConstants()) + ")");
+    }
+
+    /**
+     * Скилл по ID (null, если не объявлен)
+     */
+    public Skill getSkill(String skillId) {
+        return skillsById.get(skillId);
+    }
+
+    /**
+     * Скилл по номеру из SkillIndex (null для номеров без скилла)
+     */
+    public Skill getSkill(int ordinal) {
+        return ordinal >= 0 && ordinal < skillsByOrdinal.length ? skillsByOrdinal[ordinal] : null;
+    }
+
+    /**
+     * Скиллы ветки в порядке объявления (неизменяемый список)
+     */
+    public List<Skill> getSkillsByBranch(SkillBranch branch) {
+        return skillsByBranch.get(branch.ordinal());
+    }
+
+    /**
+     * Все скиллы в порядке объявления (неизменяемый список)
+     */
+    public List<Skill> getAllSkills() {
+        return allSkills;
+    }
+
+    /**
+     * Цепочка навыков скилла (null, если не объявлена)
+     */
+    public SkillChain getSkillChain(String skillId) {
+        return skillChains.get(skillId);
+    }
+
+    public Map<String, SkillChain> getAllSkillChains() {
+        return skillChains;
+    }
+
+    public int size() {
+        return allSkills.size();
+    }
+}
@@ -0,0 +1,343 @@
+package com.example.mineskills.storage;
+
+import com.example.mineskills.models.ActionType;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Журнал действий игроков: append-only сегменты, отображенные в память
+ *
+ * Каждое изменение прогресса или очков записывается событием фиксированного
+ * размера (игрок, тип, приращение, время) и получает возрастающий номер.
+ * Запись - несколько put в MappedByteBuffer без системных вызовов и fsync:
+ * страницы остаются в кэше ОС и переживают падение процесса сервера.
+ * Данные игроков при этом в хранилище не переписываются - это делает
+ * периодическое сжатие (снимки в PlayerDataManager), после которого
+ * учтенные сегменты удаляются.
+ *
+ * Сегмент actions-<номер первого события в hex>.log:
+ *   заголовок: magic "MSAL" | версия (1 байт) | 3 байта выравнивания | номер первого события (long)
+ *   записи по 32 байта: тип (1 байт) | 3 байта | приращение (int) | время (long) | UUID (2 x long)
+ *
+ * Тип записывается последним: запись с типом 0 (нули разреженного файла)
+ * означает конец сегмента, поэтому недописанная запись при чтении не видна.
+ *
+ * Номера событий не должны начинаться заново, пока в хранилище есть записи
+ * с большим logSequence (иначе новые события считались бы уже учтенными).
+ * Поэтому рядом с папкой журнала хранится actionlog.seq - наибольший номер,
+ * когда-либо записанный в хранилище; он переживает удаление сегментов.
+ *
+ * append и rotate вызываются только из основного потока сервера.
+ */
+public class ActionLog {
+    public static final int MAGIC = 0x4D53414C; // "MSAL"
+    public static final int FORMAT_VERSION = 1;
+    public static final int HEADER_SIZE = 16;
+    public static final int RECORD_SIZE = 32;
+
+    private static final String PREFIX = "actions-";
+    private static final String SUFFIX = ".log";
+
+    private final File folder;
+    private final File watermarkFile;
+    private long savedWatermark;
+    private final int recordsPerSegment;
+    private final Logger logger;
+
+    // Активный сегмент (только основной поток)
+    private RandomAccessFile activeFile;
+    private MappedByteBuffer active;
+    private int activeRecords;
+
+    private volatile long activeBase;
+    private volatile long nextSequence = 1;
+
+    public ActionLog(File folder, int segmentBytes, Logger logger) {
+        this.folder = folder;
+        this.watermarkFile = new File(folder.getParentFile(), "actionlog.seq");
+        this.recordsPerSegment = Math.max(1, (segmentBytes - HEADER_SIZE) / RECORD_SIZE);
+        this.logger = logger;
+    }
+
+    /**
+     * Прочитать все сегменты по порядку номеров (вызывается до {@link #open()})
+     *
+     * @return число прочитанных событий
+     */
+    public long recover(EventConsumer consumer) throws IOException {
+        long count = 0;
+
+        if (watermarkFile.exists()) {
+            byte[] bytes = Files.readAllBytes(watermarkFile.toPath());
+            if (bytes.length == 8) {
+                savedWatermark = ByteBuffer.wrap(bytes).getLong();
+                nextSequence = Math.max(nextSequence, savedWatermark + 1);
+            } else {
+                logger.warning("Поврежден файл " + watermarkFile.getName() + ", номера событий берутся из сегментов");
+            }
+        }
+
+        for (File segment : listSegments()) {
+            try (RandomAccessFile file = new RandomAccessFile(segment, "r");
+                 FileChannel channel = file.getChannel()) {
+                if (channel.size() < HEADER_SIZE) {
+                    logger.warning("Пропущен поврежденный сегмент журнала " + segment.getName());
+                    continue;
+                }
+
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (buffer.getInt(0) != MAGIC || buffer.get(4) > FORMAT_VERSION) {
+                    throw new IOException("Неверный формат сегмента журнала " + segment.getName());
+                }
+
+                long base = buffer.getLong(8);
+                nextSequence = Math.max(nextSequence, base);
+
+                int records = (int) Math.min(Integer.MAX_VALUE, (channel.size() - HEADER_SIZE) / RECORD_SIZE);
+                for (int i = 0; i < records; i++) {
+                    int offset = HEADER_SIZE + i * RECORD_SIZE;
+                    int code = buffer.get(offset);
+                    if (code == 0) break;
+
+                    ActionType type = ActionType.fromCode(code);
+                    if (type == null) {
+                        throw new IOException("Неизвестный тип события " + code + " в " + segment.getName());
+                    }
+
+                    long sequence = base + i;
+                    consumer.accept(sequence, new UUID(buffer.getLong(offset + 16), buffer.getLong(offset + 24)),
+                        type, buffer.getInt(offset + 4), buffer.getLong(offset + 8));
+                    nextSequence = Math.max(nextSequence, sequence + 1);
+                    count++;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Начать новый активный сегмент (старые остаются до {@link #deleteSegmentsBefore(long)})
+     */
+    public void open() throws IOException {
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Не удалось создать папку журнала " + folder);
+        }
+        startSegment();
+    }
+
+    /**
+     * Дописать событие, возвращает его номер или -1, если журнал недоступен
+     */
+    public long append(UUID uuid, ActionType type, int amount) {
+        if (active == null) return -1;
+
+        if (activeRecords >= recordsPerSegment) {
+            try {
+                rotate();
+            } catch (IOException e) {
+                logger.severe("Не удалось начать новый сегмент журнала действий: " + e.getMessage());
+                return -1;
+            }
+        }
+
+        int offset = HEADER_SIZE + activeRecords * RECORD_SIZE;
+        active.putInt(offset + 4, amount);
+        active.putLong(offset + 8, System.currentTimeMillis());
+        active.putLong(offset + 16, uuid.getMostSignificantBits());
+        active.putLong(offset + 24, uuid.getLeastSignificantBits());
+        active.put(offset, (byte) type.getCode());
+
+        activeRecords++;
+        return nextSequence++;
+    }
+
+    /**
+     * Закрыть активный сегмент и начать новый
+     *
+     * @return номер первого события нового сегмента: все события с меньшими
+     *         номерами лежат в закрытых сегментах
+     */
+    public long rotate() throws IOException {
+        closeActive(false);
+        startSegment();
+        return activeBase;
+    }
+
+    /**
+     * Продолжить нумерацию не ниже sequence (запись в хранилище оказалась новее журнала);
+     * номер события определяется его местом в сегменте, поэтому начинается новый сегмент
+     *
+     * @return false, если нумерация уже не ниже sequence
+     */
+    public boolean advanceTo(long sequence) throws IOException {
+        if (sequence <= nextSequence) return false;
+
+        nextSequence = sequence;
+        if (active != null) {
+            closeActive(false);
+            startSegment();
+        }
+        return true;
+    }
+
+    /**
+     * Запомнить, что в хранилище записаны события до sequence включительно
+     * (вызывается перед записью снимков, из любого потока)
+     */
+    public synchronized void saveWatermark(long sequence) throws IOException {
+        if (sequence <= savedWatermark) return;
+
+        StorageFiles.writeAtomically(watermarkFile, ByteBuffer.allocate(8).putLong(sequence).array());
+        savedWatermark = sequence;
+    }
+
+    /**
+     * Удалить закрытые сегменты, все события которых имеют номер меньше boundary
+     * (можно вызывать из любого потока)
+     */
+    public int deleteSegmentsBefore(long boundary) {
+        boundary = Math.min(boundary, activeBase);
+
+        List<File> segments = listSegments();
+        int deleted = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            // Последнее событие сегмента - перед первым событием следующего
+            long nextBase = i + 1 < segments.size() ? baseOf(segments.get(i + 1)) : activeBase;
+            if (nextBase > boundary || baseOf(segments.get(i)) >= activeBase) break;
+
+            try {
+                Files.deleteIfExists(segments.get(i).toPath());
+                deleted++;
+            } catch (IOException e) {
+                logger.warning("Не удалось удалить сегмент журнала " + segments.get(i).getName() + ": " + e.getMessage());
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Сбросить страницы активного сегмента на диск (для фоновой задачи)
+     */
+    public void force() {
+        MappedByteBuffer current = active;
+        if (current != null) {
+            current.force();
+        }
+    }
+
+    /**
+     * Номер последнего записанного события (0, если событий не было)
+     */
+    public long getLastSequence() {
+        return nextSequence - 1;
+    }
+
+    /**
+     * Количество сегментов на диске, включая активный
+     */
+    public int getSegmentCount() {
+        return listSegments().size();
+    }
+
+    /**
+     * Сбросить активный сегмент на диск и закрыть его
+     */
+    public void close() {
+        try {
+            closeActive(true);
+        } catch (IOException e) {
+            logger.warning("Ошибка закрытия журнала действий: " + e.getMessage());
+        }
+    }
+
+    private void startSegment() throws IOException {
+        long base = nextSequence;
+        File file = new File(folder, segmentName(base));
+
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            long size = HEADER_SIZE + (long) recordsPerSegment * RECORD_SIZE;
+            MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(0, MAGIC);
+            buffer.put(4, (byte) FORMAT_VERSION);
+            buffer.putLong(8, base);
+
+            activeFile = raf;
+            active = buffer;
+            activeRecords = 0;
+            activeBase = base;
+        } catch (IOException | RuntimeException e) {
+            raf.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Закрыть активный сегмент; sync - дождаться записи страниц на диск
+     *
+     * rotate и advanceTo вызываются в тике, поэтому закрывают сегмент без msync:
+     * страницы закрытого сегмента остаются в кэше ОС и записываются им самим,
+     * как и страницы активного.
+     */
+    private void closeActive(boolean sync) throws IOException {
+        if (active == null) return;
+
+        if (sync) {
+            active.force();
+        }
+        active = null;
+        activeFile.close();
+        activeFile = null;
+    }
+
+    /**
+     * Сегменты на диске по возрастанию номера первого события
+     */
+    private List<File> listSegments() {
+        List<File> segments = new ArrayList<>();
+        File[] files = folder.listFiles((dir, name) -> name.startsWith(PREFIX) && name.endsWith(SUFFIX));
+        if (files == null) return segments;
+
+        for (File file : files) {
+            if (baseOf(file) >= 0) {
+                segments.add(file);
+            }
+        }
+        // Номер записан в hex фиксированной ширины - порядок имен совпадает с порядком номеров
+        segments.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return segments;
+    }
+
+    private static String segmentName(long base) {
+        return PREFIX + String.format(Locale.ROOT, "%016x", base) + SUFFIX;
+    }
+
+    private static long baseOf(File segment) {
+        String name = segment.getName();
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()), 16);
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Получатель событий при восстановлении
+     */
+    @FunctionalInterface
+    public interface EventConsumer {
+        void accept(long sequence, UUID uuid, ActionType type, int amount, long timestamp) throws IOException;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.mineskills.storage;
+
+import com.example.mineskills.models.PlayerSkillData;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Хранилище в одном бинарном файле players.dat ({@link PlayerSkillDataCodec})
+ *
+ * Все записи держатся в памяти закодированными и раскодируются только
+ * при загрузке конкретного игрока. Любое сохранение переписывает файл
+ * целиком, но без повторного кодирования неизмененных записей.
+ */
+public class BinaryPlayerDataStore implements PlayerDataStore {
+    private final File dataFile;
+    private final PlayerSkillDataCodec codec;
+    private final Map<UUID, byte[]> records;
+    private volatile long bytesWritten;
+
+    public BinaryPlayerDataStore(File dataFile) throws IOException {
+        this.dataFile = dataFile;
+        this.codec = new PlayerSkillDataCodec();
+        this.records = new ConcurrentHashMap<>();
+
+        if (dataFile.exists()) {
+            records.putAll(codec.readFile(Files.readAllBytes(dataFile.toPath())));
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "binary (" + dataFile.getName() + ")";
+    }
+
+    @Override
+    public PlayerSkillData load(UUID uuid) throws IOException {
+        byte[] record = records.get(uuid);
+        return record != null ? codec.decode(uuid.toString(), record) : null;
+    }
+
+    @Override
+    public Set<UUID> listPlayers() {
+        return new HashSet<>(records.keySet());
+    }
+
+    @Override
+    public synchronized void save(UUID uuid, PlayerSkillData data) throws IOException {
+        records.put(uuid, codec.encode(data));
+        writeFile();
+    }
+
+    @Override
+    public synchronized void saveBatch(Map<UUID, PlayerSkillData> batch) throws IOException {
+        if (batch.isEmpty()) return;
+
+        for (Map.Entry<UUID, PlayerSkillData> entry : batch.entrySet()) {
+            records.put(entry.getKey(), codec.encode(entry.getValue()));
+        }
+        writeFile();
+    }
+
+    @Override
+    public synchronized void delete(UUID uuid) throws IOException {
+        if (records.remove(uuid) != null) {
+            writeFile();
+        }
+    }
+
+    @Override
+    public synchronized File backup(File backupFolder) throws IOException {
+        File backupFile = StorageFiles.backupFile(backupFolder, "dat");
+        if (dataFile.exists()) {
+            Files.copy(dataFile.toPath(), backupFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            StorageFiles.writeAtomically(backupFile, codec.writeFile(records));
+        }
+        return backupFile;
+    }
+
+    @Override
+    public synchronized void restore(File backupFile) throws IOException {
+        String name = backupFile.getName();
+        Map<UUID, byte[]> restored = name.endsWith(".yml") || name.endsWith(".yaml")
+            ? readYamlRecords(backupFile)
+            : codec.readFile(Files.readAllBytes(backupFile.toPath()));
+        records.clear();
+        records.putAll(restored);
+        writeFile();
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * Записи из YAML копии, сделанной до перехода на players.dat
+     */
+    private Map<UUID, byte[]> readYamlRecords(File backupFile) throws IOException {
+        YamlPlayerDataStore source = new YamlPlayerDataStore(backupFile);
+        Map<UUID, byte[]> result = new HashMap<>();
+        for (UUID uuid : source.listPlayers()) {
+            PlayerSkillData data = source.load(uuid);
+            if (data != null) {
+                result.put(uuid, codec.encode(data));
+            }
+        }
+        return result;
+    }
+
+    private void writeFile() throws IOException {
+        byte[] bytes = codec.writeFile(records);
+        StorageFiles.writeAtomically(dataFile, bytes);
+        bytesWritten += bytes.length;
+    }
+}
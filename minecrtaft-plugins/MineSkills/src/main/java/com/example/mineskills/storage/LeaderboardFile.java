@@ -0,0 +1,174 @@
+package com.example.mineskills.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Файл индекса таблицы лидеров (data/leaderboard.dat)
+ *
+ * Структура:
+ *   magic "MSLB" | версия формата (1 байт) | varint число метрик
+ *   varint количество строк, затем для каждой строки:
+ *     UUID (2 x long) | имя (varint длина + UTF-8) | значения метрик (long каждое)
+ *
+ * Файл переписывается целиком атомарно. Если число метрик не совпадает
+ * с текущим, файл считается устаревшим и индекс строится заново.
+ *
+ * Рядом ведется список записей хранилища (leaderboard.dat.written): UUID
+ * игроков (2 x long), чьи снимки записаны после последнего сохранения
+ * индекса. При запуске перечитываются только эти игроки.
+ */
+public final class LeaderboardFile {
+    public static final int MAGIC = 0x4D534C42; // "MSLB"
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int ID_BYTES = 16;
+
+    private LeaderboardFile() {
+    }
+
+    /**
+     * Прочитать строки индекса; null, если файла нет или он другой версии
+     */
+    public static Map<UUID, Row> read(File file, int metricCount) throws IOException {
+        if (!file.exists()) return null;
+
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        PlayerSkillDataCodec.ByteReader in = new PlayerSkillDataCodec.ByteReader(bytes, 0, bytes.length);
+
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Неверный формат файла " + file.getName());
+        }
+        if (in.readByte() != FORMAT_VERSION || in.readVarInt() != metricCount) {
+            return null;
+        }
+
+        int count = in.readVarInt();
+        Map<UUID, Row> rows = new HashMap<>(Math.max(16, count * 2));
+        for (int i = 0; i < count; i++) {
+            UUID uuid = new UUID(in.readLong(), in.readLong());
+            Row row = new Row(in.readString(), metricCount);
+            for (int metric = 0; metric < metricCount; metric++) {
+                row.scores[metric] = in.readLong();
+            }
+            rows.put(uuid, row);
+        }
+        return rows;
+    }
+
+    /**
+     * Записать строки индекса, возвращает число записанных байт
+     */
+    public static int write(File file, Map<UUID, Row> rows, int metricCount) throws IOException {
+        PlayerSkillDataCodec.ByteWriter out = new PlayerSkillDataCodec.ByteWriter(16 + rows.size() * (40 + metricCount * 8));
+        out.writeInt(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        out.writeVarInt(metricCount);
+        out.writeVarInt(rows.size());
+
+        for (Map.Entry<UUID, Row> entry : rows.entrySet()) {
+            out.writeLong(entry.getKey().getMostSignificantBits());
+            out.writeLong(entry.getKey().getLeastSignificantBits());
+            out.writeString(entry.getValue().name);
+            for (int metric = 0; metric < metricCount; metric++) {
+                out.writeLong(entry.getValue().scores[metric]);
+            }
+        }
+
+        StorageFiles.writeAtomically(file, out.toByteArray());
+        return out.size();
+    }
+
+    /**
+     * Дописать UUID игроков в список записей хранилища, возвращает число байт
+     */
+    public static int appendIds(File file, Collection<UUID> ids) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(ids.size() * ID_BYTES);
+        for (UUID uuid : ids) {
+            buffer.putLong(uuid.getMostSignificantBits());
+            buffer.putLong(uuid.getLeastSignificantBits());
+        }
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        return ids.size() * ID_BYTES;
+    }
+
+    /**
+     * Прочитать список записей хранилища; недописанный хвост (падение во время записи) отрезается
+     */
+    public static Set<UUID> readIds(File file) throws IOException {
+        Set<UUID> ids = new LinkedHashSet<>();
+        if (!file.exists()) return ids;
+
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        int complete = bytes.length - bytes.length % ID_BYTES;
+        if (complete != bytes.length) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(complete);
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, complete);
+        while (buffer.hasRemaining()) {
+            ids.add(new UUID(buffer.getLong(), buffer.getLong()));
+        }
+        return ids;
+    }
+
+    /**
+     * Убрать из списка первые bytes байт (записи, уже учтенные в сохраненном индексе)
+     */
+    public static void dropIds(File file, long bytes) throws IOException {
+        if (!file.exists()) return;
+
+        byte[] all = Files.readAllBytes(file.toPath());
+        if (bytes >= all.length) {
+            Files.delete(file.toPath());
+            return;
+        }
+        StorageFiles.writeAtomically(file, Arrays.copyOfRange(all, (int) bytes, all.length));
+    }
+
+    /**
+     * Строка индекса: имя игрока и значения всех метрик по их порядку
+     */
+    public static final class Row {
+        private String name;
+        private final long[] scores;
+
+        public Row(String name, int metricCount) {
+            this.name = name;
+            this.scores = new long[metricCount];
+        }
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public long getScore(int metric) { return scores[metric]; }
+        public void setScore(int metric, long score) { scores[metric] = score; }
+
+        public Row copy() {
+            Row copy = new Row(name, scores.length);
+            System.arraycopy(scores, 0, copy.scores, 0, scores.length);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.mineskills.storage;
+
+import com.example.mineskills.models.PlayerSkillData;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Хранилище данных игроков MineSkills
+ *
+ * PlayerDataManager держит кэш и решает, когда писать; реализация отвечает
+ * только за формат и носитель. В save/saveBatch передаются независимые
+ * снимки данных ({@link PlayerSkillData#snapshot()}), поэтому реализация может
+ * обрабатывать их в своем потоке без синхронизации с основным.
+ */
+public interface PlayerDataStore {
+
+    /**
+     * Название хранилища для логов и статистики
+     */
+    String getName();
+
+    /**
+     * Загрузить данные игрока или null, если записи нет
+     */
+    PlayerSkillData load(UUID uuid) throws IOException;
+
+    /**
+     * UUID всех игроков, имеющих запись в хранилище
+     */
+    Set<UUID> listPlayers() throws IOException;
+
+    /**
+     * Сохранить данные одного игрока
+     */
+    void save(UUID uuid, PlayerSkillData data) throws IOException;
+
+    /**
+     * Сохранить пачку игроков одной операцией
+     */
+    void saveBatch(Map<UUID, PlayerSkillData> batch) throws IOException;
+
+    /**
+     * Удалить запись игрока
+     */
+    void delete(UUID uuid) throws IOException;
+
+    /**
+     * Создать резервную копию в папке backupFolder, возвращает файл копии
+     */
+    File backup(File backupFolder) throws IOException;
+
+    /**
+     * Заменить содержимое хранилища данными из резервной копии
+     */
+    void restore(File backupFile) throws IOException;
+
+    /**
+     * Байт записано в хранилище с момента открытия (для статистики)
+     */
+    long getBytesWritten();
+
+    /**
+     * Закрыть хранилище (вызывается после финального сохранения)
+     */
+    void close();
+}
@@ -0,0 +1,373 @@
+package com.example.mineskills.storage;
+
+import com.example.mineskills.models.PlayerSkillData;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Бинарный кодек данных игроков MineSkills (формат players.dat)
+ *
+ * Структура файла:
+ *   magic "MSKD" | версия формата (1 байт)
+ *   словарь id скиллов: varint count, затем count строк (varint длина + UTF-8)
+ *   varint количество записей, затем для каждой записи:
+ *     UUID (2 x long) | varint длина записи | тело записи
+ *
+ * Тело записи (версия 1):
+ *   имя (varint длина + UTF-8) | skillPoints | totalPointsEarned
+ *   varint количество скиллов, затем пары (индекс в словаре, уровень)
+ *   четыре счетчика прогресса: mining, combat, movement, jumping
+ *   номер последнего учтенного события журнала действий (long, 8 байт) -
+ *   добавлен в конец записи, в старых записях отсутствует и считается 0
+ *
+ * Все целые пишутся как zigzag-varint. Новые поля в следующих версиях
+ * добавляются только в конец тела записи: старый код читает известные поля
+ * и пропускает остаток записи по ее длине, поэтому файл более новой версии
+ * остается читаемым.
+ *
+ * Словарь id скиллов append-only: индекс однажды выданного id не меняется,
+ * поэтому закодированные записи можно хранить в памяти как есть и
+ * переписывать в файл без повторного кодирования.
+ */
+public class PlayerSkillDataCodec {
+    public static final int MAGIC = 0x4D534B44; // "MSKD"
+    public static final int FORMAT_VERSION = 1;
+
+    private final List<String> skillIds = new ArrayList<>();
+    private final Map<String, Integer> skillIndex = new HashMap<>();
+
+    /**
+     * Получить индекс скилла в словаре (добавляет новый id при необходимости)
+     */
+    public synchronized int indexOf(String skillId) {
+        Integer index = skillIndex.get(skillId);
+        if (index != null) {
+            return index;
+        }
+
+        int newIndex = skillIds.size();
+        skillIds.add(skillId);
+        skillIndex.put(skillId, newIndex);
+        return newIndex;
+    }
+
+    /**
+     * Получить id скилла по индексу в словаре
+     */
+    public synchronized String skillIdAt(int index) throws IOException {
+        if (index < 0 || index >= skillIds.size()) {
+            throw new IOException("Индекс скилла вне словаря: " + index);
+        }
+        return skillIds.get(index);
+    }
+
+    /**
+     * Получить размер словаря скиллов
+     */
+    public synchronized int getDictionarySize() {
+        return skillIds.size();
+    }
+
+    /**
+     * Закодировать данные одного игрока в тело записи
+     */
+    public byte[] encode(PlayerSkillData data) {
+        ByteWriter out = new ByteWriter(64);
+        encode(data, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Закодировать данные игрока в переданный буфер
+     */
+    public void encode(PlayerSkillData data, ByteWriter out) {
+        out.writeString(data.getPlayerName());
+        out.writeVarInt(data.getSkillPoints());
+        out.writeVarInt(data.getTotalPointsEarned());
+
+        out.writeVarInt(data.getLearnedSkillCount());
+        data.forEachSkill((skillId, level) -> {
+            out.writeVarInt(indexOf(skillId));
+            out.writeVarInt(level);
+        });
+
+        PlayerSkillData.ActionProgress progress = data.getActionProgress();
+        out.writeVarInt(progress.getMiningProgress());
+        out.writeVarInt(progress.getCombatProgress());
+        out.writeVarInt(progress.getMovementProgress());
+        out.writeVarInt(progress.getJumpingProgress());
+        out.writeLong(data.getLogSequence());
+    }
+
+    /**
+     * Раскодировать тело записи игрока
+     */
+    public PlayerSkillData decode(String uuid, byte[] record) throws IOException {
+        ByteReader in = new ByteReader(record, 0, record.length);
+
+        String name = in.readString();
+        int skillPoints = in.readVarInt();
+        int totalPoints = in.readVarInt();
+
+        int skillCount = in.readVarInt();
+        Map<String, Integer> skills = new HashMap<>(Math.max(4, skillCount * 2));
+        for (int i = 0; i < skillCount; i++) {
+            String skillId = skillIdAt(in.readVarInt());
+            skills.put(skillId, in.readVarInt());
+        }
+
+        PlayerSkillData.ActionProgress progress = new PlayerSkillData.ActionProgress(
+            in.readVarInt(), in.readVarInt(), in.readVarInt(), in.readVarInt());
+
+        PlayerSkillData data = new PlayerSkillData(name, uuid, skillPoints, totalPoints, skills, progress);
+        if (in.remaining() >= Long.BYTES) {
+            data.setLogSequence(in.readLong());
+        }
+
+        // Оставшиеся байты - поля более новых версий формата, пропускаем их
+        return data;
+    }
+
+    /**
+     * Собрать файл целиком: заголовок, словарь и все записи
+     */
+    public byte[] writeFile(Map<UUID, byte[]> records) {
+        int estimated = 64;
+        for (byte[] record : records.values()) {
+            estimated += record.length + 24;
+        }
+
+        ByteWriter out = new ByteWriter(estimated);
+        out.writeInt(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+
+        synchronized (this) {
+            out.writeVarInt(skillIds.size());
+            for (String skillId : skillIds) {
+                out.writeString(skillId);
+            }
+        }
+
+        // Количество пишем после обхода: ConcurrentHashMap может меняться во время записи
+        ByteWriter body = new ByteWriter(estimated);
+        int count = 0;
+        for (Map.Entry<UUID, byte[]> entry : records.entrySet()) {
+            UUID uuid = entry.getKey();
+            byte[] record = entry.getValue();
+            body.writeLong(uuid.getMostSignificantBits());
+            body.writeLong(uuid.getLeastSignificantBits());
+            body.writeVarInt(record.length);
+            body.writeBytes(record, 0, record.length);
+            count++;
+        }
+
+        out.writeVarInt(count);
+        out.writeBytes(body.buffer, 0, body.size);
+        return out.toByteArray();
+    }
+
+    /**
+     * Прочитать файл: заполняет словарь и возвращает закодированные записи
+     */
+    public Map<UUID, byte[]> readFile(byte[] bytes) throws IOException {
+        ByteReader in = new ByteReader(bytes, 0, bytes.length);
+
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Неверный формат файла данных игроков");
+        }
+
+        int version = in.readByte();
+        if (version < 1) {
+            throw new IOException("Неподдерживаемая версия формата: " + version);
+        }
+
+        int dictionarySize = in.readVarInt();
+        List<String> dictionary = new ArrayList<>(dictionarySize);
+        for (int i = 0; i < dictionarySize; i++) {
+            dictionary.add(in.readString());
+        }
+
+        synchronized (this) {
+            skillIds.clear();
+            skillIndex.clear();
+            for (String skillId : dictionary) {
+                skillIndex.put(skillId, skillIds.size());
+                skillIds.add(skillId);
+            }
+        }
+
+        int count = in.readVarInt();
+        Map<UUID, byte[]> records = new HashMap<>(Math.max(16, count * 2));
+        for (int i = 0; i < count; i++) {
+            UUID uuid = new UUID(in.readLong(), in.readLong());
+            int length = in.readVarInt();
+            records.put(uuid, in.readBytes(length));
+        }
+
+        return records;
+    }
+
+    /**
+     * Растущий буфер записи без промежуточных объектов
+     */
+    public static final class ByteWriter {
+        private byte[] buffer;
+        private int size;
+
+        public ByteWriter(int initialCapacity) {
+            this.buffer = new byte[Math.max(16, initialCapacity)];
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+
+        public void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) value;
+        }
+
+        public void writeInt(int value) {
+            ensureCapacity(4);
+            buffer[size++] = (byte) (value >>> 24);
+            buffer[size++] = (byte) (value >>> 16);
+            buffer[size++] = (byte) (value >>> 8);
+            buffer[size++] = (byte) value;
+        }
+
+        public void writeLong(long value) {
+            writeInt((int) (value >>> 32));
+            writeInt((int) value);
+        }
+
+        /**
+         * Записать int как zigzag-varint (1 байт для значений -64..63)
+         */
+        public void writeVarInt(int value) {
+            int zigzag = (value << 1) ^ (value >> 31);
+            ensureCapacity(5);
+            while ((zigzag & ~0x7F) != 0) {
+                buffer[size++] = (byte) ((zigzag & 0x7F) | 0x80);
+                zigzag >>>= 7;
+            }
+            buffer[size++] = (byte) zigzag;
+        }
+
+        public void writeString(String value) {
+            byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            writeBytes(bytes, 0, bytes.length);
+        }
+
+        public void writeBytes(byte[] bytes, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, offset, buffer, size, length);
+            size += length;
+        }
+
+        public void reset() {
+            size = 0;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+
+    /**
+     * Чтение из массива байт с проверкой границ
+     */
+    public static final class ByteReader {
+        private final byte[] buffer;
+        private final int limit;
+        private int position;
+
+        public ByteReader(byte[] buffer, int offset, int length) {
+            this.buffer = buffer;
+            this.position = offset;
+            this.limit = offset + length;
+        }
+
+        private void require(int count) throws IOException {
+            if (position + count > limit) {
+                throw new IOException("Неожиданный конец данных");
+            }
+        }
+
+        public int remaining() {
+            return limit - position;
+        }
+
+        public int readByte() throws IOException {
+            require(1);
+            return buffer[position++] & 0xFF;
+        }
+
+        public int readInt() throws IOException {
+            require(4);
+            int value = ((buffer[position] & 0xFF) << 24)
+                | ((buffer[position + 1] & 0xFF) << 16)
+                | ((buffer[position + 2] & 0xFF) << 8)
+                | (buffer[position + 3] & 0xFF);
+            position += 4;
+            return value;
+        }
+
+        public long readLong() throws IOException {
+            long high = readInt() & 0xFFFFFFFFL;
+            long low = readInt() & 0xFFFFFFFFL;
+            return (high << 32) | low;
+        }
+
+        public int readVarInt() throws IOException {
+            int result = 0;
+            int shift = 0;
+            while (true) {
+                if (shift > 28) {
+                    throw new IOException("Слишком длинный varint");
+                }
+                int b = readByte();
+                result |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    break;
+                }
+                shift += 7;
+            }
+            return (result >>> 1) ^ -(result & 1);
+        }
+
+        public String readString() throws IOException {
+            int length = readVarInt();
+            if (length < 0) {
+                throw new IOException("Отрицательная длина строки");
+            }
+            require(length);
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        public byte[] readBytes(int length) throws IOException {
+            if (length < 0) {
+                throw new IOException("Отрицательная длина записи");
+            }
+            require(length);
+            byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.example.mineskills.storage;
+
+import com.example.mineskills.models.PlayerSkillData;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Хранилище во встроенной базе SQLite (драйвер org.xerial, входит в сервер)
+ *
+ * Соединение принадлежит одному выделенному потоку ввода-вывода: все запросы
+ * выполняются на нем, вызывающий поток лишь ждет результат. База работает
+ * в режиме WAL, запросы заранее подготовлены, пачка игроков сохраняется
+ * одной транзакцией через batch upsert. Резервные копии делаются онлайн
+ * командами драйвера "backup to" / "restore from" без остановки записи.
+ */
+public class SqlitePlayerDataStore implements PlayerDataStore {
+    private static final String CREATE_PLAYERS =
+        "CREATE TABLE IF NOT EXISTS players ("
+            + "uuid TEXT PRIMARY KEY, "
+            + "name TEXT NOT NULL, "
+            + "skill_points INTEGER NOT NULL, "
+            + "total_points INTEGER NOT NULL, "
+            + "mining INTEGER NOT NULL DEFAULT 0, "
+            + "combat INTEGER NOT NULL DEFAULT 0, "
+            + "movement INTEGER NOT NULL DEFAULT 0, "
+            + "jumping INTEGER NOT NULL DEFAULT 0, "
+            + "log_sequence INTEGER NOT NULL DEFAULT 0)";
+    private static final String CREATE_SKILLS =
+        "CREATE TABLE IF NOT EXISTS player_skills ("
+            + "uuid TEXT NOT NULL REFERENCES players(uuid) ON DELETE CASCADE, "
+            + "skill_id TEXT NOT NULL, "
+            + "level INTEGER NOT NULL, "
+            + "PRIMARY KEY (uuid, skill_id)) WITHOUT ROWID";
+
+    private static final String SELECT_PLAYER =
+        "SELECT name, skill_points, total_points, mining, combat, movement, jumping, log_sequence FROM players WHERE uuid = ?";
+    private static final String SELECT_SKILLS =
+        "SELECT skill_id, level FROM player_skills WHERE uuid = ?";
+    private static final String SELECT_UUIDS =
+        "SELECT uuid FROM players";
+    private static final String UPSERT_PLAYER =
+        "INSERT INTO players (uuid, name, skill_points, total_points, mining, combat, movement, jumping, log_sequence) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT(uuid) DO UPDATE SET name = excluded.name, skill_points = excluded.skill_points, "
+            + "total_points = excluded.total_points, mining = excluded.mining, combat = excluded.combat, "
+            + "movement = excluded.movement, jumping = excluded.jumping, log_sequence = excluded.log_sequence";
+    private static final String DELETE_SKILLS =
+        "DELETE FROM player_skills WHERE uuid = ?";
+    private static final String INSERT_SKILL =
+        "INSERT INTO player_skills (uuid, skill_id, level) VALUES (?, ?, ?)";
+    private static final String DELETE_PLAYER =
+        "DELETE FROM players WHERE uuid = ?";
+
+    private final File databaseFile;
+    private final Logger logger;
+    private final ExecutorService ioThread;
+    // Оценка объема записанных строк (меняется только на ioThread)
+    private volatile long bytesWritten;
+
+    // Используются только из ioThread
+    private Connection connection;
+    private PreparedStatement selectPlayer;
+    private PreparedStatement selectSkills;
+    private PreparedStatement upsertPlayer;
+    private PreparedStatement deleteSkills;
+    private PreparedStatement insertSkill;
+    private PreparedStatement deletePlayer;
+
+    public SqlitePlayerDataStore(File databaseFile, Logger logger) throws IOException {
+        this.databaseFile = databaseFile;
+        this.logger = logger;
+        this.ioThread = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MineSkills-SQLite");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        call(() -> {
+            open();
+            return null;
+        });
+    }
+
+    /**
+     * Открыть соединение, включить WAL и подготовить запросы
+     */
+    private void open() throws SQLException, ClassNotFoundException {
+        Class.forName("org.sqlite.JDBC");
+        connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode=WAL");
+            statement.execute("PRAGMA synchronous=NORMAL");
+            statement.execute("PRAGMA foreign_keys=ON");
+            statement.execute(CREATE_PLAYERS);
+            statement.execute(CREATE_SKILLS);
+        }
+        migrateSchema();
+
+        prepareStatements();
+    }
+
+    /**
+     * Добавить колонки, появившиеся после создания базы
+     */
+    private void migrateSchema() throws SQLException {
+        Set<String> columns = new HashSet<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("PRAGMA table_info(players)")) {
+            while (rs.next()) {
+                columns.add(rs.getString("name"));
+            }
+        }
+
+        if (!columns.contains("log_sequence")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ALTER TABLE players ADD COLUMN log_sequence INTEGER NOT NULL DEFAULT 0");
+            }
+        }
+    }
+
+    private void prepareStatements() throws SQLException {
+        selectPlayer = connection.prepareStatement(SELECT_PLAYER);
+        selectSkills = connection.prepareStatement(SELECT_SKILLS);
+        upsertPlayer = connection.prepareStatement(UPSERT_PLAYER);
+        deleteSkills = connection.prepareStatement(DELETE_SKILLS);
+        insertSkill = connection.prepareStatement(INSERT_SKILL);
+        deletePlayer = connection.prepareStatement(DELETE_PLAYER);
+    }
+
+    @Override
+    public String getName() {
+        return "sqlite (" + databaseFile.getName() + ")";
+    }
+
+    @Override
+    public PlayerSkillData load(UUID uuid) throws IOException {
+        return call(() -> {
+            String uuidStr = uuid.toString();
+
+            selectPlayer.setString(1, uuidStr);
+            String name;
+            int skillPoints;
+            int totalPoints;
+            PlayerSkillData.ActionProgress progress;
+            long logSequence;
+            try (ResultSet rs = selectPlayer.executeQuery()) {
+                if (!rs.next()) return null;
+
+                name = rs.getString(1);
+                skillPoints = rs.getInt(2);
+                totalPoints = rs.getInt(3);
+                progress = new PlayerSkillData.ActionProgress(rs.getInt(4), rs.getInt(5), rs.getInt(6), rs.getInt(7));
+                logSequence = rs.getLong(8);
+            }
+
+            Map<String, Integer> skills = new HashMap<>();
+            selectSkills.setString(1, uuidStr);
+            try (ResultSet rs = selectSkills.executeQuery()) {
+                while (rs.next()) {
+                    skills.put(rs.getString(1), rs.getInt(2));
+                }
+            }
+
+            PlayerSkillData data = new PlayerSkillData(name, uuidStr, skillPoints, totalPoints, skills, progress);
+            data.setLogSequence(logSequence);
+            return data;
+        });
+    }
+
+    @Override
+    public Set<UUID> listPlayers() throws IOException {
+        return call(() -> {
+            Set<UUID> result = new HashSet<>();
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(SELECT_UUIDS)) {
+                while (rs.next()) {
+                    try {
+                        result.add(UUID.fromString(rs.getString(1)));
+                    } catch (IllegalArgumentException e) {
+                        logger.warning("Неверный UUID в базе: " + rs.getString(1));
+                    }
+                }
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public void save(UUID uuid, PlayerSkillData data) throws IOException {
+        saveBatch(Collections.singletonMap(uuid, data));
+    }
+
+    @Override
+    public void saveBatch(Map<UUID, PlayerSkillData> batch) throws IOException {
+        if (batch.isEmpty()) return;
+
+        call(() -> {
+            long[] payload = new long[1];
+            inTransaction(() -> {
+                for (Map.Entry<UUID, PlayerSkillData> entry : batch.entrySet()) {
+                    String uuidStr = entry.getKey().toString();
+                    PlayerSkillData data = entry.getValue();
+                    PlayerSkillData.ActionProgress progress = data.getActionProgress();
+
+                    upsertPlayer.setString(1, uuidStr);
+                    upsertPlayer.setString(2, data.getPlayerName());
+                    upsertPlayer.setInt(3, data.getSkillPoints());
+                    upsertPlayer.setInt(4, data.getTotalPointsEarned());
+                    upsertPlayer.setInt(5, progress.getMiningProgress());
+                    upsertPlayer.setInt(6, progress.getCombatProgress());
+                    upsertPlayer.setInt(7, progress.getMovementProgress());
+                    upsertPlayer.setInt(8, progress.getJumpingProgress());
+                    upsertPlayer.setLong(9, data.getLogSequence());
+                    upsertPlayer.addBatch();
+                    payload[0] += uuidStr.length() + data.getPlayerName().length() + 6L * Integer.BYTES + Long.BYTES;
+
+                    deleteSkills.setString(1, uuidStr);
+                    deleteSkills.addBatch();
+
+                    for (Map.Entry<String, Integer> skill : data.getSkills().entrySet()) {
+                        insertSkill.setString(1, uuidStr);
+                        insertSkill.setString(2, skill.getKey());
+                        insertSkill.setInt(3, skill.getValue());
+                        insertSkill.addBatch();
+                        payload[0] += uuidStr.length() + skill.getKey().length() + Integer.BYTES;
+                    }
+                }
+
+                // Порядок важен: строка игрока должна существовать до вставки навыков
+                upsertPlayer.executeBatch();
+                deleteSkills.executeBatch();
+                insertSkill.executeBatch();
+            });
+            bytesWritten += payload[0];
+            return null;
+        });
+    }
+
+    @Override
+    public void delete(UUID uuid) throws IOException {
+        call(() -> {
+            deletePlayer.setString(1, uuid.toString());
+            deletePlayer.executeUpdate();
+            return null;
+        });
+    }
+
+    @Override
+    public File backup(File backupFolder) throws IOException {
+        File backupFile = StorageFiles.backupFile(backupFolder, "db");
+        call(() -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("backup to " + quote(backupFile));
+            }
+            return null;
+        });
+        return backupFile;
+    }
+
+    @Override
+    public void restore(File backupFile) throws IOException {
+        call(() -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("restore from " + quote(backupFile));
+            }
+            // После restore схема могла измениться - подготавливаем запросы заново
+            closeStatements();
+            migrateSchema();
+            prepareStatements();
+            return null;
+        });
+    }
+
+    /**
+     * Путь к файлу как строковый литерал SQL (апостроф в пути удваивается)
+     */
+    private static String quote(File file) {
+        return "'" + file.getAbsolutePath().replace("'", "''") + "'";
+    }
+
+    /**
+     * Объем данных строк, без служебных страниц SQLite и WAL
+     */
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public void close() {
+        try {
+            call(() -> {
+                closeStatements();
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+                }
+                connection.close();
+                return null;
+            });
+        } catch (IOException e) {
+            logger.warning("Ошибка закрытия базы SQLite: " + e.getMessage());
+        }
+
+        ioThread.shutdown();
+        try {
+            if (!ioThread.awaitTermination(10, TimeUnit.SECONDS)) {
+                ioThread.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            ioThread.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void closeStatements() throws SQLException {
+        for (PreparedStatement statement : new PreparedStatement[] {
+            selectPlayer, selectSkills, upsertPlayer, deleteSkills, insertSkill, deletePlayer}) {
+            if (statement != null) {
+                statement.close();
+            }
+        }
+    }
+
+    /**
+     * Выполнить действие в одной транзакции
+     */
+    private void inTransaction(SqlAction action) throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            action.run();
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            upsertPlayer.clearBatch();
+            deleteSkills.clearBatch();
+            insertSkill.clearBatch();
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Выполнить задачу на потоке ввода-вывода и дождаться результата
+     */
+    private <T> T call(Callable<T> task) throws IOException {
+        try {
+            return ioThread.submit(task).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw new IOException("Ошибка SQLite: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Операция с базой прервана", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlAction {
+        void run() throws SQLException;
+    }
+}
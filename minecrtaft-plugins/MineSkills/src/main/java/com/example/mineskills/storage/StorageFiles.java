@@ -0,0 +1,42 @@
+package com.example.mineskills.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Общие операции с файлами хранилищ
+ */
+final class StorageFiles {
+
+    private StorageFiles() {
+    }
+
+    /**
+     * Атомарная запись файла (временный файл + rename)
+     */
+    static void writeAtomically(File file, byte[] bytes) throws IOException {
+        Path target = file.toPath();
+        Path temp = target.resolveSibling(file.getName() + ".tmp");
+
+        Files.write(temp, bytes);
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Файл резервной копии вида players_backup_<время>.<расширение>
+     */
+    static File backupFile(File backupFolder, String extension) {
+        if (!backupFolder.exists()) {
+            backupFolder.mkdirs();
+        }
+        return new File(backupFolder, "players_backup_" + System.currentTimeMillis() + "." + extension);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.mineskills.storage;
+
+import com.example.mineskills.models.PlayerSkillData;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Хранилище в одном YAML файле (players.yml, формат до появления players.dat)
+ *
+ * Документ целиком держится в памяти и переписывается при каждом сохранении,
+ * поэтому подходит только для небольших серверов, ручной правки данных
+ * и экспорта/импорта.
+ */
+public class YamlPlayerDataStore implements PlayerDataStore {
+    private final File dataFile;
+    private YamlConfiguration config;
+    private volatile long bytesWritten;
+
+    public YamlPlayerDataStore(File dataFile) {
+        this.dataFile = dataFile;
+        this.config = YamlConfiguration.loadConfiguration(dataFile);
+    }
+
+    @Override
+    public String getName() {
+        return "yaml (" + dataFile.getName() + ")";
+    }
+
+    @Override
+    public synchronized PlayerSkillData load(UUID uuid) throws IOException {
+        ConfigurationSection section = config.getConfigurationSection("players." + uuid);
+        if (section == null) return null;
+
+        try {
+            Map<String, Object> map = sectionToMap(section);
+            if (!(map.get("action_progress") instanceof Map)) {
+                map.put("action_progress", new HashMap<String, Object>());
+            }
+            if (!(map.get("skills") instanceof Map)) {
+                map.put("skills", new HashMap<String, Integer>());
+            }
+            return PlayerSkillData.fromYamlMap(uuid.toString(), map);
+        } catch (RuntimeException e) {
+            throw new IOException("Поврежденная запись игрока " + uuid + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized Set<UUID> listPlayers() {
+        Set<UUID> result = new HashSet<>();
+        ConfigurationSection players = config.getConfigurationSection("players");
+        if (players == null) return result;
+
+        for (String key : players.getKeys(false)) {
+            try {
+                result.add(UUID.fromString(key));
+            } catch (IllegalArgumentException ignored) {
+                // Не UUID - пропускаем
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void save(UUID uuid, PlayerSkillData data) throws IOException {
+        config.set("players." + uuid, data.toYamlMap());
+        writeFile();
+    }
+
+    @Override
+    public synchronized void saveBatch(Map<UUID, PlayerSkillData> batch) throws IOException {
+        if (batch.isEmpty()) return;
+
+        for (Map.Entry<UUID, PlayerSkillData> entry : batch.entrySet()) {
+            config.set("players." + entry.getKey(), entry.getValue().toYamlMap());
+        }
+        writeFile();
+    }
+
+    @Override
+    public synchronized void delete(UUID uuid) throws IOException {
+        config.set("players." + uuid, null);
+        writeFile();
+    }
+
+    @Override
+    public synchronized File backup(File backupFolder) throws IOException {
+        File backupFile = StorageFiles.backupFile(backupFolder, "yml");
+        if (dataFile.exists()) {
+            Files.copy(dataFile.toPath(), backupFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            StorageFiles.writeAtomically(backupFile, config.saveToString().getBytes(StandardCharsets.UTF_8));
+        }
+        return backupFile;
+    }
+
+    @Override
+    public synchronized void restore(File backupFile) throws IOException {
+        this.config = YamlConfiguration.loadConfiguration(backupFile);
+        writeFile();
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private void writeFile() throws IOException {
+        byte[] bytes = config.saveToString().getBytes(StandardCharsets.UTF_8);
+        StorageFiles.writeAtomically(dataFile, bytes);
+        bytesWritten += bytes.length;
+    }
+
+    /**
+     * Преобразовать секцию конфигурации во вложенные Map
+     */
+    private Map<String, Object> sectionToMap(ConfigurationSection section) {
+        Map<String, Object> result = new HashMap<>();
+        for (String key : section.getKeys(false)) {
+            Object value = section.get(key);
+            if (value instanceof ConfigurationSection) {
+                value = sectionToMap((ConfigurationSection) value);
+            }
+            result.put(key, value);
+        }
+        return result;
+    }
+}
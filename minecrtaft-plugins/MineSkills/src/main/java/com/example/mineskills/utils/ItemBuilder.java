@@ -11,12 +11,18 @@ import org.bukkit.persistence.PersistentDataType;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * Утилитарный класс для создания предметов с Component API
  */
 public class ItemBuilder {
+    // Общие для всех игроков шаблоны предметов GUI (String или TemplateKey -> готовый предмет)
+    private static final Map<Object, ItemStack> TEMPLATES = new ConcurrentHashMap<>();
+
     private ItemStack item;
     private ItemMeta meta;
     private List<Component> lore;
@@ -169,6 +175,84 @@ public class ItemBuilder {
                 .build();
     }
 
+    /**
+     * Получить общий шаблон предмета, собрав его при первом запросе
+     * Шаблон не изменяется после сборки и выдается без копии: Inventory.setItem
+     * сам копирует предмет, поэтому один экземпляр можно выставлять в инвентари
+     * разных игроков. Изменять шаблон нельзя - для этого нужен clone()
+     */
+    public static ItemStack template(String key, Supplier<ItemStack> factory) {
+        return cached(key, factory);
+    }
+
+    /**
+     * Получить общий шаблон предмета скилла для уровня и состояния
+     *
+     * @param unlocked требования скилла выполнены
+     * @param affordable очков хватает на следующий уровень
+     */
+    public static ItemStack skillTemplate(String skillId, int level, boolean unlocked, boolean affordable,
+                                          Supplier<ItemStack> factory) {
+        return cached(new TemplateKey(skillId, level, unlocked, affordable), factory);
+    }
+
+    /**
+     * Сбросить все шаблоны (при перезагрузке конфигурации)
+     */
+    public static void clearTemplates() {
+        TEMPLATES.clear();
+    }
+
+    /**
+     * Количество собранных шаблонов
+     */
+    public static int getTemplateCount() {
+        return TEMPLATES.size();
+    }
+
+    private static ItemStack cached(Object key, Supplier<ItemStack> factory) {
+        ItemStack item = TEMPLATES.get(key);
+        if (item == null) {
+            item = factory.get();
+            ItemStack existing = TEMPLATES.putIfAbsent(key, item);
+            if (existing != null) {
+                item = existing;
+            }
+        }
+        return item;
+    }
+
+    /**
+     * Ключ шаблона предмета скилла: (скилл, уровень, открыт, хватает очков)
+     */
+    private static final class TemplateKey {
+        private final String skillId;
+        private final int level;
+        private final boolean unlocked;
+        private final boolean affordable;
+
+        TemplateKey(String skillId, int level, boolean unlocked, boolean affordable) {
+            this.skillId = skillId;
+            this.level = level;
+            this.unlocked = unlocked;
+            this.affordable = affordable;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TemplateKey)) return false;
+            TemplateKey other = (TemplateKey) o;
+            return level == other.level && unlocked == other.unlocked
+                && affordable == other.affordable && skillId.equals(other.skillId);
+        }
+
+        @Override
+        public int hashCode() {
+            return ((skillId.hashCode() * 31 + level) * 2 + (unlocked ? 1 : 0)) * 2 + (affordable ? 1 : 0);
+        }
+    }
+
     /**
      * Создать пустой слот
      */
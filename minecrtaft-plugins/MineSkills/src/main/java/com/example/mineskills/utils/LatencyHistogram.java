@@ -0,0 +1,114 @@
+package com.example.mineskills.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Гистограмма задержек в наносекундах (по схеме HdrHistogram)
+ *
+ * Значения раскладываются по логарифмическим корзинам: на каждую степень
+ * двойки приходится 32 корзины, поэтому погрешность перцентилей не больше
+ * ~3% на всем диапазоне от 1 нс до ~68 с. Все корзины выделены заранее,
+ * запись - несколько атомарных инкрементов без аллокаций, поэтому
+ * гистограмму можно вызывать из горячих обработчиков событий.
+ *
+ * Запись и чтение потокобезопасны; снимок при одновременной записи
+ * может отставать на несколько значений.
+ */
+public class LatencyHistogram {
+    // 2^5 = 32 корзины на степень двойки
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // Старший учитываемый разряд: 2^36 нс ~ 68 секунд, больше - в последнюю корзину
+    private static final int MAX_EXPONENT = 36;
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT * (MAX_EXPONENT - SUB_BUCKET_BITS + 2);
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Записать одно значение
+     */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+
+        counts.incrementAndGet(bucketOf(nanos));
+        totalCount.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    /**
+     * Значение перцентиля (0-100), верхняя граница корзины
+     */
+    public long getPercentile(double percentile) {
+        long total = totalCount.get();
+        if (total == 0) return 0;
+
+        long target = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= target) {
+                return Math.min(upperBoundOf(bucket), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    public long getMax() {
+        return maxNanos.get();
+    }
+
+    public long getMean() {
+        long total = totalCount.get();
+        return total > 0 ? totalNanos.get() / total : 0;
+    }
+
+    /**
+     * Обнулить гистограмму
+     */
+    public void reset() {
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            counts.set(bucket, 0);
+        }
+        totalCount.set(0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+
+    /**
+     * Номер корзины для значения
+     */
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKET_COUNT) return (int) value;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) return BUCKET_COUNT - 1;
+
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return SUB_BUCKET_COUNT * (shift + 1) + subBucket;
+    }
+
+    /**
+     * Наибольшее значение, попадающее в корзину
+     */
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) return bucket;
+
+        int shift = bucket / SUB_BUCKET_COUNT - 1;
+        long subBucket = bucket % SUB_BUCKET_COUNT;
+        return ((SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+    }
+}
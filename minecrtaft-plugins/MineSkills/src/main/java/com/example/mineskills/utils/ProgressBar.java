@@ -3,10 +3,19 @@ package com.example.mineskills.utils;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Утилитарный класс для создания прогресс-баров в GUI
+ *
+ * Component неизменяем, поэтому готовые бары кэшируются по (значение, максимум,
+ * длина, цвета) и выдаются всем игрокам без повторной сборки строки.
  */
 public class ProgressBar {
+    // Ограничение кэша: значения прогресса ограничены порогами, но на всякий случай
+    private static final int MAX_CACHED_BARS = 4096;
+    private static final Map<BarKey, Component> BAR_CACHE = new ConcurrentHashMap<>();
     
     /**
      * Создать простой прогресс-бар
@@ -14,6 +23,33 @@ public class ProgressBar {
     public static Component createBar(int current, int max, int length, NamedTextColor filledColor, NamedTextColor emptyColor) {
         if (max <= 0) max = 1; // Предотвращение деления на ноль
         
+        // Значения вне диапазона (прогресс сверх порога) не кэшируем
+        if (current < 0 || current > max) {
+            return renderBar(current, max, length, filledColor, emptyColor);
+        }
+        
+        BarKey key = new BarKey(current, max, length, filledColor, emptyColor);
+        Component bar = BAR_CACHE.get(key);
+        if (bar == null) {
+            bar = renderBar(current, max, length, filledColor, emptyColor);
+            if (BAR_CACHE.size() < MAX_CACHED_BARS) {
+                BAR_CACHE.putIfAbsent(key, bar);
+            }
+        }
+        return bar;
+    }
+    
+    /**
+     * Сбросить кэш готовых баров (при перезагрузке конфигурации)
+     */
+    public static void clearCache() {
+        BAR_CACHE.clear();
+    }
+    
+    /**
+     * Собрать строку прогресс-бара
+     */
+    private static Component renderBar(int current, int max, int length, NamedTextColor filledColor, NamedTextColor emptyColor) {
         double percentage = (double) current / max;
         int filled = Math.min((int) (percentage * length), length);
         
@@ -89,4 +125,41 @@ public class ProgressBar {
         double progress = (double) currentPoints / pointsToNext;
         return createColoredBar(currentPoints, pointsToNext, 20);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Ключ кэша прогресс-баров
+     */
+    private static final class BarKey {
+        private final int current;
+        private final int max;
+        private final int length;
+        private final NamedTextColor filledColor;
+        private final NamedTextColor emptyColor;
+        
+        BarKey(int current, int max, int length, NamedTextColor filledColor, NamedTextColor emptyColor) {
+            this.current = current;
+            this.max = max;
+            this.length = length;
+            this.filledColor = filledColor;
+            this.emptyColor = emptyColor;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof BarKey)) return false;
+            BarKey other = (BarKey) o;
+            return current == other.current && max == other.max && length == other.length
+                && filledColor == other.filledColor && emptyColor == other.emptyColor;
+        }
+        
+        @Override
+        public int hashCode() {
+            int result = current;
+            result = 31 * result + max;
+            result = 31 * result + length;
+            result = 31 * result + filledColor.hashCode();
+            return 31 * result + emptyColor.hashCode();
+        }
+    }
+}
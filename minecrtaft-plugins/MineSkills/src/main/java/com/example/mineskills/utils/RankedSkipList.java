@@ -0,0 +1,227 @@
+package com.example.mineskills.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Упорядоченный по убыванию очков список игроков с поиском места за O(log n)
+ *
+ * Индексируемый skip list: каждая ссылка уровня хранит, сколько узлов нулевого
+ * уровня она перепрыгивает (span), поэтому место игрока и игрок на месте N
+ * находятся одним спуском по уровням. Равные очки упорядочены по UUID, чтобы
+ * порядок был однозначным. Изменение очков - удаление и вставка узла.
+ *
+ * Не потокобезопасен: синхронизацию обеспечивает владелец.
+ */
+public class RankedSkipList {
+    private static final int MAX_LEVEL = 32;
+
+    private final Node head = new Node(null, Long.MAX_VALUE, MAX_LEVEL);
+    private final Map<UUID, Node> nodes = new HashMap<>();
+    private int level = 1;
+    private int length;
+
+    // Рабочие массивы вставки: предшественники и их места на каждом уровне
+    private final Node[] predecessors = new Node[MAX_LEVEL];
+    private final int[] predecessorRanks = new int[MAX_LEVEL];
+
+    /**
+     * Установить очки игрока (добавляет игрока, если его нет)
+     */
+    public void update(UUID id, long score) {
+        Node existing = nodes.get(id);
+        if (existing != null) {
+            if (existing.score == score) return;
+            delete(existing);
+        }
+        nodes.put(id, insert(id, score));
+    }
+
+    /**
+     * Удалить игрока из списка
+     */
+    public void remove(UUID id) {
+        Node node = nodes.remove(id);
+        if (node != null) {
+            delete(node);
+        }
+    }
+
+    /**
+     * Очки игрока (0, если игрока нет)
+     */
+    public long scoreOf(UUID id) {
+        Node node = nodes.get(id);
+        return node != null ? node.score : 0;
+    }
+
+    /**
+     * Место игрока, начиная с 1 (0, если игрока нет)
+     */
+    public int rankOf(UUID id) {
+        Node target = nodes.get(id);
+        if (target == null) return 0;
+
+        Node x = head;
+        int rank = 0;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && (x.next[i] == target || before(target.score, target.id, x.next[i]))) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x == target) return rank;
+        }
+        return 0;
+    }
+
+    /**
+     * Игроки с мест fromRank..fromRank+count-1 (места начинаются с 1)
+     */
+    public List<Entry> range(int fromRank, int count) {
+        List<Entry> result = new ArrayList<>(Math.max(0, Math.min(count, length - fromRank + 1)));
+        if (fromRank < 1 || fromRank > length || count <= 0) return result;
+
+        // Спуск до узла на месте fromRank
+        Node x = head;
+        int traversed = 0;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= fromRank) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+        }
+
+        for (int rank = fromRank; x != null && result.size() < count; rank++, x = x.next[0]) {
+            result.add(new Entry(rank, x.id, x.score));
+        }
+        return result;
+    }
+
+    public int size() {
+        return length;
+    }
+
+    public void clear() {
+        for (int i = 0; i < MAX_LEVEL; i++) {
+            head.next[i] = null;
+            head.span[i] = 0;
+        }
+        nodes.clear();
+        level = 1;
+        length = 0;
+    }
+
+    /**
+     * Идет ли узел node раньше пары (score, id)
+     */
+    private static boolean before(long score, UUID id, Node node) {
+        return node.score > score || (node.score == score && node.id.compareTo(id) < 0);
+    }
+
+    private Node insert(UUID id, long score) {
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            predecessorRanks[i] = i == level - 1 ? 0 : predecessorRanks[i + 1];
+            while (x.next[i] != null && before(score, id, x.next[i])) {
+                predecessorRanks[i] += x.span[i];
+                x = x.next[i];
+            }
+            predecessors[i] = x;
+        }
+
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                predecessorRanks[i] = 0;
+                predecessors[i] = head;
+                head.span[i] = length;
+            }
+            level = nodeLevel;
+        }
+
+        Node node = new Node(id, score, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = predecessors[i].next[i];
+            predecessors[i].next[i] = node;
+            node.span[i] = predecessors[i].span[i] - (predecessorRanks[0] - predecessorRanks[i]);
+            predecessors[i].span[i] = (predecessorRanks[0] - predecessorRanks[i]) + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            predecessors[i].span[i]++;
+        }
+        // Не удерживаем ссылки на узлы, которые могут быть удалены
+        Arrays.fill(predecessors, 0, level, null);
+
+        length++;
+        return node;
+    }
+
+    private void delete(Node node) {
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && x.next[i] != node && before(node.score, node.id, x.next[i])) {
+                x = x.next[i];
+            }
+            if (x.next[i] == node) {
+                x.span[i] += node.span[i] - 1;
+                x.next[i] = node.next[i];
+            } else {
+                x.span[i]--;
+            }
+        }
+
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        length--;
+    }
+
+    /**
+     * Уровень нового узла: каждый следующий с вероятностью 1/4
+     */
+    private static int randomLevel() {
+        int nodeLevel = 1;
+        while (nodeLevel < MAX_LEVEL && (ThreadLocalRandom.current().nextInt() & 3) == 0) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+
+    private static final class Node {
+        final UUID id;
+        final long score;
+        final Node[] next;
+        final int[] span;
+
+        Node(UUID id, long score, int level) {
+            this.id = id;
+            this.score = score;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+
+    /**
+     * Место игрока в списке
+     */
+    public static final class Entry {
+        private final int rank;
+        private final UUID id;
+        private final long score;
+
+        Entry(int rank, UUID id, long score) {
+            this.rank = rank;
+            this.id = id;
+            this.score = score;
+        }
+
+        public int getRank() { return rank; }
+        public UUID getId() { return id; }
+        public long getScore() { return score; }
+    }
+}